@@ -3,6 +3,7 @@ package com.bootnext.platform.sla.model.template;
 import java.io.Serializable;
 
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.RelationTargetAuditMode;
 import org.json.JSONArray;
 
 import jakarta.persistence.Basic;
@@ -12,25 +13,31 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.NamedNativeQuery;
 import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 
-        @NamedQuery(name = "getAllEscalations", query = "select s from Escalation s where status=:status")
         @NamedQuery(name = "getEscalationByGeneratedValue", query = "select s from Escalation s where s.slaId=:generatedValue")
         // @NamedQuery(name = "getEscalationByLevelAndEntityId", query = "select s from Escalation s where s.level=:level and s.entityId=:entityId")
         @NamedQuery(name = "getEscalationByLevelAndSlaHistory", query = "select s from Escalation s where s.level=:level and s.slaHistory.id=:slaHistory")
         @NamedQuery(name = "getEscalationByEntityId", query = "select s from Escalation s where s.entityId=:entityId")
          @NamedQuery(name = "getEscalationBySlaHistory", query = "select s from Escalation s where s.slaHistory.id=:slaHistory")
+        @NamedQuery(name = "getEscalationByIds", query = "select s from Escalation s join fetch s.slaHistory where s.id in :ids")
+        @NamedQuery(name = "getEscalationBySlaHistoryIds", query = "select s from Escalation s where s.slaHistory.id in :slaHistoryIds")
+        @NamedQuery(name = "getDueEscalations", query = "select s from Escalation s join fetch s.slaHistory h where s.status=false and s.mailQueuedTime is null and s.escalationTime<:dueTime and h.state=:state order by s.escalationTime")
         @NamedQuery(name = "getPresentDayEscalateActivities", query = "select COUNT(s) from Escalation s where status= true and s.escalationTime=:currentDate")
-        @NamedQuery(name = "getTopSlaEscalated", query = "SELECT st.name, max(e.escalationTime), COUNT(e) FROM Escalation e join SlaTemplate st on e.slaId=st.slaId where e.status = true GROUP BY e.slaId, st.name  order by count(e) desc ")
-        @NamedNativeQuery(name = "getThirtyDaysEscalations", query = "SELECT COUNT(*), DATE_FORMAT(FROM_UNIXTIME(ESCALATE_TIME  / 1000), '%Y-%m-%d') AS converted_time FROM ESCALATION WHERE ESCALATE_TIME BETWEEN UNIX_TIMESTAMP(CURDATE() - INTERVAL 30 DAY) * 1000 AND UNIX_TIMESTAMP(CURDATE()) * 1000 GROUP BY  converted_time")
-        @NamedNativeQuery(name = "getAuditByFk", query = "SELECT ESCALATE_TIME, WHOM_TO_ESCALATE, LEVEL FROM ESCALATION WHERE SLA_HISTORY=:id AND STATUS = TRUE ORDER BY CREATED_TIME DESC")
+        @NamedNativeQuery(name = "getTopSlaEscalated", query = "SELECT st.NAME, MAX(e.ESCALATE_TIME), COUNT(*) FROM (SELECT GENERATED_VALUE, ESCALATE_TIME FROM ESCALATION WHERE STATUS = TRUE UNION ALL SELECT GENERATED_VALUE, ESCALATE_TIME FROM ESCALATION_ARCHIVE WHERE STATUS = TRUE) e JOIN SLA_TEMPLATE st ON e.GENERATED_VALUE = st.GENERATED_VALUE GROUP BY e.GENERATED_VALUE, st.NAME ORDER BY COUNT(*) DESC")
+        @NamedNativeQuery(name = "getEscalationTimelineAfter", query = "SELECT e.ID, e.ESCALATE_TIME, e.WHOM_TO_ESCALATE, e.LEVEL FROM (SELECT ID, ESCALATE_TIME, WHOM_TO_ESCALATE, LEVEL FROM ESCALATION WHERE SLA_HISTORY=:slaHistoryId AND STATUS = TRUE UNION ALL SELECT ID, ESCALATE_TIME, WHOM_TO_ESCALATE, LEVEL FROM ESCALATION_ARCHIVE WHERE SLA_HISTORY=:slaHistoryId AND STATUS = TRUE) e WHERE e.ESCALATE_TIME > :afterTime OR (e.ESCALATE_TIME = :afterTime AND e.ID > :afterId) ORDER BY e.ESCALATE_TIME, e.ID")
+        @NamedNativeQuery(name = "countEscalationTimeline", query = "SELECT (SELECT COUNT(*) FROM ESCALATION WHERE SLA_HISTORY=:slaHistoryId AND STATUS = TRUE) + (SELECT COUNT(*) FROM ESCALATION_ARCHIVE WHERE SLA_HISTORY=:slaHistoryId AND STATUS = TRUE)")
+        @NamedNativeQuery(name = "archiveEscalationBySlaHistoryIds", query = "INSERT INTO ESCALATION_ARCHIVE (ID, LEVEL, GENERATED_VALUE, ESCALATE_TIME, WHOM_TO_ESCALATE, RECIPIENT_SPEC, STATUS, BREACH_TIME, ENTITY_ID, CREATED_TIME, MAIL_TEMPLATE_NAME, TEMPLATE_CONFIGURATION, TIME_ZONE, SEND_EMAIL, SEND_NOTIFICATION, ENABLE_GEOGRAPHY, ENTITY_FIELD_FOR_OWNER, ENTITY_FIELD_FOR_GEOGRAPHY, MAIL_QUEUED_TIME, SLA_HISTORY) SELECT ID, LEVEL, GENERATED_VALUE, ESCALATE_TIME, WHOM_TO_ESCALATE, RECIPIENT_SPEC, STATUS, BREACH_TIME, ENTITY_ID, CREATED_TIME, MAIL_TEMPLATE_NAME, TEMPLATE_CONFIGURATION, TIME_ZONE, SEND_EMAIL, SEND_NOTIFICATION, ENABLE_GEOGRAPHY, ENTITY_FIELD_FOR_OWNER, ENTITY_FIELD_FOR_GEOGRAPHY, MAIL_QUEUED_TIME, SLA_HISTORY FROM ESCALATION WHERE SLA_HISTORY IN (:slaHistoryIds)")
+        @NamedNativeQuery(name = "deleteEscalationBySlaHistoryIds", query = "DELETE FROM ESCALATION WHERE SLA_HISTORY IN (:slaHistoryIds)")
 
 
 
@@ -38,12 +45,15 @@ import lombok.Data;
 //@JsonIgnoreProperties(value = { "hibernateLazyInitializer", "handler" })
 @Audited
 @Entity
-@Table(name = "ESCALATION")
+@Table(name = "ESCALATION", indexes = {
+        @Index(name = "IDX_ESCALATION_DUE", columnList = "STATUS, ESCALATE_TIME") })
 @Data
 public class Escalation implements Serializable {
     private static final long serialVersionUID = 2550819599709342392L;
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled ids so that the escalations of an SLA history are inserted in one JDBC batch
+    @TableGenerator(name = "ESCALATION_ID_GENERATOR", table = "SLA_ID_GENERATOR", pkColumnName = "GENERATOR_NAME", valueColumnName = "NEXT_VALUE", pkColumnValue = "ESCALATION", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ESCALATION_ID_GENERATOR")
     @Id
     @Column(name = "ID", columnDefinition = "INT")
     private Integer id;
@@ -62,6 +72,10 @@ public class Escalation implements Serializable {
     @Convert(converter = JpaConverterForJSONArray.class)
     @Column(name = "WHOM_TO_ESCALATE")
     private JSONArray whomToEscalate;
+
+    /** Escalation targets resolved into whomToEscalate when the mail is sent. */
+    @Column(name = "RECIPIENT_SPEC", columnDefinition = "json")
+    private String recipientSpec;
     
     @Column(name = "STATUS")
     private boolean status;
@@ -99,6 +113,12 @@ public class Escalation implements Serializable {
     @Column(name = "ENTITY_FIELD_FOR_GEOGRAPHY")
     private String entityFieldForGeography;
 
+    /** Time the escalation mail was queued, the status is set once the mail is delivered. */
+    @Column(name = "MAIL_QUEUED_TIME")
+    private Long mailQueuedTime;
+
+    // the histories are not audited, their changes are in SLA_HISTORY_TRANSITION
+    @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne
     @JoinColumn(name = "SLA_HISTORY", nullable = false)
     private SlaHistory slaHistory;
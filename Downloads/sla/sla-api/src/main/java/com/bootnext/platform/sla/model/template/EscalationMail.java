@@ -0,0 +1,96 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Escalation mail waiting to be delivered to the notification service.
+ *
+ * Rows are written in the same transaction as the escalation they belong to
+ * and removed once the mail service acknowledged the delivery, so that no mail
+ * is lost when the service is restarted.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getDueEscalationMailIds", query = "select m.id from EscalationMail m where m.state=:state and m.nextAttemptTime<=:dueTime order by m.nextAttemptTime"),
+        @NamedQuery(name = "claimEscalationMails", query = "update EscalationMail m set m.state=:sendingState, m.claimToken=:claimToken, m.modifiedTime=:modifiedTime where m.id in :ids and m.state=:pendingState"),
+        @NamedQuery(name = "getEscalationMailsByClaimToken", query = "select m from EscalationMail m where m.claimToken=:claimToken and m.state=:state"),
+        @NamedQuery(name = "releaseStaleEscalationMails", query = "update EscalationMail m set m.state=:pendingState, m.claimToken=null where m.state=:sendingState and m.modifiedTime<:staleTime"),
+        @NamedQuery(name = "getEscalationMailsByIds", query = "select m from EscalationMail m where m.id in :ids"),
+        @NamedQuery(name = "deleteEscalationMailsByIds", query = "delete from EscalationMail m where m.id in :ids"),
+})
+
+@Entity
+@Table(name = "ESCALATION_MAIL_OUTBOX", indexes = {
+        @Index(name = "IDX_ESCALATION_MAIL_OUTBOX_DUE", columnList = "STATE, NEXT_ATTEMPT_TIME"),
+        @Index(name = "IDX_ESCALATION_MAIL_OUTBOX_CLAIM", columnList = "CLAIM_TOKEN") })
+@Data
+public class EscalationMail implements Serializable {
+
+    private static final long serialVersionUID = -4571230785640338851L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "INT")
+    private Integer id;
+
+    @Column(name = "ESCALATION_ID", nullable = false)
+    private Integer escalationId;
+
+    @Column(name = "TO_EMAIL_IDS", columnDefinition = "json")
+    private String toEmailIds;
+
+    /** Escalation targets to resolve before sending, when TO_EMAIL_IDS is not known yet. */
+    @Column(name = "RECIPIENT_SPEC", columnDefinition = "json")
+    private String recipientSpec;
+
+    @Column(name = "MAIL_TEMPLATE_NAME")
+    private String mailTemplateName;
+
+    @Column(name = "SUBJECT", columnDefinition = "TEXT")
+    private String subject;
+
+    @Column(name = "CONTENT", columnDefinition = "LONGTEXT")
+    private String content;
+
+    /** Hash of the recipients and of the mail template, such mails are sent as one digest. */
+    @Column(name = "COALESCE_KEY", length = 64)
+    private String coalesceKey;
+
+    @Column(name = "STATE")
+    @Enumerated(EnumType.STRING)
+    private STATE state;
+
+    public enum STATE {
+        PENDING, SENDING
+    }
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    @Column(name = "NEXT_ATTEMPT_TIME")
+    private Long nextAttemptTime;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    @Column(name = "CLAIM_TOKEN", length = 36)
+    private String claimToken;
+
+    @Column(name = "CREATED_TIME", insertable = true, updatable = false)
+    private Long createdTime;
+
+    @Column(name = "MODIFIED_TIME")
+    private Long modifiedTime;
+}
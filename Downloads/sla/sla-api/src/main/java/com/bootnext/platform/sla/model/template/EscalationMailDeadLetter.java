@@ -0,0 +1,55 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Escalation mail that could not be delivered after the configured number of
+ * attempts. The escalation it belongs to is left unsent.
+ */
+@Entity
+@Table(name = "ESCALATION_MAIL_DEAD_LETTER")
+@Data
+public class EscalationMailDeadLetter implements Serializable {
+
+    private static final long serialVersionUID = 6160459321752098614L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "INT")
+    private Integer id;
+
+    @Column(name = "ESCALATION_ID", nullable = false)
+    private Integer escalationId;
+
+    @Column(name = "TO_EMAIL_IDS", columnDefinition = "json")
+    private String toEmailIds;
+
+    @Column(name = "MAIL_TEMPLATE_NAME")
+    private String mailTemplateName;
+
+    @Column(name = "SUBJECT", columnDefinition = "TEXT")
+    private String subject;
+
+    @Column(name = "CONTENT", columnDefinition = "LONGTEXT")
+    private String content;
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    @Column(name = "QUEUED_TIME")
+    private Long queuedTime;
+
+    @Column(name = "CREATED_TIME", insertable = true, updatable = false)
+    private Long createdTime;
+}
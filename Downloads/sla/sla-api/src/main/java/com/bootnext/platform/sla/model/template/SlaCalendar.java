@@ -0,0 +1,67 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Named working calendar referenced by SLA templates.
+ *
+ * "WORK_WEEK" holds the shifts of each weekday, e.g.
+ * {"SUNDAY":[{"start":"09:00","end":"13:00"},{"start":"14:00","end":"18:00"}]},
+ * weekdays without shift being non-working days. "HOLIDAYS" is an array of
+ * {"date":"2026-12-02","name":"..."} and "CLOSURES" an array of one-off
+ * non-working periods {"from":"2026-10-20T10:00","to":"2026-10-20T14:00"}, all
+ * in the local time of the SLA template.
+ */
+@NamedQuery(name = "getSlaCalendarByName", query = "SELECT c FROM SlaCalendar c WHERE c.name=:name")
+@Entity
+@Table(name = "SLA_CALENDAR")
+@Data
+public class SlaCalendar implements Serializable {
+
+    private static final long serialVersionUID = -3021473858920576716L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "INT")
+    private Integer id;
+
+    @Basic
+    @NotNull
+    @Column(name = "NAME", unique = true, nullable = false)
+    @Size(min = 0, max = 150)
+    private String name;
+
+    @Basic
+    @Column(name = "DESCRIPTION")
+    private String description;
+
+    @NotNull
+    @Column(name = "WORK_WEEK", columnDefinition = "json")
+    private String workWeek;
+
+    @Column(name = "HOLIDAYS", columnDefinition = "json")
+    private String holidays;
+
+    @Column(name = "CLOSURES", columnDefinition = "json")
+    private String closures;
+
+    @Basic
+    @Column(name = "MODIFIED_TIME", insertable = true, updatable = true)
+    private Long modifiedTime;
+
+    @Basic
+    @Column(name = "CREATED_TIME", insertable = true, updatable = false)
+    private Long createdTime;
+}
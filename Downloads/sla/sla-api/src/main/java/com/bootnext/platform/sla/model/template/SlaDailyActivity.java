@@ -0,0 +1,76 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Daily counter of an SLA activity, e.g. the number of SLAs of a template
+ * breached at a level on a day.
+ *
+ * Counters are incremented in the transaction of the activity, so that the
+ * dashboards read a few counters instead of the histories and escalations.
+ * The day is the local day of the time zone of the SLA history.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getSlaDailyActivityTotals", query = "select a.activityDay, a.timeZone, a.metric, sum(a.activityCount) from SlaDailyActivity a where a.activityDay between :fromDay and :toDay group by a.activityDay, a.timeZone, a.metric"),
+})
+@NamedNativeQuery(name = "incrementSlaDailyActivity", query = "INSERT INTO SLA_DAILY_ACTIVITY (ACTIVITY_DAY, TIME_ZONE, APPLICATION, EXECUTED_ON, SLA_IDENTIFIER, LEVEL, METRIC, ACTIVITY_COUNT) VALUES (:activityDay, :timeZone, :application, :executedOn, :slaIdentifier, :level, :metric, :activityCount) ON DUPLICATE KEY UPDATE ACTIVITY_COUNT = ACTIVITY_COUNT + VALUES(ACTIVITY_COUNT)")
+
+@Entity
+@Table(name = "SLA_DAILY_ACTIVITY", uniqueConstraints = @UniqueConstraint(name = "UK_SLA_DAILY_ACTIVITY", columnNames = {
+        "ACTIVITY_DAY", "TIME_ZONE", "APPLICATION", "EXECUTED_ON", "SLA_IDENTIFIER", "LEVEL", "METRIC" }))
+@Data
+public class SlaDailyActivity implements Serializable {
+
+    private static final long serialVersionUID = 6112874021387493520L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "BIGINT")
+    private Long id;
+
+    /** Local day of the activity, as yyyy-MM-dd. */
+    @Column(name = "ACTIVITY_DAY", length = 10, nullable = false)
+    private String activityDay;
+
+    @Column(name = "TIME_ZONE", nullable = false)
+    private String timeZone;
+
+    @Column(name = "APPLICATION", nullable = false)
+    private String application;
+
+    @Column(name = "EXECUTED_ON", nullable = false)
+    private String executedOn;
+
+    @Column(name = "SLA_IDENTIFIER", nullable = false)
+    private String slaIdentifier;
+
+    /** Level of the SLA history, 0 for the activities not tied to a level. */
+    @Column(name = "LEVEL", nullable = false)
+    private int level;
+
+    @Column(name = "METRIC", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private METRIC metric;
+
+    /** The states reached by the SLA histories, then breaches and sent escalations. */
+    public enum METRIC {
+        NEW, IN_PROGRESS, ON_HOLD, COMPLETED, CANCELLED, BREACHED, ESCALATED
+    }
+
+    @Column(name = "ACTIVITY_COUNT", nullable = false)
+    private long activityCount;
+}
@@ -0,0 +1,64 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Last entity version applied to an SLA template for an entity.
+ *
+ * Events carrying a version not greater than the last applied one are
+ * duplicates or arrived out of order, and are dropped for that template before
+ * its conditions are evaluated. The versions of the entities without open
+ * history are purged by the archiver once they are older than its retention.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getSlaEntityVersionsByEntityIds", query = "select v from SlaEntityVersion v where v.applicationName=:applicationName and v.entityName=:entityName and v.entityId in :entityIds"),
+        @NamedQuery(name = "getPurgeableSlaEntityVersionIds", query = "select v.id from SlaEntityVersion v where v.modifiedTime<:modifiedBefore and not exists (select s.id from SlaHistory s where s.application=v.applicationName and s.executedOn=v.entityName and s.entityIdentifier=v.entityId and s.slaIdentifier=v.slaIdentifier and (s.state='IN_PROGRESS' or s.state='ON_HOLD')) order by v.modifiedTime"),
+        @NamedQuery(name = "deleteSlaEntityVersionByIds", query = "delete from SlaEntityVersion v where v.id in :ids"),
+})
+// concurrent instances may record the first version of the same entity and template, the later one wins
+@NamedNativeQuery(name = "upsertSlaEntityVersion", query = "INSERT INTO SLA_ENTITY_VERSION (APPLICATION_NAME, ENTITY_NAME, ENTITY_ID, SLA_IDENTIFIER, ENTITY_VERSION, MODIFIED_TIME) VALUES (:applicationName, :entityName, :entityId, :slaIdentifier, :entityVersion, :modifiedTime) ON DUPLICATE KEY UPDATE ENTITY_VERSION = GREATEST(ENTITY_VERSION, VALUES(ENTITY_VERSION)), MODIFIED_TIME = VALUES(MODIFIED_TIME)")
+
+@Entity
+@Table(name = "SLA_ENTITY_VERSION", uniqueConstraints = @UniqueConstraint(name = "UK_SLA_ENTITY_VERSION", columnNames = {
+        "APPLICATION_NAME", "ENTITY_NAME", "ENTITY_ID", "SLA_IDENTIFIER" }), indexes = @Index(name = "IDX_SLA_ENTITY_VERSION_MODIFIED", columnList = "MODIFIED_TIME"))
+@Data
+public class SlaEntityVersion implements Serializable {
+
+    private static final long serialVersionUID = -1948202785316645270L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "BIGINT")
+    private Long id;
+
+    @Column(name = "APPLICATION_NAME", nullable = false)
+    private String applicationName;
+
+    @Column(name = "ENTITY_NAME", nullable = false)
+    private String entityName;
+
+    @Column(name = "ENTITY_ID", nullable = false)
+    private String entityId;
+
+    @Column(name = "SLA_IDENTIFIER", nullable = false)
+    private String slaIdentifier;
+
+    @Column(name = "ENTITY_VERSION", nullable = false)
+    private Long entityVersion;
+
+    @Column(name = "MODIFIED_TIME")
+    private Long modifiedTime;
+}
@@ -11,7 +11,6 @@ import org.hibernate.annotations.Filters;
 import org.hibernate.annotations.NamedQueries;
 import org.hibernate.annotations.NamedQuery;
 import org.hibernate.annotations.ParamDef;
-import org.hibernate.envers.Audited;
 
 import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
@@ -21,6 +20,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.NamedNativeQuery;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
@@ -29,38 +29,40 @@ import lombok.Data;
 
 
 @Entity
-@Audited
-@Table(name = "SLA_HISTORY")
+@Table(name = "SLA_HISTORY", indexes = {
+        @Index(name = "IDX_SLA_HISTORY_DUE", columnList = "STATE, BREACH_STATUS, BREACH_TIME"),
+        @Index(name = "IDX_SLA_HISTORY_CLOSED", columnList = "STATE, MODIFIED_TIME") })
 @Data
 // @XmlRootElement(name = "SlaHistory")
 @DynamicUpdate(value = true)
 
-@NamedNativeQuery(
-    name = "SLA_HISTORY_AUD.findAll",
-//     query = "select s.CREATED_TIME as createdTime, s.state as state from SLA_HISTORY_AUD s"
-        query = "SELECT COUNT(1) AS record_count, STATE, DATE_FORMAT(FROM_UNIXTIME(CREATED_TIME / 1000), '%Y-%m-%d') AS converted_time FROM SLA_HISTORY_AUD WHERE CREATED_TIME BETWEEN UNIX_TIMESTAMP(CURDATE() - INTERVAL 30 DAY) * 1000 AND UNIX_TIMESTAMP(CURDATE()) * 1000 GROUP BY STATE, converted_time"
-
-)
-@NamedNativeQuery(name = "getThirtyDaysBreaches", query = "SELECT COUNT(*), DATE_FORMAT(FROM_UNIXTIME(BREACH_TIME  / 1000), '%Y-%m-%d') AS converted_time FROM SLA_HISTORY WHERE BREACH_TIME BETWEEN UNIX_TIMESTAMP(CURDATE() - INTERVAL 30 DAY) * 1000 AND UNIX_TIMESTAMP(CURDATE()) * 1000 GROUP BY converted_time")
-@NamedNativeQuery(name = "getBreachProximity", query = "SELECT 'Today' AS period, SUM(CASE WHEN DATE(FROM_UNIXTIME(BREACH_TIME / 1000)) = CURDATE() THEN 1 ELSE 0 END) AS count FROM SLA_HISTORY UNION SELECT 'Tomorrow' AS period, SUM(CASE WHEN DATE(FROM_UNIXTIME(BREACH_TIME / 1000)) = CURDATE() + INTERVAL 1 DAY THEN 1 ELSE 0 END) AS count FROM SLA_HISTORY UNION SELECT 'ThisWeek' AS period, SUM(CASE WHEN DATE(FROM_UNIXTIME(BREACH_TIME / 1000)) BETWEEN CURDATE() AND CURDATE() + INTERVAL 7 DAY THEN 1 ELSE 0 END) AS count FROM SLA_HISTORY UNION SELECT 'ThisMonth' AS period, SUM(CASE WHEN DATE(FROM_UNIXTIME(BREACH_TIME / 1000)) BETWEEN CURDATE() AND CURDATE() + INTERVAL 30 DAY THEN 1 ELSE 0 END) AS count FROM SLA_HISTORY")
 // @NamedNativeQuery(name = "historyAudById", query = "SELECT ID, CREATED_TIME, STATE, BREACH_STATUS, BREACHED_At, LEVEL, REVTYPE, BREACH_TIME, APPLICATION, ENTITY_IDENTIFIER, EXECUTED_ON, IN_TIME, OUT_TIME, SLA_IDENTIFIER, CANCEL_CONDITION, LEVEL_TEMPLATE,ON_HOLD_CONDITION, OPERATIONAL_HOURS, RESET_CONDITION, RESUME_CONDITION, START_CONDITION, STOP_CONDITION, TIME_ZONE FROM SLA_HISTORY_AUD WHERE ID=:id ORDER BY REVTYPE DESC")
 
+// timeline of the histories started before SLA_HISTORY_TRANSITION
 @NamedNativeQuery(name = "historyAudById", query = "SELECT MODIFIED_TIME, STATE, BREACH_STATUS, LEVEL, SPEL_EXPRESSION FROM SLA_HISTORY_AUD WHERE ID=:id ORDER BY REVTYPE ASC")
+// dashboards read the open histories and the archived closed ones
+@NamedNativeQuery(name = "getTopSlaBreached", query = "SELECT st.NAME, MAX(h.CREATED_TIME), COUNT(*) FROM (SELECT SLA_IDENTIFIER, CREATED_TIME FROM SLA_HISTORY WHERE BREACH_STATUS = TRUE UNION ALL SELECT SLA_IDENTIFIER, CREATED_TIME FROM SLA_HISTORY_ARCHIVE WHERE BREACH_STATUS = TRUE) h JOIN SLA_TEMPLATE st ON h.SLA_IDENTIFIER = st.GENERATED_VALUE GROUP BY h.SLA_IDENTIFIER, st.NAME ORDER BY COUNT(*) DESC")
+@NamedNativeQuery(name = "getTopSlaTriggered", query = "SELECT st.NAME, MAX(h.CREATED_TIME), COUNT(*) FROM (SELECT SLA_IDENTIFIER, CREATED_TIME FROM SLA_HISTORY UNION ALL SELECT SLA_IDENTIFIER, CREATED_TIME FROM SLA_HISTORY_ARCHIVE) h JOIN SLA_TEMPLATE st ON h.SLA_IDENTIFIER = st.GENERATED_VALUE GROUP BY h.SLA_IDENTIFIER, st.NAME ORDER BY COUNT(*) DESC")
+@NamedNativeQuery(name = "getTotalHistoryCount", query = "SELECT (SELECT COUNT(*) FROM SLA_HISTORY) + (SELECT COUNT(*) FROM SLA_HISTORY_ARCHIVE)")
+@NamedNativeQuery(name = "getTopSlaEntityWise", query = "SELECT COUNT(*), COUNT(CASE WHEN h.STATE = 'IN_PROGRESS' THEN 1 ELSE NULL END) AS In_Progress, COUNT(CASE WHEN h.BREACH_STATUS = TRUE THEN 1 ELSE NULL END) AS breached, COUNT(CASE WHEN h.STATE = 'COMPLETED' THEN 1 ELSE NULL END) AS completed, h.EXECUTED_ON FROM (SELECT STATE, BREACH_STATUS, EXECUTED_ON FROM SLA_HISTORY UNION ALL SELECT STATE, BREACH_STATUS, EXECUTED_ON FROM SLA_HISTORY_ARCHIVE) h GROUP BY h.EXECUTED_ON ORDER BY COUNT(*) DESC")
+@NamedNativeQuery(name = "levelWiseSlaBreached", query = "SELECT h.BREACHED_At, COUNT(*) FROM (SELECT BREACHED_At FROM SLA_HISTORY WHERE BREACH_STATUS = TRUE UNION ALL SELECT BREACHED_At FROM SLA_HISTORY_ARCHIVE WHERE BREACH_STATUS = TRUE) h GROUP BY h.BREACHED_At")
+@NamedNativeQuery(name = "getResolvedTime", query = "SELECT MAX(h.MODIFIED_TIME - h.CREATED_TIME) AS maxTimeDifference, MIN(h.MODIFIED_TIME - h.CREATED_TIME) AS minTimeDifference, AVG(h.MODIFIED_TIME - h.CREATED_TIME) AS avgTimeDifference FROM (SELECT MODIFIED_TIME, CREATED_TIME FROM SLA_HISTORY WHERE STATE = 'COMPLETED' AND EXECUTED_ON = :executedOn UNION ALL SELECT MODIFIED_TIME, CREATED_TIME FROM SLA_HISTORY_ARCHIVE WHERE STATE = 'COMPLETED' AND EXECUTED_ON = :executedOn) h")
+// archiving of the closed histories, see SLA_HISTORY_ARCHIVE. The chunk is locked, the
+// instances archiving concurrently skip it; the columns are listed so that the archive
+// does not depend on the column order of the tables
+@NamedNativeQuery(name = "getArchivableSlaHistoryIds", query = "SELECT h.ID FROM SLA_HISTORY h WHERE h.STATE IN ('COMPLETED', 'CANCELLED') AND h.MODIFIED_TIME < :closedBefore AND NOT EXISTS (SELECT 1 FROM ESCALATION e JOIN ESCALATION_MAIL_OUTBOX m ON m.ESCALATION_ID = e.ID WHERE e.SLA_HISTORY = h.ID) ORDER BY h.ID LIMIT :maxResults FOR UPDATE SKIP LOCKED")
+@NamedNativeQuery(name = "archiveSlaHistoryByIds", query = "INSERT INTO SLA_HISTORY_ARCHIVE (ID, SLA_IDENTIFIER, STATUS, SNAPSHOT_ID, IN_TIME, OUT_TIME, LEVEL, BREACH_STATUS, BREACHED_At, LAST_UPDATED_TIME, MAIL_SENT_TIME, BREACH_TIME, OPERATIONAL_HOURS, EXCLUDE_NON_WORKING_DAY, ENTITY_IDENTIFIER, MODIFIED_TIME, CREATED_TIME, CREATOR, CREATOR_FK, MODIFIER, MODIFIER_FK, MODULE_ID, MODULE_NAME, APPLICATION, EXECUTED_ON, ESCALATE_TIME, START_CONDITION, CANCEL_CONDITION, ON_HOLD_CONDITION, RESUME_CONDITION, STOP_CONDITION, RESET_CONDITION, LEVEL_TEMPLATE, TIME_ZONE, STATE, REMAINING_TIME, OWNER, SPEL_EXPRESSION, SLA_ID) SELECT ID, SLA_IDENTIFIER, STATUS, SNAPSHOT_ID, IN_TIME, OUT_TIME, LEVEL, BREACH_STATUS, BREACHED_At, LAST_UPDATED_TIME, MAIL_SENT_TIME, BREACH_TIME, OPERATIONAL_HOURS, EXCLUDE_NON_WORKING_DAY, ENTITY_IDENTIFIER, MODIFIED_TIME, CREATED_TIME, CREATOR, CREATOR_FK, MODIFIER, MODIFIER_FK, MODULE_ID, MODULE_NAME, APPLICATION, EXECUTED_ON, ESCALATE_TIME, START_CONDITION, CANCEL_CONDITION, ON_HOLD_CONDITION, RESUME_CONDITION, STOP_CONDITION, RESET_CONDITION, LEVEL_TEMPLATE, TIME_ZONE, STATE, REMAINING_TIME, OWNER, SPEL_EXPRESSION, SLA_ID FROM SLA_HISTORY WHERE ID IN (:ids)")
+@NamedNativeQuery(name = "deleteSlaHistoryByIds", query = "DELETE FROM SLA_HISTORY WHERE ID IN (:ids)")
 @NamedQueries(value = {
         @NamedQuery(name = "findSlaHistoryBySlaIdentifier", query = "select s from SlaHistory s where s.slaIdentifier=:slaIdentifier"),
-        @NamedQuery(name = "getAllSlaHistory", query = "select s from SlaHistory s where breachStatus=false"),
-        @NamedQuery(name = "getAllBreachedSlaHistory", query = "select s from SlaHistory s where breachStatus=:breachStatus"),
+        @NamedQuery(name = "getDueSlaHistory", query = "select s from SlaHistory s where s.state=:state and s.breachStatus=false and s.breachTime<:dueTime order by s.breachTime"),
+        @NamedQuery(name = "countDueSlaHistoryBetween", query = "select count(s) from SlaHistory s where s.state=:state and s.breachStatus=false and s.breachTime>=:fromTime and s.breachTime<:toTime"),
         @NamedQuery(name = "getInProgressOrOnHoldHistoryByEntityIdNameAppAndSlaId", query = "select s from SlaHistory s where s.application=:applicationName and s.executedOn=:entityName and s.entityIdentifier=:entityId and s.slaIdentifier=:slaIdentifier and (s.state='IN_PROGRESS' or s.state='ON_HOLD') "),
+        @NamedQuery(name = "getOpenSlaHistoryByEntityIds", query = "select s from SlaHistory s where s.application=:applicationName and s.executedOn=:entityName and s.entityIdentifier in :entityIds and (s.state='IN_PROGRESS' or s.state='ON_HOLD') "),
         @NamedQuery(name = "getHistoryByEntityId", query = "select s from SlaHistory s where s.entityIdentifier=:entityId"),
         @NamedQuery(name = "getPresentDayBreachActivities", query = "select COUNT(s) from SlaHistory s where s.breachStatus = true and s.breachTime=:currentDate"),
-        @NamedQuery(name = "getTopSlaBreached", query = "SELECT st.name, max(e.createdTime), COUNT(e) FROM SlaHistory e join SlaTemplate st on e.slaIdentifier=st.slaId where e.breachStatus = true GROUP BY e.slaIdentifier, st.name  order by count(e) desc "),
-        @NamedQuery(name = "getTopSlaTriggered", query = "SELECT st.name, max(e.createdTime), COUNT(e) FROM SlaHistory e join SlaTemplate st on e.slaIdentifier=st.slaId GROUP BY e.slaIdentifier, st.name  order by count(e) desc "),
         @NamedQuery(name = "getSlaBreachProximity", query = "SELECT COUNT(s) from SlaHistory s where s.breachTime=:date"),
-        @NamedQuery(name = "getTotalHistoryCount", query = "SELECT COUNT(s) from SlaHistory s"),
         @NamedQuery(name = "getSlaBreachProximityInRange", query = "SELECT COUNT(s) from SlaHistory s where s.breachTime between : startDate and :endDate"),
-        @NamedQuery(name = "getTopSlaEntityWise", query = "SELECT count(e), count(CASE WHEN e.state = 'IN_PROGRESS' THEN 1 ELSE NULL END) as In_Progress, count(CASE WHEN e.breachStatus = true THEN 1 ELSE NULL END) as breached, count(CASE WHEN e.state = 'COMPLETED' THEN 1 ELSE NULL END) as completed, e.executedOn FROM SlaHistory as e group by e.executedOn order by count(e) desc "),
-        @NamedQuery(name = "levelWiseSlaBreached", query = "SELECT e.breachedAt, COUNT(e) FROM SlaHistory e where e.breachStatus=true GROUP BY e.breachedAt"),
-        @NamedQuery(name = "getResolvedTime", query = "SELECT MAX(e.modifiedTime - e.createdTime) as maxTimeDifference, MIN(e.modifiedTime - e.createdTime) as minTimeDifference, AVG(e.modifiedTime - e.createdTime) as avgTimeDifference FROM SlaHistory e WHERE e.state = 'COMPLETED' AND e.executedOn = :executedOn"),
 })
 @FilterDefs(value = { @FilterDef(name = "getSlaBreachList", parameters = {}),
         @FilterDef(name = "getSlaBreachListWithGroupBy", parameters = {}),
@@ -102,6 +104,13 @@ public class SlaHistory implements Serializable{
     @Column(name ="STATUS")
     private boolean status;
 
+    /**
+     * Template the history was started with. The template columns below are
+     * only filled on the histories started before the snapshots.
+     */
+    @Column(name = "SNAPSHOT_ID")
+    private Integer snapshotId;
+
     @Column(name = "IN_TIME", columnDefinition = "json")
     private String inTime;
     @Column(name = "OUT_TIME", columnDefinition = "json")
@@ -190,7 +199,6 @@ public class SlaHistory implements Serializable{
     @Column(name = "ESCALATE_TIME")
     private Long escalateTime;
 
-    @NotNull
     @Column(name = "START_CONDITION", columnDefinition = "json")
     private String startCondition;
 
@@ -203,14 +211,12 @@ public class SlaHistory implements Serializable{
     @Column(name = "RESUME_CONDITION", columnDefinition = "json")
     private String resumeCondition;
 
-    @NotNull
     @Column(name = "STOP_CONDITION", columnDefinition = "json")
     private String stopCondition;
 
     @Column(name = "RESET_CONDITION", columnDefinition = "json")
     private String resetCondition;
     
-    @NotNull
     @Column(name = "LEVEL_TEMPLATE", columnDefinition = "json")
     private String levelTemplate;
 
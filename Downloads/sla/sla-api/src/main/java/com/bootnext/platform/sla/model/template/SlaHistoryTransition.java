@@ -0,0 +1,72 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.Data;
+
+/**
+ * Change of state, or breach, of an SLA history.
+ *
+ * Rows are only appended, in the transaction changing the history, and make up
+ * its timeline. The changes made before this log are in the SLA_HISTORY_AUD
+ * table.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getSlaHistoryTransitionsAfter", query = "select t from SlaHistoryTransition t where t.slaHistoryId=:slaHistoryId and (t.transitionTime>:afterTime or (t.transitionTime=:afterTime and t.id>:afterId)) order by t.transitionTime, t.id"),
+        @NamedQuery(name = "countSlaHistoryTransitionsByHistoryId", query = "select count(t) from SlaHistoryTransition t where t.slaHistoryId=:slaHistoryId"),
+        @NamedQuery(name = "countSlaHistoryStartTransitions", query = "select count(t) from SlaHistoryTransition t where t.slaHistoryId=:slaHistoryId and t.fromState is null"),
+})
+
+@Entity
+@Table(name = "SLA_HISTORY_TRANSITION", indexes = {
+        @Index(name = "IDX_SLA_HISTORY_TRANSITION_HISTORY", columnList = "SLA_HISTORY_ID, TRANSITION_TIME"),
+        @Index(name = "IDX_SLA_HISTORY_TRANSITION_TIME", columnList = "TRANSITION_TIME") })
+@Data
+public class SlaHistoryTransition implements Serializable {
+
+    private static final long serialVersionUID = -4417020914622381547L;
+
+    // pooled ids so that the transitions are inserted in the JDBC batch of their history updates
+    @TableGenerator(name = "SLA_HISTORY_TRANSITION_ID_GENERATOR", table = "SLA_ID_GENERATOR", pkColumnName = "GENERATOR_NAME", valueColumnName = "NEXT_VALUE", pkColumnValue = "SLA_HISTORY_TRANSITION", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SLA_HISTORY_TRANSITION_ID_GENERATOR")
+    @Id
+    @Column(name = "ID", columnDefinition = "BIGINT")
+    private Long id;
+
+    @Column(name = "SLA_HISTORY_ID", nullable = false)
+    private Integer slaHistoryId;
+
+    /** State before the transition, null when the history is started. */
+    @Column(name = "FROM_STATE")
+    @Enumerated(EnumType.STRING)
+    private SlaHistory.STAGE fromState;
+
+    @Column(name = "TO_STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SlaHistory.STAGE toState;
+
+    @Column(name = "LEVEL")
+    private Integer level;
+
+    @Column(name = "BREACH_STATUS")
+    private boolean breachStatus;
+
+    /** Condition which caused the transition. */
+    @Column(name = "REASON", length = 1000)
+    private String reason;
+
+    @Column(name = "TRANSITION_TIME", nullable = false)
+    private Long transitionTime;
+}
@@ -172,6 +172,9 @@ public class SlaTemplate implements Serializable {
     @Column(name = "OUT_TIME", columnDefinition = "json")
     private String outTime;
 
+    @Column(name = "CALENDAR_ID")
+    private Integer calendarId;
+
     @Column(name = "APPROVAL")
     @Enumerated(EnumType.STRING)
     private APPROVAL approval;
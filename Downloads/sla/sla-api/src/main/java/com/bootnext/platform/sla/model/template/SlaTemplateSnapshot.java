@@ -0,0 +1,78 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Immutable copy of the conditions, levels and working hours of an SLA
+ * template, as they were when SLA histories were started.
+ *
+ * A snapshot is identified by the hash of its content and is stored once,
+ * whatever the number of histories referencing it; a new snapshot is only
+ * stored when the template is modified.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getSlaTemplateSnapshotByContentHash", query = "select s from SlaTemplateSnapshot s where s.contentHash=:contentHash"),
+})
+
+@Entity
+@Table(name = "SLA_TEMPLATE_SNAPSHOT", uniqueConstraints = @UniqueConstraint(name = "UK_SLA_TEMPLATE_SNAPSHOT_HASH", columnNames = "CONTENT_HASH"))
+@Data
+public class SlaTemplateSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 4190342266711581283L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "INT")
+    private Integer id;
+
+    @Column(name = "CONTENT_HASH", length = 64, nullable = false, updatable = false)
+    private String contentHash;
+
+    @Column(name = "SLA_IDENTIFIER", updatable = false)
+    private String slaIdentifier;
+
+    @Column(name = "START_CONDITION", columnDefinition = "json", updatable = false)
+    private String startCondition;
+
+    @Column(name = "CANCEL_CONDITION", columnDefinition = "json", updatable = false)
+    private String cancelCondition;
+
+    @Column(name = "ON_HOLD_CONDITION", columnDefinition = "json", updatable = false)
+    private String onHoldCondition;
+
+    @Column(name = "RESUME_CONDITION", columnDefinition = "json", updatable = false)
+    private String resumeCondition;
+
+    @Column(name = "STOP_CONDITION", columnDefinition = "json", updatable = false)
+    private String stopCondition;
+
+    @Column(name = "RESET_CONDITION", columnDefinition = "json", updatable = false)
+    private String resetCondition;
+
+    @Column(name = "LEVEL_TEMPLATE", columnDefinition = "json", updatable = false)
+    private String levelTemplate;
+
+    @Column(name = "IN_TIME", columnDefinition = "json", updatable = false)
+    private String inTime;
+
+    @Column(name = "OUT_TIME", columnDefinition = "json", updatable = false)
+    private String outTime;
+
+    @Column(name = "OPERATIONAL_HOURS", updatable = false)
+    private String operationalHours;
+
+    @Column(name = "CREATED_TIME", updatable = false)
+    private Long createdTime;
+}
@@ -0,0 +1,99 @@
+package com.bootnext.platform.sla.model.template;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Entity event accepted by the asynchronous trigger and waiting to be applied.
+ *
+ * Rows are written before the event is acknowledged to the caller and removed
+ * in the transaction applying the event, so that no accepted event is lost
+ * when the service is restarted. An event is not applied while an earlier
+ * event of the same entity is processed or waits for a retry, whichever
+ * instance claimed it. Events which
+ * keep failing are left in the failed state for inspection.
+ */
+@NamedQueries(value = {
+        @NamedQuery(name = "getDueSlaTriggerInboxIds", query = "select i.id from SlaTriggerInbox i where i.state=:pendingState and i.nextAttemptTime<=:dueTime and not exists (select p.id from SlaTriggerInbox p where p.applicationName=i.applicationName and p.entityName=i.entityName and p.entityId=i.entityId and p.id<i.id and (p.state=:processingState or (p.state=:pendingState and p.nextAttemptTime>:dueTime))) order by i.id"),
+        @NamedQuery(name = "getSlaTriggerInboxByClaimToken", query = "select i from SlaTriggerInbox i where i.claimToken=:claimToken and i.state=:state order by i.id"),
+        @NamedQuery(name = "releaseStaleSlaTriggerInbox", query = "update SlaTriggerInbox i set i.state=:pendingState, i.claimToken=null where i.state=:processingState and i.modifiedTime<:staleTime"),
+        @NamedQuery(name = "releaseSlaTriggerInboxByIds", query = "update SlaTriggerInbox i set i.state=:pendingState, i.claimToken=null where i.id in :ids and i.state=:processingState"),
+        @NamedQuery(name = "getSlaTriggerInboxByIds", query = "select i from SlaTriggerInbox i where i.id in :ids"),
+        @NamedQuery(name = "getSlaTriggerInboxStatus", query = "select i.state, count(i), min(i.createdTime) from SlaTriggerInbox i group by i.state"),
+})
+// the earlier events of the entity are checked again under lock, another instance may have claimed them since the ids were read
+@NamedNativeQuery(name = "claimSlaTriggerInbox", query = "UPDATE SLA_TRIGGER_INBOX i LEFT JOIN SLA_TRIGGER_INBOX p ON p.APPLICATION_NAME = i.APPLICATION_NAME AND p.ENTITY_NAME = i.ENTITY_NAME AND p.ENTITY_ID = i.ENTITY_ID AND p.ID < i.ID AND ((p.STATE = :processingState AND (p.CLAIM_TOKEN IS NULL OR p.CLAIM_TOKEN <> :claimToken)) OR (p.STATE = :pendingState AND p.NEXT_ATTEMPT_TIME > :dueTime)) SET i.STATE = :processingState, i.CLAIM_TOKEN = :claimToken, i.MODIFIED_TIME = :modifiedTime WHERE i.ID IN (:ids) AND i.STATE = :pendingState AND p.ID IS NULL")
+
+@Entity
+@Table(name = "SLA_TRIGGER_INBOX", indexes = {
+        @Index(name = "IDX_SLA_TRIGGER_INBOX_DUE", columnList = "STATE, NEXT_ATTEMPT_TIME"),
+        @Index(name = "IDX_SLA_TRIGGER_INBOX_CLAIM", columnList = "CLAIM_TOKEN"),
+        @Index(name = "IDX_SLA_TRIGGER_INBOX_ENTITY", columnList = "APPLICATION_NAME, ENTITY_NAME, ENTITY_ID") })
+@Data
+public class SlaTriggerInbox implements Serializable {
+
+    private static final long serialVersionUID = 2873036112540851349L;
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "ID", columnDefinition = "BIGINT")
+    private Long id;
+
+    @Column(name = "APPLICATION_NAME", nullable = false)
+    private String applicationName;
+
+    @Column(name = "ENTITY_NAME", nullable = false)
+    private String entityName;
+
+    @Column(name = "ENTITY_ID", nullable = false)
+    private String entityId;
+
+    @Column(name = "ENTITY", columnDefinition = "LONGTEXT")
+    private String entity;
+
+    /** Paths of the entity fields changed by the event, null if unknown. */
+    @Column(name = "CHANGED_FIELDS", columnDefinition = "json")
+    private String changedFields;
+
+    @Column(name = "ENTITY_VERSION")
+    private Long entityVersion;
+
+    @Column(name = "STATE")
+    @Enumerated(EnumType.STRING)
+    private STATE state;
+
+    public enum STATE {
+        PENDING, PROCESSING, FAILED
+    }
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    @Column(name = "NEXT_ATTEMPT_TIME")
+    private Long nextAttemptTime;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    @Column(name = "CLAIM_TOKEN", length = 36)
+    private String claimToken;
+
+    @Column(name = "CREATED_TIME", insertable = true, updatable = false)
+    private Long createdTime;
+
+    @Column(name = "MODIFIED_TIME")
+    private Long modifiedTime;
+}
@@ -0,0 +1,67 @@
+package com.bootnext.platform.sla.rest;
+
+import java.util.List;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Feign Client Interface for accessing Sla Calendar API.
+ * This interface provides methods to manage the working calendars referenced by the SLA templates.
+ */
+@FeignClient(name = "ISlaCalendar", url = "${sla-service.url}", path = "/SlaCalendar", primary = false)
+@Tag(name = "ISlaCalendarRest")
+public interface ISlaCalendarRest {
+
+    /**
+     * Create Sla Calendar.
+     *
+     * @param slaCalendar The SlaCalendar object to be created.
+     * @return The created SlaCalendar object.
+     * @throws BusinessException If the calendar already exists or is not valid.
+     */
+    @Operation(summary = "Create Sla Calendar", tags = "createSlaCalendar", description = "Api to create sla calendar")
+    @PostMapping(path = "create", consumes = MediaType.APPLICATION_JSON_VALUE)
+    SlaCalendar createSlaCalendar(@RequestBody SlaCalendar slaCalendar) throws BusinessException;
+
+    /**
+     * Update Sla Calendar.
+     *
+     * @param slaCalendar The SlaCalendar object to be updated.
+     * @return The updated SlaCalendar object.
+     * @throws BusinessException If the calendar is not valid.
+     */
+    @Operation(summary = "Update Sla Calendar", tags = "updateSlaCalendar", description = "Api to update sla calendar")
+    @PostMapping(path = "update", consumes = MediaType.APPLICATION_JSON_VALUE)
+    SlaCalendar updateSlaCalendar(@RequestBody SlaCalendar slaCalendar) throws BusinessException;
+
+    /**
+     * Get Sla Calendar By Name.
+     *
+     * @param name The name of the calendar.
+     * @return The matching SlaCalendar object.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Operation(summary = "get Sla Calendar By Name", tags = "getSlaCalendarByName", description = "Api to get sla calendar by name")
+    @GetMapping(path = "getSlaCalendarByName")
+    SlaCalendar getSlaCalendarByName(@RequestParam(name = "name") String name) throws BusinessException;
+
+    /**
+     * Get all Sla Calendars.
+     *
+     * @return The list of SlaCalendar objects.
+     */
+    @Operation(summary = "get all Sla Calendars", tags = "getAllSlaCalendars", description = "Api to get all sla calendars")
+    @GetMapping(path = "getAllSlaCalendars")
+    List<SlaCalendar> getAllSlaCalendars();
+}
@@ -33,6 +33,12 @@ public interface ISlaHistoryRest {
      * @param applicationName The applicationName parameter.
      * @param entityName      The entityName parameter.
      * @param entityId        The entityId parameter.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, optional. Templates
+     *                        whose conditions read none of them are skipped.
+     * @param entityVersion   The version of the entity, increasing with every
+     *                        change, optional. An event whose version was
+     *                        already applied is dropped.
      * @return True if the Sla is triggered successfully, false otherwise.
      * @throws BusinessException If any error occurs during the triggering process.
      */
@@ -41,9 +47,91 @@ public interface ISlaHistoryRest {
     Boolean triggerSla(@RequestBody String entityString,
                                     @RequestParam(required = true, name = "applicationName") String applicationName,
                                     @RequestParam(required = true,name = "entityName") String entityName,
-                                    @RequestParam(required = true, name = "entityId") String entityId)
+                                    @RequestParam(required = true, name = "entityId") String entityId,
+                                    @RequestParam(required = false, name = "changedFields") List<String> changedFields,
+                                    @RequestParam(required = false, name = "entityVersion") Long entityVersion)
             throws BusinessException;
+
+    /**
+     * Trigger Sla for an unversioned entity event.
+     *
+     * @param entityString    The entityString parameter.
+     * @param applicationName The applicationName parameter.
+     * @param entityName      The entityName parameter.
+     * @param entityId        The entityId parameter.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, optional.
+     * @return True if the Sla is triggered successfully, false otherwise.
+     * @throws BusinessException If any error occurs during the triggering process.
+     */
+    default Boolean triggerSla(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields) throws BusinessException {
+        return triggerSla(entityString, applicationName, entityName, entityId, changedFields, null);
+    }
+
+    /**
+     * Trigger Sla, evaluating every template of the entity.
+     *
+     * @param entityString    The entityString parameter.
+     * @param applicationName The applicationName parameter.
+     * @param entityName      The entityName parameter.
+     * @param entityId        The entityId parameter.
+     * @return True if the Sla is triggered successfully, false otherwise.
+     * @throws BusinessException If any error occurs during the triggering process.
+     */
+    default Boolean triggerSla(String entityString, String applicationName, String entityName, String entityId)
+            throws BusinessException {
+        return triggerSla(entityString, applicationName, entityName, entityId, null, null);
+    }
     
+    /**
+     * Trigger Sla for a batch of entity events.
+     *
+     * @param eventsString The JSON array of events, each with the applicationName,
+     *                     entityName, entityId and entity fields, and optionally
+     *                     the changedFields array and the entityVersion.
+     * @return A JSON array with the result of each event, in order.
+     * @throws BusinessException If any error occurs during the triggering process.
+     */
+    @Operation(summary = "trigger Sla batch", tags = "triggerSlaBatch", description = "Api to trigger Sla for a batch of entity events")
+    @PostMapping(path = "triggerSlaBatch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    String triggerSlaBatch(@RequestBody String eventsString) throws BusinessException;
+
+    /**
+     * Accept an entity event for asynchronous triggering. The event is stored
+     * and acknowledged immediately, then applied by the inbox workers.
+     *
+     * @param entityString    The entityString parameter.
+     * @param applicationName The applicationName parameter.
+     * @param entityName      The entityName parameter.
+     * @param entityId        The entityId parameter.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, optional.
+     * @param entityVersion   The version of the entity, optional.
+     * @return The ID of the accepted event, or null if no Sla template is
+     *         affected by the event.
+     * @throws BusinessException If the event cannot be stored.
+     */
+    @Operation(summary = "trigger Sla asynchronously", tags = "triggerSlaAsync", description = "Api to accept an entity event and trigger Sla asynchronously")
+    @PostMapping(path = "triggerSlaAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    Long triggerSlaAsync(@RequestBody String entityString,
+                                    @RequestParam(required = true, name = "applicationName") String applicationName,
+                                    @RequestParam(required = true,name = "entityName") String entityName,
+                                    @RequestParam(required = true, name = "entityId") String entityId,
+                                    @RequestParam(required = false, name = "changedFields") List<String> changedFields,
+                                    @RequestParam(required = false, name = "entityVersion") Long entityVersion)
+            throws BusinessException;
+
+    /**
+     * Get the processing status of the asynchronous trigger.
+     *
+     * @return A JSON object with the number of pending, processing and failed
+     *         events and the processing lag in milliseconds.
+     */
+    @Operation(summary = "get trigger inbox status", tags = "getTriggerInboxStatus", description = "Api to get the processing lag of the asynchronous Sla trigger")
+    @GetMapping(path = "getTriggerInboxStatus")
+    String getTriggerInboxStatus();
+
     /**
      * Check and Execute History.
      *
@@ -122,11 +210,21 @@ public interface ISlaHistoryRest {
     /**
      * Get SLA Breach Proximity
      * 
+     * @param timeZone The time zone of the caller, the days are computed in it (optional).
      * @return A String reprenting data for the SLA which are about to breach (Today, Tomorrow, this Week and This Month).
      */
     @Operation(summary = "get sla breach proximity", tags = "getSlaBreachProximity", description = "Api to get sla breach proximity")
     @GetMapping(path = "getSlaBreachProximity")
-    String getSlaBreachProximity();
+    String getSlaBreachProximity(@RequestParam(name="timeZone", required = false) String timeZone);
+
+    /**
+     * Get SLA Breach Proximity, the days being the days of the system time zone.
+     *
+     * @return A String reprenting data for the SLA which are about to breach (Today, Tomorrow, this Week and This Month).
+     */
+    default String getSlaBreachProximity() {
+        return getSlaBreachProximity(null);
+    }
 
     /**
      * Get the count of SlaHistory records based on the search query.
@@ -171,6 +269,10 @@ public interface ISlaHistoryRest {
     @GetMapping(path = "getSlaHistoryAudCountBySlaId")
     int auditCount(@RequestParam(name="id") long id);
 
+    @Operation(summary = "get a page of the sla history timeline by Id", tags = "getSlaHistoryTimeline", description = "Api to get the sla history timeline by pages, oldest first, starting after the cursor of the previous page")
+    @GetMapping(path = "getSlaHistoryTimeline")
+    String getSlaHistoryTimeline(@RequestParam(name="id") long id, @RequestParam(name="cursor", required = false) String cursor, @RequestParam(name="size", required = false, defaultValue = "50") int size);
+
 
 }
 
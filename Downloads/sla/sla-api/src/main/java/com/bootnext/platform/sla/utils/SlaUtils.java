@@ -51,6 +51,10 @@ public class SlaUtils {
     public static final String LEVEL = "level";
     public static final String MODULE_NAME = "moduleName";
     public static final String ENTITY_NAME = "entityName";
+    public static final String APPLICATION_NAME = "applicationName";
+    public static final String ENTITY = "entity";
+    public static final String CHANGED_FIELDS = "changedFields";
+    public static final String ENTITY_VERSION = "entityVersion";
     public static final String SLA_ID = "slaId";
     public static final String SITE_REFERENCE_ID = "siteReferenceId";
     public static final String PROJECT_NAME = "projectName";
@@ -58,6 +62,7 @@ public class SlaUtils {
     public static final String BASE_WAR_DIRECTORY = "BASE_WAR_DIRECTORY";
     public static final String SOMETHING_WENT_WRONG = "Something went wrong";
     public static final String SLA_ALREADY_EXIST = "SLA template already exists";
+    public static final String SLA_CALENDAR_ALREADY_EXIST = "SLA calendar already exists";
     public static final String SLA_OLA_REPORT = "SLA_OLA_REPORT";
     public static final String SLA_OLA_FOLDER = "SlaOla/";
     public static final String ENTITY_IDENTIFIER = "entityIdentifier";
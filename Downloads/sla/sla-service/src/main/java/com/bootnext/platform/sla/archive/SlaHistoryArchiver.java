@@ -0,0 +1,141 @@
+package com.bootnext.platform.sla.archive;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootnext.platform.sla.dao.IEscalationDao;
+import com.bootnext.platform.sla.dao.ISlaEntityVersionDao;
+import com.bootnext.platform.sla.dao.ISlaHistoryDao;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the closed SLA histories and their escalations out of the working
+ * tables.
+ *
+ * Completed and cancelled histories closed for longer than the retention are
+ * copied to SLA_HISTORY_ARCHIVE and ESCALATION_ARCHIVE and removed from
+ * SLA_HISTORY and ESCALATION, one chunk per transaction, so that the trigger
+ * and scheduler queries only see the open histories and the recently closed
+ * ones. The dashboards read both tables, or the daily activity counters. The
+ * retention is kept to at least a day. Each chunk is locked by its
+ * transaction, the archivers of the other instances skip it.
+ *
+ * The applied entity versions of the entities without open history for a
+ * template, not recorded within the retention, are purged as well.
+ */
+@Component
+@Slf4j
+public class SlaHistoryArchiver {
+
+    private static final long MIN_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    private ISlaHistoryDao slaHistoryDao;
+
+    @Autowired
+    private IEscalationDao escalationDao;
+
+    @Autowired
+    private ISlaEntityVersionDao slaEntityVersionDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sla.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sla.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${sla.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${sla.archive.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${sla.archive.interval-ms:3600000}")
+    private long intervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("sla history archiver disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sla-history-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archive, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("sla history archiver started, histories closed for {} days are archived", retentionDays);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Archives the closed histories, then purges the entity versions, in chunks
+     * until none is left or the configured number of chunks per run is reached.
+     */
+    void archive() {
+        try {
+            long closedBefore = System.currentTimeMillis()
+                    - Math.max(TimeUnit.DAYS.toMillis(retentionDays), MIN_RETENTION_MILLIS);
+            int archived = 0;
+            for (int batch = 0; batch < maxBatches && !Thread.currentThread().isInterrupted(); batch++) {
+                Integer count = transactionTemplate.execute(status -> archiveBatch(closedBefore));
+                if (count == null || count == 0) {
+                    break;
+                }
+                archived += count;
+            }
+            if (archived > 0) {
+                log.info("{} closed sla histories archived", archived);
+            }
+            int purged = 0;
+            for (int batch = 0; batch < maxBatches && !Thread.currentThread().isInterrupted(); batch++) {
+                Integer count = transactionTemplate.execute(status -> slaEntityVersionDao
+                        .deleteSlaEntityVersionByIds(
+                                slaEntityVersionDao.getPurgeableSlaEntityVersionIds(closedBefore, batchSize)));
+                if (count == null || count == 0) {
+                    break;
+                }
+                purged += count;
+            }
+            if (purged > 0) {
+                log.info("{} sla entity versions purged", purged);
+            }
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryArchiver @Method :archive() {}", e.getMessage(), e);
+        }
+    }
+
+    private int archiveBatch(long closedBefore) {
+        List<Integer> ids = slaHistoryDao.getArchivableSlaHistoryIds(closedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int escalations = escalationDao.archiveEscalationBySlaHistoryIds(ids);
+        int histories = slaHistoryDao.archiveSlaHistoryByIds(ids);
+        log.debug("{} sla histories and {} escalations archived", histories, escalations);
+        return histories;
+    }
+}
@@ -0,0 +1,402 @@
+package com.bootnext.platform.sla.calendar;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.bootnext.platform.sla.registry.SlaWorkingHours;
+
+/**
+ * Working-time arithmetic over a weekly schedule in a given time zone.
+ *
+ * The working intervals of a week are precomputed once as seconds since Monday
+ * 00:00 (local time) together with the cumulative working time before each of
+ * them. Local times are then mapped to a working-time offset and back with a
+ * binary search, so adding working minutes or measuring the working time
+ * between two instants does not depend on the length of the period.
+ *
+ * Holidays and closures are kept in a second sorted table of non-working
+ * periods, with the working time each of them removes from the weekly
+ * schedule, and are applied on top of the weekly offsets the same way.
+ *
+ * Instances are immutable and shared, they are obtained from the
+ * {@link BusinessCalendarRegistry}.
+ */
+public final class BusinessCalendar {
+
+    private static final long SECONDS_PER_DAY = TimeUnit.DAYS.toSeconds(1);
+    private static final long SECONDS_PER_WEEK = 7 * SECONDS_PER_DAY;
+
+    /** Offset between the epoch (a Thursday) and Monday 1970-01-05. */
+    private static final long MONDAY_EPOCH_SECOND = 4 * SECONDS_PER_DAY;
+
+    private final ZoneId zoneId;
+    private final boolean alwaysOpen;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] workingBefore;
+    private final long weeklyWorkingSeconds;
+
+    private final long[] closedStarts;
+    private final long[] closedEnds;
+    private final long[] closedOffsets;
+    private final long[] removedThrough;
+
+    private BusinessCalendar(ZoneId zoneId, boolean alwaysOpen, List<long[]> intervals, List<long[]> closures) {
+        this.zoneId = zoneId;
+        this.alwaysOpen = alwaysOpen;
+        int size = intervals.size();
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.workingBefore = new long[size];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            starts[i] = intervals.get(i)[0];
+            ends[i] = intervals.get(i)[1];
+            workingBefore[i] = total;
+            total += ends[i] - starts[i];
+        }
+        this.weeklyWorkingSeconds = total;
+        if (!alwaysOpen && total == 0) {
+            throw new IllegalArgumentException("Business calendar without any working time");
+        }
+        int closedSize = closures.size();
+        this.closedStarts = new long[closedSize];
+        this.closedEnds = new long[closedSize];
+        this.closedOffsets = new long[closedSize];
+        this.removedThrough = new long[closedSize];
+        long removed = 0;
+        for (int i = 0; i < closedSize; i++) {
+            closedStarts[i] = closures.get(i)[0];
+            closedEnds[i] = closures.get(i)[1];
+            long startOffset = weeklyOffset(closedStarts[i]);
+            closedOffsets[i] = startOffset - removed;
+            removed += weeklyOffset(closedEnds[i]) - startOffset;
+            removedThrough[i] = removed;
+        }
+    }
+
+    /**
+     * Builds the calendar of the given operational hours.
+     *
+     * Custom working hours open every day from the start to the end time; an end
+     * time before the start time describes a shift ending on the next day. When
+     * weekends are excluded no shift starts on Saturday or Sunday and a shift
+     * starting on Friday stops at midnight. Calendar hours are always open.
+     *
+     * @param zoneId          The time zone of the working hours.
+     * @param workingHours    The operational hours.
+     * @param excludeWeekends Whether Saturday and Sunday are non-working days.
+     * @return The calendar.
+     */
+    public static BusinessCalendar of(ZoneId zoneId, SlaWorkingHours workingHours, boolean excludeWeekends) {
+        if (workingHours.isCalendarHours()) {
+            return new BusinessCalendar(zoneId, true, List.of(), List.of());
+        }
+        LocalTime shiftStart = LocalTime.of(workingHours.getStartHour(), workingHours.getStartMinute());
+        LocalTime shiftEnd = LocalTime.of(workingHours.getEndHour(), workingHours.getEndMinute());
+        Builder builder = builder(zoneId);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (excludeWeekends && isWeekend(day)) {
+                continue;
+            }
+            if (excludeWeekends && day == DayOfWeek.FRIDAY && !shiftEnd.isAfter(shiftStart)) {
+                builder.shift(day, shiftStart, LocalTime.MIDNIGHT);
+            } else {
+                builder.shift(day, shiftStart, shiftEnd);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts the definition of a calendar from its weekly shifts and non-working
+     * dates, used for the named SLA calendars.
+     *
+     * @param zoneId The time zone of the shifts and dates.
+     * @return An empty calendar builder.
+     */
+    public static Builder builder(ZoneId zoneId) {
+        return new Builder(zoneId);
+    }
+
+    private static List<long[]> merge(List<long[]> intervals) {
+        intervals.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] interval : intervals) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(new long[] { interval[0], interval[1] });
+            }
+        }
+        return merged;
+    }
+
+    private static boolean isWeekend(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Adds working minutes to a date. A date outside working hours is first moved
+     * to the start of the next working period.
+     *
+     * @param dateTime The date to start from.
+     * @param minutes  The number of working minutes to add.
+     * @return The date at which the given working time has elapsed.
+     */
+    public ZonedDateTime plusWorkingMinutes(ZonedDateTime dateTime, long minutes) {
+        if (alwaysOpen) {
+            return dateTime.plusMinutes(minutes);
+        }
+        long local = toLocalSecond(dateTime);
+        long seconds = TimeUnit.MINUTES.toSeconds(minutes);
+        long result = seconds > 0 ? fromOffsetForward(toOffset(local) + seconds) : nextWorkingSecond(local);
+        return toZonedDateTime(result, dateTime.getZone());
+    }
+
+    /**
+     * Subtracts working minutes from a date. A date outside working hours is first
+     * moved to the end of the previous working period.
+     *
+     * @param dateTime The date to start from.
+     * @param minutes  The number of working minutes to subtract.
+     * @return The date from which the given working time elapses until the given
+     *         date.
+     */
+    public ZonedDateTime minusWorkingMinutes(ZonedDateTime dateTime, long minutes) {
+        if (alwaysOpen) {
+            return dateTime.minusMinutes(minutes);
+        }
+        long local = toLocalSecond(dateTime);
+        long seconds = TimeUnit.MINUTES.toSeconds(minutes);
+        long result = seconds > 0 ? fromOffsetBackward(toOffset(local) - seconds) : previousWorkingSecond(local);
+        return toZonedDateTime(result, dateTime.getZone());
+    }
+
+    /**
+     * Measures the working time between two instants.
+     *
+     * @param from The start instant.
+     * @param to   The end instant.
+     * @return The number of working minutes between the instants, negative if
+     *         the end is before the start.
+     */
+    public long workingMinutesBetween(Instant from, Instant to) {
+        if (alwaysOpen) {
+            return TimeUnit.SECONDS.toMinutes(to.getEpochSecond() - from.getEpochSecond());
+        }
+        long fromOffset = toOffset(toLocalSecond(from.atZone(zoneId)));
+        long toOffset = toOffset(toLocalSecond(to.atZone(zoneId)));
+        return TimeUnit.SECONDS.toMinutes(toOffset - fromOffset);
+    }
+
+    /**
+     * Returns the working time elapsed between the reference Monday and the given
+     * local time, in seconds, holidays and closures excluded.
+     */
+    private long toOffset(long localSecond) {
+        int index = lastIndexAtMost(closedStarts, localSecond);
+        if (index < 0) {
+            return weeklyOffset(localSecond);
+        }
+        if (localSecond < closedEnds[index]) {
+            return closedOffsets[index];
+        }
+        return weeklyOffset(localSecond) - removedThrough[index];
+    }
+
+    /**
+     * Returns the earliest local time at which the given working offset is
+     * reached, the end of a working period being preferred to the start of the
+     * next one.
+     */
+    private long fromOffsetForward(long offset) {
+        int index = lastIndexBelow(closedOffsets, offset);
+        return weeklyForward(index < 0 ? offset : offset + removedThrough[index]);
+    }
+
+    /**
+     * Returns the local time at which the given working offset is reached, the
+     * start of a working period being preferred to the end of the previous one.
+     */
+    private long fromOffsetBackward(long offset) {
+        int index = lastIndexAtMost(closedOffsets, offset);
+        return weeklyBackward(index < 0 ? offset : offset + removedThrough[index]);
+    }
+
+    /** Same as {@link #toOffset(long)} over the weekly schedule only. */
+    private long weeklyOffset(long localSecond) {
+        long week = Math.floorDiv(localSecond, SECONDS_PER_WEEK);
+        long second = localSecond - week * SECONDS_PER_WEEK;
+        int index = Arrays.binarySearch(starts, second);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        long withinWeek;
+        if (index < 0) {
+            withinWeek = 0;
+        } else if (second < ends[index]) {
+            withinWeek = workingBefore[index] + second - starts[index];
+        } else {
+            withinWeek = workingBefore[index] + ends[index] - starts[index];
+        }
+        return week * weeklyWorkingSeconds + withinWeek;
+    }
+
+    /** Same as {@link #fromOffsetForward(long)} over the weekly schedule only. */
+    private long weeklyForward(long offset) {
+        long week = Math.floorDiv(offset - 1, weeklyWorkingSeconds);
+        long remaining = offset - week * weeklyWorkingSeconds;
+        int index = intervalContaining(remaining - 1);
+        return week * SECONDS_PER_WEEK + starts[index] + remaining - workingBefore[index];
+    }
+
+    /** Same as {@link #fromOffsetBackward(long)} over the weekly schedule only. */
+    private long weeklyBackward(long offset) {
+        long week = Math.floorDiv(offset, weeklyWorkingSeconds);
+        long remaining = offset - week * weeklyWorkingSeconds;
+        int index = intervalContaining(remaining);
+        return week * SECONDS_PER_WEEK + starts[index] + remaining - workingBefore[index];
+    }
+
+    /** Returns the index of the last value lower than or equal to the key, -1 if none. */
+    private static int lastIndexAtMost(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /** Returns the index of the last value strictly lower than the key, -1 if none. */
+    private static int lastIndexBelow(long[] values, long key) {
+        return lastIndexAtMost(values, key - 1);
+    }
+
+    /** Returns the index of the working interval covering the given offset within a week. */
+    private int intervalContaining(long offsetWithinWeek) {
+        int index = Arrays.binarySearch(workingBefore, offsetWithinWeek);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private long nextWorkingSecond(long localSecond) {
+        return isWorking(localSecond) ? localSecond : fromOffsetBackward(toOffset(localSecond));
+    }
+
+    private long previousWorkingSecond(long localSecond) {
+        return isWorking(localSecond) ? localSecond : fromOffsetForward(toOffset(localSecond));
+    }
+
+    private boolean isWorking(long localSecond) {
+        int closed = lastIndexAtMost(closedStarts, localSecond);
+        if (closed >= 0 && localSecond < closedEnds[closed]) {
+            return false;
+        }
+        long second = Math.floorMod(localSecond, SECONDS_PER_WEEK);
+        int index = Arrays.binarySearch(starts, second);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && second < ends[index];
+    }
+
+    private static long toLocalSecond(ZonedDateTime dateTime) {
+        return toLocalSecond(dateTime.toLocalDateTime());
+    }
+
+    private static long toLocalSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) - MONDAY_EPOCH_SECOND;
+    }
+
+    private static ZonedDateTime toZonedDateTime(long localSecond, ZoneId zone) {
+        return LocalDateTime.ofEpochSecond(localSecond + MONDAY_EPOCH_SECOND, 0, ZoneOffset.UTC).atZone(zone);
+    }
+
+    /**
+     * Collects the weekly shifts and the non-working periods of a calendar. A day
+     * may hold several shifts (split shifts), days without shift are non-working
+     * days.
+     */
+    public static final class Builder {
+
+        private final ZoneId zoneId;
+        private final List<long[]> intervals = new ArrayList<>();
+        private final List<long[]> closures = new ArrayList<>();
+
+        private Builder(ZoneId zoneId) {
+            this.zoneId = zoneId;
+        }
+
+        /**
+         * Adds a working shift. An end time before or equal to the start time
+         * describes a shift ending on the next day.
+         *
+         * @param day   The day on which the shift starts.
+         * @param start The start time of the shift.
+         * @param end   The end time of the shift.
+         * @return This builder.
+         */
+        public Builder shift(DayOfWeek day, LocalTime start, LocalTime end) {
+            long from = day.ordinal() * SECONDS_PER_DAY + start.toSecondOfDay();
+            long to = day.ordinal() * SECONDS_PER_DAY + end.toSecondOfDay();
+            if (to <= from) {
+                to += SECONDS_PER_DAY;
+            }
+            if (to > SECONDS_PER_WEEK) {
+                intervals.add(new long[] { 0, to - SECONDS_PER_WEEK });
+                to = SECONDS_PER_WEEK;
+            }
+            intervals.add(new long[] { from, to });
+            return this;
+        }
+
+        /**
+         * Marks a whole day as non-working.
+         *
+         * @param date The holiday.
+         * @return This builder.
+         */
+        public Builder holiday(LocalDate date) {
+            return closed(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        }
+
+        /**
+         * Marks a period as non-working.
+         *
+         * @param from The local start of the closure.
+         * @param to   The local end of the closure, exclusive.
+         * @return This builder.
+         */
+        public Builder closed(LocalDateTime from, LocalDateTime to) {
+            if (to.isAfter(from)) {
+                closures.add(new long[] { toLocalSecond(from), toLocalSecond(to) });
+            }
+            return this;
+        }
+
+        public BusinessCalendar build() {
+            return new BusinessCalendar(zoneId, false, merge(intervals), merge(closures));
+        }
+    }
+}
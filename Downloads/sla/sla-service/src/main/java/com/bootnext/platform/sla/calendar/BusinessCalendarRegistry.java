@@ -0,0 +1,120 @@
+package com.bootnext.platform.sla.calendar;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaCalendarDao;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+import com.bootnext.platform.sla.registry.SlaWorkingHours;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared {@link BusinessCalendar} instances, built once per time zone,
+ * operational hours and weekend policy.
+ *
+ * Named SLA calendars are loaded once and expire after a configurable time, so
+ * that changes made through another instance are picked up as well; they are
+ * dropped as soon as a calendar is saved on this instance.
+ */
+@Component
+@Slf4j
+public class BusinessCalendarRegistry {
+
+    @Autowired
+    private ISlaCalendarDao slaCalendarDao;
+
+    @Value("${sla.calendar.registry.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<String, BusinessCalendar> calendars = new ConcurrentHashMap<>();
+
+    private final Map<Integer, ScheduleEntry> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the calendar of the given operational hours. When the operational
+     * hours refer to a named SLA calendar, its shifts, holidays and closures
+     * apply and the weekend policy is ignored.
+     *
+     * @param zoneId          The time zone of the working hours.
+     * @param workingHours    The operational hours.
+     * @param excludeWeekends Whether Saturday and Sunday are non-working days.
+     * @return The calendar.
+     * @throws BusinessException If the named calendar cannot be loaded.
+     */
+    public BusinessCalendar getCalendar(ZoneId zoneId, SlaWorkingHours workingHours, boolean excludeWeekends) {
+        if (workingHours.isNamedCalendar()) {
+            return getSchedule(workingHours.getCalendarId()).toBusinessCalendar(zoneId);
+        }
+        String key = zoneId.getId() + '|' + workingHours + '|' + excludeWeekends;
+        return calendars.computeIfAbsent(key, k -> {
+            log.info("building business calendar {}", k);
+            return BusinessCalendar.of(zoneId, workingHours, excludeWeekends);
+        });
+    }
+
+    /**
+     * Drops the named calendars. When called inside a transaction they are
+     * dropped once the transaction is committed.
+     */
+    public void invalidateSchedules() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedules.clear();
+                }
+            });
+        } else {
+            schedules.clear();
+        }
+    }
+
+    private SlaCalendarSchedule getSchedule(Integer calendarId) {
+        long now = System.currentTimeMillis();
+        ScheduleEntry entry = schedules.get(calendarId);
+        if (entry == null || entry.isExpired(now)) {
+            entry = schedules.compute(calendarId, (k, current) -> current != null && !current.isExpired(now) ? current
+                    : new ScheduleEntry(load(calendarId), now + TimeUnit.SECONDS.toMillis(ttlSeconds)));
+        }
+        return entry.schedule;
+    }
+
+    private SlaCalendarSchedule load(Integer calendarId) {
+        try {
+            SlaCalendar calendar = slaCalendarDao.findByPk(calendarId);
+            if (calendar == null) {
+                throw new IllegalArgumentException("SLA calendar " + calendarId + " not found");
+            }
+            log.info("loaded sla calendar {}", calendar.getName());
+            return SlaCalendarSchedule.parse(calendar);
+        } catch (Exception e) {
+            log.error("Error Inside @class: BusinessCalendarRegistry @Method :load() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    private static final class ScheduleEntry {
+
+        private final SlaCalendarSchedule schedule;
+        private final long expiresAt;
+
+        private ScheduleEntry(SlaCalendarSchedule schedule, long expiresAt) {
+            this.schedule = schedule;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bootnext.platform.sla.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+
+/**
+ * The working time of an {@link SlaCalendar}, parsed once from its JSON columns
+ * and compiled into a {@link BusinessCalendar} for each time zone it is used
+ * in.
+ */
+public final class SlaCalendarSchedule {
+
+    private static final String START = "start";
+    private static final String END = "end";
+    private static final String DATE = "date";
+    private static final String FROM = "from";
+    private static final String TO = "to";
+
+    private final Integer calendarId;
+    private final List<Shift> shifts;
+    private final List<LocalDate> holidays;
+    private final List<LocalDateTime[]> closures;
+    private final Map<ZoneId, BusinessCalendar> compiled = new ConcurrentHashMap<>();
+
+    private SlaCalendarSchedule(Integer calendarId, List<Shift> shifts, List<LocalDate> holidays,
+            List<LocalDateTime[]> closures) {
+        this.calendarId = calendarId;
+        this.shifts = shifts;
+        this.holidays = holidays;
+        this.closures = closures;
+    }
+
+    /**
+     * Parses and validates the given calendar.
+     *
+     * @param calendar The SLA calendar.
+     * @return The parsed schedule.
+     * @throws IllegalArgumentException If the calendar is not valid, e.g. without
+     *                                  any shift or with an unknown weekday.
+     */
+    public static SlaCalendarSchedule parse(SlaCalendar calendar) {
+        if (calendar.getWorkWeek() == null || calendar.getWorkWeek().isBlank()) {
+            throw new IllegalArgumentException("Work week of SLA calendar " + calendar.getName() + " is missing");
+        }
+        List<Shift> shifts = new ArrayList<>();
+        JSONObject workWeek = new JSONObject(calendar.getWorkWeek());
+        for (String day : workWeek.keySet()) {
+            DayOfWeek dayOfWeek = DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT));
+            JSONArray dayShifts = workWeek.getJSONArray(day);
+            for (int i = 0; i < dayShifts.length(); i++) {
+                JSONObject shift = dayShifts.getJSONObject(i);
+                shifts.add(new Shift(dayOfWeek, LocalTime.parse(shift.getString(START)),
+                        LocalTime.parse(shift.getString(END))));
+            }
+        }
+        if (shifts.isEmpty()) {
+            throw new IllegalArgumentException("SLA calendar " + calendar.getName() + " has no working shift");
+        }
+        List<LocalDate> holidays = new ArrayList<>();
+        JSONArray holidayJson = toArray(calendar.getHolidays());
+        for (int i = 0; i < holidayJson.length(); i++) {
+            JSONObject holiday = holidayJson.optJSONObject(i);
+            holidays.add(LocalDate.parse(holiday != null ? holiday.getString(DATE) : holidayJson.getString(i)));
+        }
+        List<LocalDateTime[]> closures = new ArrayList<>();
+        JSONArray closureJson = toArray(calendar.getClosures());
+        for (int i = 0; i < closureJson.length(); i++) {
+            JSONObject closure = closureJson.getJSONObject(i);
+            LocalDateTime from = LocalDateTime.parse(closure.getString(FROM));
+            LocalDateTime to = LocalDateTime.parse(closure.getString(TO));
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("Closure of SLA calendar " + calendar.getName()
+                        + " ends before it starts: " + closure);
+            }
+            closures.add(new LocalDateTime[] { from, to });
+        }
+        SlaCalendarSchedule schedule = new SlaCalendarSchedule(calendar.getId(), Collections.unmodifiableList(shifts),
+                Collections.unmodifiableList(holidays), Collections.unmodifiableList(closures));
+        schedule.toBusinessCalendar(ZoneId.systemDefault());
+        return schedule;
+    }
+
+    private static JSONArray toArray(String json) {
+        return json == null || json.isBlank() ? new JSONArray() : new JSONArray(json);
+    }
+
+    public Integer getCalendarId() {
+        return calendarId;
+    }
+
+    /**
+     * Returns the calendar compiled for the given time zone.
+     *
+     * @param zoneId The time zone of the SLA template.
+     * @return The business calendar.
+     */
+    public BusinessCalendar toBusinessCalendar(ZoneId zoneId) {
+        return compiled.computeIfAbsent(zoneId, this::compile);
+    }
+
+    private BusinessCalendar compile(ZoneId zoneId) {
+        BusinessCalendar.Builder builder = BusinessCalendar.builder(zoneId);
+        for (Shift shift : shifts) {
+            builder.shift(shift.day, shift.start, shift.end);
+        }
+        for (LocalDate holiday : holidays) {
+            builder.holiday(holiday);
+        }
+        for (LocalDateTime[] closure : closures) {
+            builder.closed(closure[0], closure[1]);
+        }
+        return builder.build();
+    }
+
+    private static final class Shift {
+
+        private final DayOfWeek day;
+        private final LocalTime start;
+        private final LocalTime end;
+
+        private Shift(DayOfWeek day, LocalTime start, LocalTime end) {
+            this.day = day;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
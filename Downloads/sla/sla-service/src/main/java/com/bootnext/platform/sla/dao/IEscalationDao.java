@@ -1,5 +1,6 @@
 package com.bootnext.platform.sla.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -13,7 +14,6 @@ import com.bootnext.platform.sla.model.template.Escalation;
  */
 public interface IEscalationDao extends IGenericDao<Integer, Escalation> {
 
-    List<Escalation> getAllEscalations(boolean status);
 
     List<Escalation> getEscalationByGeneratedValue(String generatedValue);
     
@@ -24,11 +24,21 @@ public interface IEscalationDao extends IGenericDao<Integer, Escalation> {
 
     List<Escalation> getEscalationBySlaHistory(int slaHistory);
 
-    List<Object[]> getThirtyDaysEscalations();
+    List<Escalation> getEscalationByIds(Collection<Integer> ids);
+
+    List<Escalation> getEscalationBySlaHistoryIds(Collection<Integer> slaHistoryIds);
+
+    int archiveEscalationBySlaHistoryIds(Collection<Integer> slaHistoryIds);
+
+    List<Escalation> getDueEscalations(long dueTime, int maxResults);
+
+    List<Escalation> createAll(List<Escalation> escalations);
 
     JSONArray getTopSlaEscalated();
 
     long getPresentDayEscalateActivities(Date currentDate);
     
-    JSONArray getAuditByFk(long id);
+    List<Object[]> getEscalationTimelineAfter(int slaHistoryId, long afterTime, long afterId, int maxResults);
+
+    long countEscalationTimeline(int slaHistoryId);
 }
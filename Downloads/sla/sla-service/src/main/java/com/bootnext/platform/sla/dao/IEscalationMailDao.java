@@ -0,0 +1,23 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.EscalationMail;
+
+/**
+ * The Interface IEscalationMailDao.
+ */
+public interface IEscalationMailDao extends IGenericDao<Integer, EscalationMail> {
+
+    List<Integer> getDueEscalationMailIds(long dueTime, int maxResults);
+
+    List<EscalationMail> claimEscalationMails(Collection<Integer> ids, String claimToken, long claimTime);
+
+    int releaseStaleEscalationMails(long staleTime);
+
+    List<EscalationMail> getEscalationMailsByIds(Collection<Integer> ids);
+
+    int deleteEscalationMailsByIds(Collection<Integer> ids);
+}
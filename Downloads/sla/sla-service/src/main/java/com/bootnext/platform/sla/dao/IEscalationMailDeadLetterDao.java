@@ -0,0 +1,11 @@
+package com.bootnext.platform.sla.dao;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.EscalationMailDeadLetter;
+
+/**
+ * The Interface IEscalationMailDeadLetterDao.
+ */
+public interface IEscalationMailDeadLetterDao extends IGenericDao<Integer, EscalationMailDeadLetter> {
+
+}
@@ -0,0 +1,14 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+
+/**
+ * The Interface ISlaCalendarDao.
+ */
+public interface ISlaCalendarDao extends IGenericDao<Integer, SlaCalendar> {
+
+    List<SlaCalendar> getSlaCalendarByName(String name);
+}
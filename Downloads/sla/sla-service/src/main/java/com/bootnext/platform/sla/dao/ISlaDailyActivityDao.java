@@ -0,0 +1,16 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaDailyActivity;
+
+/**
+ * The Interface ISlaDailyActivityDao.
+ */
+public interface ISlaDailyActivityDao extends IGenericDao<Long, SlaDailyActivity> {
+
+    void incrementSlaDailyActivity(SlaDailyActivity activity);
+
+    List<Object[]> getSlaDailyActivityTotals(String fromDay, String toDay);
+}
@@ -0,0 +1,22 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaEntityVersion;
+
+/**
+ * The Interface ISlaEntityVersionDao.
+ */
+public interface ISlaEntityVersionDao extends IGenericDao<Long, SlaEntityVersion> {
+
+    List<SlaEntityVersion> getSlaEntityVersionsByEntityIds(String applicationName, String entityName,
+            Collection<String> entityIds);
+
+    void upsertSlaEntityVersion(SlaEntityVersion version);
+
+    List<Long> getPurgeableSlaEntityVersionIds(long modifiedBefore, int maxResults);
+
+    int deleteSlaEntityVersionByIds(Collection<Long> ids);
+}
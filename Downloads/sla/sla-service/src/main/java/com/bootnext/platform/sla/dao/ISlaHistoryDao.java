@@ -1,5 +1,6 @@
 package com.bootnext.platform.sla.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -18,12 +19,16 @@ public interface ISlaHistoryDao extends IGenericDao<Integer, SlaHistory> {
 
     SlaHistory getHistoryByEntityId(String entityId);
 
-    List<SlaHistory>  getAllSlaHistory();
-
-    List<SlaHistory>  getAllBreachedSlaHistory(boolean breachStatus);
+    List<SlaHistory> getDueSlaHistory(long dueTime, int maxResults);
 
     SlaHistory findSlaHistoryByEntityIdAppNameAndEntityName(String entityId, String appName, String entityName, String slaIdentifier);
 
+    List<SlaHistory> getOpenSlaHistoryByEntityIds(String appName, String entityName, Collection<String> entityIds);
+
+    List<Integer> getArchivableSlaHistoryIds(long closedBefore, int maxResults);
+
+    int archiveSlaHistoryByIds(Collection<Integer> ids);
+
     long getPresentDayBreachActivities(Date currentDate);
 
     JSONArray getTopSlaBreached();
@@ -39,11 +44,7 @@ public interface ISlaHistoryDao extends IGenericDao<Integer, SlaHistory> {
     Long getTotalHistoryCount ();
 
 
-    List<Object[]>  getAllSlaAudit();
-
-    List<Object[]> getThirtyDaysBreaches();
-
-    List<Object[]> getSlaProximity();
+    long countDueSlaHistoryBetween(long fromTime, long toTime);
     
     JSONArray getHistoryAuditById(long id);
 }
@@ -0,0 +1,19 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaHistoryTransition;
+
+/**
+ * The Interface ISlaHistoryTransitionDao.
+ */
+public interface ISlaHistoryTransitionDao extends IGenericDao<Long, SlaHistoryTransition> {
+
+    List<SlaHistoryTransition> getSlaHistoryTransitionsAfter(int slaHistoryId, long afterTime, long afterId,
+            int maxResults);
+
+    long countSlaHistoryTransitionsByHistoryId(int slaHistoryId);
+
+    boolean hasSlaHistoryStartTransition(int slaHistoryId);
+}
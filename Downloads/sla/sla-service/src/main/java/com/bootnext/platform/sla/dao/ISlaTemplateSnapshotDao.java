@@ -0,0 +1,12 @@
+package com.bootnext.platform.sla.dao;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaTemplateSnapshot;
+
+/**
+ * The Interface ISlaTemplateSnapshotDao.
+ */
+public interface ISlaTemplateSnapshotDao extends IGenericDao<Integer, SlaTemplateSnapshot> {
+
+    SlaTemplateSnapshot getSlaTemplateSnapshotByContentHash(String contentHash);
+}
@@ -0,0 +1,25 @@
+package com.bootnext.platform.sla.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.bootnext.core.generic.dao.IGenericDao;
+import com.bootnext.platform.sla.model.template.SlaTriggerInbox;
+
+/**
+ * The Interface ISlaTriggerInboxDao.
+ */
+public interface ISlaTriggerInboxDao extends IGenericDao<Long, SlaTriggerInbox> {
+
+    List<Long> getDueSlaTriggerInboxIds(long dueTime, int maxResults);
+
+    List<SlaTriggerInbox> claimSlaTriggerInbox(Collection<Long> ids, String claimToken, long claimTime);
+
+    int releaseStaleSlaTriggerInbox(long staleTime);
+
+    int releaseSlaTriggerInboxByIds(Collection<Long> ids);
+
+    List<SlaTriggerInbox> getSlaTriggerInboxByIds(Collection<Long> ids);
+
+    List<Object[]> getSlaTriggerInboxStatus();
+}
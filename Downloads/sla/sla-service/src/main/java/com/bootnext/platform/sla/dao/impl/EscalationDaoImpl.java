@@ -1,5 +1,6 @@
 package com.bootnext.platform.sla.dao.impl;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -11,6 +12,7 @@ import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
 import com.bootnext.core.generic.exceptions.application.BusinessException;
 import com.bootnext.platform.sla.dao.IEscalationDao;
 import com.bootnext.platform.sla.model.template.Escalation;
+import com.bootnext.platform.sla.model.template.SlaHistory;
 import com.bootnext.platform.sla.utils.SlaUtils;
 
 import jakarta.persistence.EntityManager;
@@ -32,25 +34,6 @@ public class EscalationDaoImpl extends HibernateGenericDao<Integer, Escalation>
         super(Escalation.class, entityManager);
     }
 
-    /**
-     * Retrieve a list of Escalation objects based on the specified status.
-     *
-     * @param status The status of the Escalation objects to retrieve (true for active, false for inactive).
-     * @return A list of Escalation objects that match the specified status (could be empty).
-     * @throws BusinessException If any error occurs during the retrieval process.
-     */
-    
-    @Override
-    public List<Escalation> getAllEscalations(boolean status) {
-        try {
-            Query q = getEntityManager().createNamedQuery("getAllEscalations").setParameter("status", status);
-            return q.getResultList();
-        } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getAllEscalations() {}", e.getMessage(), e);
-            throw new BusinessException(e.getMessage());
-        }
-    }
-
     /**
      * Retrieve a list of Escalation objects based on the provided generated value.
      *
@@ -126,6 +109,118 @@ public class EscalationDaoImpl extends HibernateGenericDao<Integer, Escalation>
     }
     }
 
+    /**
+     * Retrieve the Escalation objects with the given ids in a single query.
+     *
+     * @param ids The ids of the escalations.
+     * @return A list of matching Escalation objects (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Escalation> getEscalationByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getEntityManager().createNamedQuery("getEscalationByIds", Escalation.class)
+                    .setParameter("ids", ids).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :getEscalationByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the Escalation objects of all the given SLA histories in a single query.
+     *
+     * @param slaHistoryIds The ids of the SLA histories.
+     * @return A list of Escalation objects of the given histories (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Escalation> getEscalationBySlaHistoryIds(Collection<Integer> slaHistoryIds) {
+        if (slaHistoryIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getEntityManager().createNamedQuery("getEscalationBySlaHistoryIds", Escalation.class)
+                    .setParameter("slaHistoryIds", slaHistoryIds).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :getEscalationBySlaHistoryIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Copy the Escalation rows of the given SLA histories to the
+     * ESCALATION_ARCHIVE table and remove them from ESCALATION. Must be called
+     * inside a transaction.
+     *
+     * @param slaHistoryIds The ids of the SLA histories.
+     * @return The number of archived escalations.
+     * @throws BusinessException If any error occurs during the update process.
+     */
+    @Override
+    public int archiveEscalationBySlaHistoryIds(Collection<Integer> slaHistoryIds) {
+        if (slaHistoryIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            getEntityManager().createNamedQuery("archiveEscalationBySlaHistoryIds")
+                    .setParameter("slaHistoryIds", slaHistoryIds).executeUpdate();
+            return getEntityManager().createNamedQuery("deleteEscalationBySlaHistoryIds")
+                    .setParameter("slaHistoryIds", slaHistoryIds).executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :archiveEscalationBySlaHistoryIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the unsent Escalation objects whose escalation time is reached and
+     * whose SLA history is in progress, oldest first. The SLA history is fetched
+     * in the same query.
+     *
+     * @param dueTime    The time in milliseconds up to which escalations are due.
+     * @param maxResults The maximum number of escalations to return.
+     * @return A list of due Escalation objects (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Escalation> getDueEscalations(long dueTime, int maxResults) {
+        try {
+            return getEntityManager().createNamedQuery("getDueEscalations", Escalation.class)
+                    .setParameter("dueTime", dueTime).setParameter("state", SlaHistory.STAGE.IN_PROGRESS)
+                    .setMaxResults(maxResults).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :getDueEscalations() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Persist the given escalations in the transaction of the caller. The ids come
+     * from a pooled table generator, so the inserts are sent in JDBC batches.
+     *
+     * @param escalations The escalations to create.
+     * @return The created escalations.
+     * @throws BusinessException If any error occurs during the creation process.
+     */
+    @Override
+    public List<Escalation> createAll(List<Escalation> escalations) {
+        try {
+            EntityManager entityManager = getEntityManager();
+            for (Escalation escalation : escalations) {
+                entityManager.persist(escalation);
+            }
+            entityManager.flush();
+            return escalations;
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :createAll() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
     /**
      * Retrieve a JSONArray containing the top SLAs (Service Level Agreements) that have been escalated.
      *
@@ -182,75 +277,50 @@ public class EscalationDaoImpl extends HibernateGenericDao<Integer, Escalation>
     }
 
 
+    /**
+     * Retrieve the sent escalations of an SLA history following the given
+     * position, oldest first, as rows of ID, escalation time, recipients and
+     * level. Archived escalations are included.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @param afterTime    The escalation time of the position.
+     * @param afterId      The ID of the position, among the escalations of that time.
+     * @param maxResults   The maximum number of rows, 0 for all.
+     * @return The escalation rows (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
     @Override
-        public List<Object[]> getThirtyDaysEscalations() {
+    public List<Object[]> getEscalationTimelineAfter(int slaHistoryId, long afterTime, long afterId, int maxResults) {
         try {
-            log.info("inside dao................");
-            Query query = getEntityManager().createNamedQuery("getThirtyDaysEscalations");
-            log.info("query.getResultList {}", query.getResultList());
+            Query query = getEntityManager().createNamedQuery("getEscalationTimelineAfter")
+                    .setParameter("slaHistoryId", slaHistoryId).setParameter("afterTime", afterTime)
+                    .setParameter("afterId", afterId);
+            if (maxResults > 0) {
+                query.setMaxResults(maxResults);
+            }
             return query.getResultList();
-
         } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getThirtyDaysEscalations() {}", e.getMessage(), e);
-                throw new BusinessException(e.getMessage());
-        }
-    }
-
-
- @Override
-public JSONArray getAuditByFk(long id) {
-    try {
-        Query query = getEntityManager().createNamedQuery("getAuditByFk");
-        query.setParameter("id", id);
-        List<Object[]> results = query.getResultList();
-        log.info("results=========  {}", results);
-        JSONArray jsonArray = new JSONArray();
-
-        if (!results.isEmpty()) {
-            for (Object[] obj : results) {
-                JSONObject jsonObject = new JSONObject();
-                jsonObject.put("createdTime", obj[0]);
-                Object objValue = obj[1];
-                JSONArray jsonArrayValue = new JSONArray((String) objValue);
-                String email = editMailList(jsonArrayValue);
-                log.info("email==== {}", email);
-                jsonObject.put("whomToEscalate", email);
-                jsonObject.put("level", obj[2]);
-                jsonArray.put(jsonObject);
-            }
-            return jsonArray;
-        } else {
-            return null;
+            log.error("Error Inside @class: EscalationDaoImpl @Method :getEscalationTimelineAfter() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
         }
-    } catch (Exception e) {
-        log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getAuditByFk() {}", e.getMessage(), e);
-        return null;
     }
-}
 
-private String editMailList(JSONArray jsonArray) {
-    StringBuilder emailList = new StringBuilder();
-    emailList.append("Mail sent to: ");
-    try {
-        for (int i = 0; i < jsonArray.length(); i++) {
-            String email = jsonArray.getString(i);
-            if (i > 0) {
-                emailList.append(", ");
-            }
-            emailList.append(email);
+    /**
+     * Retrieve the number of sent escalations of an SLA history, archived ones
+     * included.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @return The number of sent escalations.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public long countEscalationTimeline(int slaHistoryId) {
+        try {
+            return ((Number) getEntityManager().createNamedQuery("countEscalationTimeline")
+                    .setParameter("slaHistoryId", slaHistoryId).getSingleResult()).longValue();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationDaoImpl @Method :countEscalationTimeline() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
         }
-        return emailList.toString();
-    } catch (Exception e) {
-        log.error("Error Inside @class: SlaHistoryDaoImpl @Method :editMailList() {}", e.getMessage(), e);
-        return null;
     }
 }
-
-
-
-
-
-
-
-
-}
@@ -0,0 +1,142 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.IEscalationMailDao;
+import com.bootnext.platform.sla.model.template.EscalationMail;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escalation Mail Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class EscalationMailDaoImpl extends HibernateGenericDao<Integer, EscalationMail> implements IEscalationMailDao {
+
+    public EscalationMailDaoImpl(EntityManager entityManager) {
+        super(EscalationMail.class, entityManager);
+    }
+
+    /**
+     * Retrieve the ids of the pending mails whose next attempt time is reached,
+     * oldest first.
+     *
+     * @param dueTime    The time in milliseconds up to which mails are due.
+     * @param maxResults The maximum number of ids to return.
+     * @return The ids of the due mails (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Integer> getDueEscalationMailIds(long dueTime, int maxResults) {
+        try {
+            return getEntityManager().createNamedQuery("getDueEscalationMailIds", Integer.class)
+                    .setParameter("state", EscalationMail.STATE.PENDING).setParameter("dueTime", dueTime)
+                    .setMaxResults(maxResults).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDaoImpl @Method :getDueEscalationMailIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the given pending mails to the sending state under a claim token and
+     * returns the mails actually claimed. Mails claimed in between by another
+     * instance are skipped. Must be called inside a transaction.
+     *
+     * @param ids        The ids of the mails to claim.
+     * @param claimToken The token identifying this claim.
+     * @param claimTime  The time of the claim in milliseconds.
+     * @return The claimed mails (could be empty).
+     * @throws BusinessException If any error occurs during the update.
+     */
+    @Override
+    public List<EscalationMail> claimEscalationMails(Collection<Integer> ids, String claimToken, long claimTime) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            getEntityManager().createNamedQuery("claimEscalationMails")
+                    .setParameter("sendingState", EscalationMail.STATE.SENDING).setParameter("claimToken", claimToken)
+                    .setParameter("modifiedTime", claimTime).setParameter("ids", ids)
+                    .setParameter("pendingState", EscalationMail.STATE.PENDING).executeUpdate();
+            return getEntityManager().createNamedQuery("getEscalationMailsByClaimToken", EscalationMail.class)
+                    .setParameter("claimToken", claimToken).setParameter("state", EscalationMail.STATE.SENDING)
+                    .getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDaoImpl @Method :claimEscalationMails() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves back to the pending state the mails claimed before the given time,
+     * e.g. by an instance stopped while sending them. Must be called inside a
+     * transaction.
+     *
+     * @param staleTime The time in milliseconds before which claims are stale.
+     * @return The number of released mails.
+     * @throws BusinessException If any error occurs during the update.
+     */
+    @Override
+    public int releaseStaleEscalationMails(long staleTime) {
+        try {
+            return getEntityManager().createNamedQuery("releaseStaleEscalationMails")
+                    .setParameter("pendingState", EscalationMail.STATE.PENDING)
+                    .setParameter("sendingState", EscalationMail.STATE.SENDING).setParameter("staleTime", staleTime)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDaoImpl @Method :releaseStaleEscalationMails() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the mails with the given ids.
+     *
+     * @param ids The ids of the mails.
+     * @return The matching mails (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<EscalationMail> getEscalationMailsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getEntityManager().createNamedQuery("getEscalationMailsByIds", EscalationMail.class)
+                    .setParameter("ids", ids).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDaoImpl @Method :getEscalationMailsByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the mails with the given ids. Must be called inside a transaction.
+     *
+     * @param ids The ids of the mails.
+     * @return The number of deleted mails.
+     * @throws BusinessException If any error occurs during the deletion.
+     */
+    @Override
+    public int deleteEscalationMailsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return getEntityManager().createNamedQuery("deleteEscalationMailsByIds").setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDaoImpl @Method :deleteEscalationMailsByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
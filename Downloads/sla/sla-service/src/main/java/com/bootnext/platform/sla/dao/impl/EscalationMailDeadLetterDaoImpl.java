@@ -0,0 +1,21 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.platform.sla.dao.IEscalationMailDeadLetterDao;
+import com.bootnext.platform.sla.model.template.EscalationMailDeadLetter;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Escalation Mail Dead Letter Dao Implementation class
+ */
+@Repository
+public class EscalationMailDeadLetterDaoImpl extends HibernateGenericDao<Integer, EscalationMailDeadLetter>
+        implements IEscalationMailDeadLetterDao {
+
+    public EscalationMailDeadLetterDaoImpl(EntityManager entityManager) {
+        super(EscalationMailDeadLetter.class, entityManager);
+    }
+}
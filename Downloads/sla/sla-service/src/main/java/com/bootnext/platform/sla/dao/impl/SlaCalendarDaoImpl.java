@@ -0,0 +1,45 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaCalendarDao;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+import com.bootnext.platform.sla.utils.SlaUtils;
+import com.bootnext.platform.utils.Utils;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+@Repository
+@Slf4j
+public class SlaCalendarDaoImpl extends HibernateGenericDao<Integer, SlaCalendar> implements ISlaCalendarDao {
+
+    public SlaCalendarDaoImpl(EntityManager entityManager) {
+        super(SlaCalendar.class, entityManager);
+    }
+
+    /**
+     * Retrieve the SLA calendars with the given name.
+     *
+     * @param name The name of the calendar.
+     * @return The matching calendars, empty if none exists.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaCalendar> getSlaCalendarByName(String name) {
+        try {
+            log.info(SlaUtils.INSIDE_METHOD, "getSlaCalendarByName");
+            return getEntityManager().createNamedQuery("getSlaCalendarByName", SlaCalendar.class)
+                    .setParameter("name", name).getResultList();
+        } catch (Exception e) {
+            log.error(SlaUtils.ERROR_OCCURRED, "getSlaCalendarByName");
+            log.error(SlaUtils.EXCEPTION_STACK_TRACE, Utils.getStackTrace(e));
+            log.error(SlaUtils.EXCEPTION_MSG, e.getMessage());
+            throw new BusinessException(SlaUtils.SOMETHING_WENT_WRONG);
+        }
+    }
+}
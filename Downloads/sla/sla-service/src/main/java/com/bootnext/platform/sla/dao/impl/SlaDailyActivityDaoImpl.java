@@ -0,0 +1,70 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaDailyActivityDao;
+import com.bootnext.platform.sla.model.template.SlaDailyActivity;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sla Daily Activity Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class SlaDailyActivityDaoImpl extends HibernateGenericDao<Long, SlaDailyActivity>
+        implements ISlaDailyActivityDao {
+
+    public SlaDailyActivityDaoImpl(EntityManager entityManager) {
+        super(SlaDailyActivity.class, entityManager);
+    }
+
+    /**
+     * Add the count of an activity to its daily counter, creating the counter
+     * on its first activity of the day.
+     *
+     * @param activity The key of the counter and the count to add.
+     * @throws BusinessException If any error occurs during the update process.
+     */
+    @Override
+    public void incrementSlaDailyActivity(SlaDailyActivity activity) {
+        try {
+            getEntityManager().createNamedQuery("incrementSlaDailyActivity")
+                    .setParameter("activityDay", activity.getActivityDay())
+                    .setParameter("timeZone", activity.getTimeZone())
+                    .setParameter("application", activity.getApplication())
+                    .setParameter("executedOn", activity.getExecutedOn())
+                    .setParameter("slaIdentifier", activity.getSlaIdentifier())
+                    .setParameter("level", activity.getLevel())
+                    .setParameter("metric", activity.getMetric().name())
+                    .setParameter("activityCount", activity.getActivityCount()).executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaDailyActivityDaoImpl @Method :incrementSlaDailyActivity() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the total of each metric per day and time zone between two days.
+     *
+     * @param fromDay The first day, as yyyy-MM-dd.
+     * @param toDay   The last day, as yyyy-MM-dd.
+     * @return The rows of day, time zone, metric and total (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Object[]> getSlaDailyActivityTotals(String fromDay, String toDay) {
+        try {
+            return getEntityManager().createNamedQuery("getSlaDailyActivityTotals", Object[].class)
+                    .setParameter("fromDay", fromDay).setParameter("toDay", toDay).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaDailyActivityDaoImpl @Method :getSlaDailyActivityTotals() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
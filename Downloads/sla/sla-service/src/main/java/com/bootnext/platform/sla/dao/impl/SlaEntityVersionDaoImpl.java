@@ -0,0 +1,121 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaEntityVersionDao;
+import com.bootnext.platform.sla.model.template.SlaEntityVersion;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sla Entity Version Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class SlaEntityVersionDaoImpl extends HibernateGenericDao<Long, SlaEntityVersion>
+        implements ISlaEntityVersionDao {
+
+    public SlaEntityVersionDaoImpl(EntityManager entityManager) {
+        super(SlaEntityVersion.class, entityManager);
+    }
+
+    /**
+     * Retrieve the last applied versions of the given entities, for every
+     * template.
+     *
+     * @param applicationName The name of the application.
+     * @param entityName      The name of the entity.
+     * @param entityIds       The IDs of the entities.
+     * @return The applied versions (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaEntityVersion> getSlaEntityVersionsByEntityIds(String applicationName, String entityName,
+            Collection<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getEntityManager().createNamedQuery("getSlaEntityVersionsByEntityIds", SlaEntityVersion.class)
+                    .setParameter("applicationName", applicationName).setParameter("entityName", entityName)
+                    .setParameter("entityIds", entityIds).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaEntityVersionDaoImpl @Method :getSlaEntityVersionsByEntityIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Record the applied version of an entity for a template, creating the row
+     * or raising its version. The version is never lowered, so an instance
+     * recording an older version concurrently does not undo a newer one.
+     *
+     * @param version The entity, template and version to record.
+     * @throws BusinessException If any error occurs during the update process.
+     */
+    @Override
+    public void upsertSlaEntityVersion(SlaEntityVersion version) {
+        try {
+            getEntityManager().createNamedQuery("upsertSlaEntityVersion")
+                    .setParameter("applicationName", version.getApplicationName())
+                    .setParameter("entityName", version.getEntityName())
+                    .setParameter("entityId", version.getEntityId())
+                    .setParameter("slaIdentifier", version.getSlaIdentifier())
+                    .setParameter("entityVersion", version.getEntityVersion())
+                    .setParameter("modifiedTime", version.getModifiedTime()).executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaEntityVersionDaoImpl @Method :upsertSlaEntityVersion() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the ids of the versions last recorded before the given time for
+     * an entity and template without open SLA history, oldest first.
+     *
+     * @param modifiedBefore The time in milliseconds before which the versions
+     *                       were recorded.
+     * @param maxResults     The maximum number of ids to return.
+     * @return The ids of the purgeable versions (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Long> getPurgeableSlaEntityVersionIds(long modifiedBefore, int maxResults) {
+        try {
+            return getEntityManager().createNamedQuery("getPurgeableSlaEntityVersionIds", Long.class)
+                    .setParameter("modifiedBefore", modifiedBefore).setMaxResults(maxResults).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaEntityVersionDaoImpl @Method :getPurgeableSlaEntityVersionIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the versions with the given ids. Must be called inside a
+     * transaction.
+     *
+     * @param ids The ids of the versions.
+     * @return The number of deleted versions.
+     * @throws BusinessException If any error occurs during the deletion.
+     */
+    @Override
+    public int deleteSlaEntityVersionByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return getEntityManager().createNamedQuery("deleteSlaEntityVersionByIds").setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaEntityVersionDaoImpl @Method :deleteSlaEntityVersionByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.bootnext.platform.sla.dao.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -25,6 +27,8 @@ import lombok.extern.slf4j.Slf4j;
 public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory> implements ISlaHistoryDao {
 
 
+    private static final int IN_CLAUSE_SIZE = 500;
+
     public SlaHistoryDaoImpl(EntityManager entityManager) {
         super(SlaHistory.class, entityManager);
     }
@@ -61,34 +65,29 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
     }
 
     /**
-     * Retrieve a list of all SlaHistory objects.
+     * Retrieve the in progress SlaHistory objects whose breach time is reached and
+     * which are not flagged as breached yet, oldest breach time first.
      *
-     * @return A list of all SlaHistory objects (could be empty).
-     * @throws BusinessException If any error occurs during the retrieval process.
-     */
-    @Override
-    public List<SlaHistory> getAllSlaHistory() {
-        log.info(SlaUtils.INSIDE_METHOD, "getAllHistory");
-        Query q = getEntityManager().createNamedQuery("getAllSlaHistory");
-        return q.getResultList();
-    }
-
-    /**
-     * Retrieve a list of all breached SlaHistory objects.
+     * The query is served by the (STATE, BREACH_STATUS, BREACH_TIME) index so its
+     * cost depends on the number of due histories only.
      *
-     * @return A list of all breached SlaHistory objects (could be empty).
+     * @param dueTime    The time in milliseconds up to which histories are due.
+     * @param maxResults The maximum number of histories to return.
+     * @return A list of due SlaHistory objects (could be empty).
      * @throws BusinessException If any error occurs during the retrieval process.
      */
     @Override
-    public List<SlaHistory> getAllBreachedSlaHistory(boolean breachStatus) {
-        try{
-        Query q = getEntityManager().createNamedQuery("getAllBreachedSlaHistory").setParameter("breachStatus",breachStatus);
-        return q.getResultList();
-        }catch (Exception e) {
-        log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getAllBreachedSlaHistory() {}", e.getMessage(), e);
+    public List<SlaHistory> getDueSlaHistory(long dueTime, int maxResults) {
+        try {
+            return getEntityManager().createNamedQuery("getDueSlaHistory", SlaHistory.class)
+                    .setParameter("state", SlaHistory.STAGE.IN_PROGRESS).setParameter("dueTime", dueTime)
+                    .setMaxResults(maxResults).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getDueSlaHistory() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
+        }
     }
-    }
+
     /**
      * Retrieve the total count of SlaHistory objects in the database.
      *
@@ -98,7 +97,7 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
     @Override
     public Long getTotalHistoryCount (){
         Query q = getEntityManager().createNamedQuery("getTotalHistoryCount");
-        return (Long) q.getSingleResult();
+        return ((Number) q.getSingleResult()).longValue();
     }
 
     /**
@@ -127,6 +126,88 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
     }
 
 
+    /**
+     * Retrieve the in progress or on hold SlaHistory objects of the given entities.
+     * The entity ids are sent in chunks of {@value #IN_CLAUSE_SIZE} to keep the
+     * IN clauses short.
+     *
+     * @param appName    The name of the application.
+     * @param entityName The name of the entity.
+     * @param entityIds  The ids of the entities.
+     * @return A list of open SlaHistory objects of the entities (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaHistory> getOpenSlaHistoryByEntityIds(String appName, String entityName, Collection<String> entityIds) {
+        try {
+            List<String> ids = new ArrayList<>(entityIds);
+            List<SlaHistory> histories = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+                histories.addAll(getEntityManager().createNamedQuery("getOpenSlaHistoryByEntityIds", SlaHistory.class)
+                        .setParameter("applicationName", appName).setParameter("entityName", entityName)
+                        .setParameter("entityIds", ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size())))
+                        .getResultList());
+            }
+            return histories;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getOpenSlaHistoryByEntityIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the ids of the completed or cancelled SlaHistory objects closed
+     * before the given time, oldest first. Histories with an escalation mail
+     * still in the outbox are left out until the mail is sent. The rows are
+     * locked until the end of the transaction, the rows locked by another
+     * archiver are skipped.
+     *
+     * @param closedBefore The time before which the histories were closed.
+     * @param maxResults   The maximum number of ids to return.
+     * @return The ids of the histories which can be archived (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Integer> getArchivableSlaHistoryIds(long closedBefore, int maxResults) {
+        try {
+            List<?> results = getEntityManager().createNamedQuery("getArchivableSlaHistoryIds")
+                    .setParameter("closedBefore", closedBefore).setParameter("maxResults", maxResults)
+                    .getResultList();
+            List<Integer> ids = new ArrayList<>(results.size());
+            for (Object id : results) {
+                ids.add(((Number) id).intValue());
+            }
+            return ids;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getArchivableSlaHistoryIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Copy the given SlaHistory rows to the SLA_HISTORY_ARCHIVE table and remove
+     * them from SLA_HISTORY. Their escalations must be archived first. Must be
+     * called inside a transaction.
+     *
+     * @param ids The ids of the histories.
+     * @return The number of archived histories.
+     * @throws BusinessException If any error occurs during the update process.
+     */
+    @Override
+    public int archiveSlaHistoryByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            getEntityManager().createNamedQuery("archiveSlaHistoryByIds").setParameter("ids", ids).executeUpdate();
+            return getEntityManager().createNamedQuery("deleteSlaHistoryByIds").setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :archiveSlaHistoryByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
     /**
      * Retrieve the count of SlaHistory objects that have breached on the present day, based on the provided currentDate.
      *
@@ -151,15 +232,28 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
 
 
 
+    /**
+     * Retrieve the number of in progress SlaHistory objects, not flagged as
+     * breached yet, whose breach time is within the given range.
+     *
+     * The count is a range of the (STATE, BREACH_STATUS, BREACH_TIME) index, its
+     * cost depends on the number of histories in the range only.
+     *
+     * @param fromTime The start of the range in milliseconds, inclusive.
+     * @param toTime   The end of the range in milliseconds, exclusive.
+     * @return The number of histories due in the range.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
     @Override
-    public List<Object[]> getSlaProximity(){
-        try{
-            Query query =getEntityManager().createNamedQuery("getBreachProximity");
-            return query.getResultList();
-        }catch (Exception e) {
-        log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getSlaProximity() {}", e.getMessage(), e);
+    public long countDueSlaHistoryBetween(long fromTime, long toTime) {
+        try {
+            return getEntityManager().createNamedQuery("countDueSlaHistoryBetween", Long.class)
+                    .setParameter("state", SlaHistory.STAGE.IN_PROGRESS).setParameter("fromTime", fromTime)
+                    .setParameter("toTime", toTime).getSingleResult();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :countDueSlaHistoryBetween() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
-    }
+        }
     }
 
 
@@ -274,9 +368,9 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
                  JSONObject jsonObject = new JSONObject();
                  JSONObject jsonForPie = new JSONObject();
                  Object[] list = getResolvedTime((String) obj[4]);
-                 Long min = (list[1] != null) ? ((Long) list[1]) / (1000 * 60 * 60) : 0L;
-                 Long max = (list[0] != null) ? ((Long) list[0])/(1000 * 60 * 60) : 0L;
-                 Double avg = (list[2] != null) ? ((Double) list[2]) / (1000 * 60 * 60) : 0.0;
+                 Long min = (list[1] != null) ? ((Number) list[1]).longValue() / (1000 * 60 * 60) : 0L;
+                 Long max = (list[0] != null) ? ((Number) list[0]).longValue()/(1000 * 60 * 60) : 0L;
+                 Double avg = (list[2] != null) ? ((Number) list[2]).doubleValue() / (1000 * 60 * 60) : 0.0;
                  int decimalPlaces = 2;
                  double scalingFactor = Math.pow(10, decimalPlaces);
                  double roundedAvg = Math.round(avg * scalingFactor) / scalingFactor;
@@ -367,41 +461,6 @@ public class SlaHistoryDaoImpl extends HibernateGenericDao<Integer, SlaHistory>
     return result;
     }
 
-    /**
-     * Retrieve all SLA audit data as a list of Object arrays.
-     *
-     * @return A List of Object arrays representing the SLA audit data.
-     *         Each Object array contains the audit information for a specific SLA history record.
-     * @throws BusinessException If any error occurs during the retrieval process.
-     */
-    @Override
-    public List<Object[]> getAllSlaAudit() {
-    try {
-        log.info("inside dao................");
-        Query query = getEntityManager().createNamedQuery("SLA_HISTORY_AUD.findAll");
-        log.info("query.getResultList {}", query.getResultList());
-        return query.getResultList();
-
-    } catch (Exception e) {
-        log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getAllSlaAudit() {}", e.getMessage(), e);
-            throw new BusinessException(e.getMessage());
-    }
-}
-
-    @Override
-        public List<Object[]> getThirtyDaysBreaches() {
-        try {
-            log.info("inside dao................");
-            Query query = getEntityManager().createNamedQuery("getThirtyDaysBreaches");
-            log.info("query.getResultList {}", query.getResultList());
-            return query.getResultList();
-
-        } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryDaoImpl @Method :getThirtyDaysBreaches() {}", e.getMessage(), e);
-                throw new BusinessException(e.getMessage());
-        }
-    }
-
 @Override
 public JSONArray getHistoryAuditById(long id) {
     try {
@@ -0,0 +1,94 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaHistoryTransitionDao;
+import com.bootnext.platform.sla.model.template.SlaHistoryTransition;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sla History Transition Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class SlaHistoryTransitionDaoImpl extends HibernateGenericDao<Long, SlaHistoryTransition>
+        implements ISlaHistoryTransitionDao {
+
+    public SlaHistoryTransitionDaoImpl(EntityManager entityManager) {
+        super(SlaHistoryTransition.class, entityManager);
+    }
+
+    /**
+     * Retrieve the transitions of an SLA history following the given position,
+     * oldest first.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @param afterTime    The time of the position.
+     * @param afterId      The ID of the position, among the transitions of that time.
+     * @param maxResults   The maximum number of transitions, 0 for all.
+     * @return The transitions of the history (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaHistoryTransition> getSlaHistoryTransitionsAfter(int slaHistoryId, long afterTime, long afterId,
+            int maxResults) {
+        try {
+            TypedQuery<SlaHistoryTransition> query = getEntityManager()
+                    .createNamedQuery("getSlaHistoryTransitionsAfter", SlaHistoryTransition.class)
+                    .setParameter("slaHistoryId", slaHistoryId).setParameter("afterTime", afterTime)
+                    .setParameter("afterId", afterId);
+            if (maxResults > 0) {
+                query.setMaxResults(maxResults);
+            }
+            return query.getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryTransitionDaoImpl @Method :getSlaHistoryTransitionsAfter() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the number of transitions of an SLA history.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @return The number of transitions.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public long countSlaHistoryTransitionsByHistoryId(int slaHistoryId) {
+        try {
+            return getEntityManager().createNamedQuery("countSlaHistoryTransitionsByHistoryId", Long.class)
+                    .setParameter("slaHistoryId", slaHistoryId).getSingleResult();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryTransitionDaoImpl @Method :countSlaHistoryTransitionsByHistoryId() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the start of an SLA history is in the transition log, in
+     * which case none of its changes are only in the audit table.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @return true if the history was started with the transition log.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public boolean hasSlaHistoryStartTransition(int slaHistoryId) {
+        try {
+            return getEntityManager().createNamedQuery("countSlaHistoryStartTransitions", Long.class)
+                    .setParameter("slaHistoryId", slaHistoryId).getSingleResult() > 0;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryTransitionDaoImpl @Method :hasSlaHistoryStartTransition() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaTemplateSnapshotDao;
+import com.bootnext.platform.sla.model.template.SlaTemplateSnapshot;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sla Template Snapshot Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class SlaTemplateSnapshotDaoImpl extends HibernateGenericDao<Integer, SlaTemplateSnapshot>
+        implements ISlaTemplateSnapshotDao {
+
+    public SlaTemplateSnapshotDaoImpl(EntityManager entityManager) {
+        super(SlaTemplateSnapshot.class, entityManager);
+    }
+
+    /**
+     * Retrieve the snapshot with the given content hash.
+     *
+     * @param contentHash The hash of the snapshot content.
+     * @return The snapshot, or null if none has this content.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public SlaTemplateSnapshot getSlaTemplateSnapshotByContentHash(String contentHash) {
+        try {
+            List<SlaTemplateSnapshot> snapshots = getEntityManager()
+                    .createNamedQuery("getSlaTemplateSnapshotByContentHash", SlaTemplateSnapshot.class)
+                    .setParameter("contentHash", contentHash).getResultList();
+            return snapshots.isEmpty() ? null : snapshots.get(0);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTemplateSnapshotDaoImpl @Method :getSlaTemplateSnapshotByContentHash() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
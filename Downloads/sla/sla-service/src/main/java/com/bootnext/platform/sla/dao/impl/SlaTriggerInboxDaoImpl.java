@@ -0,0 +1,169 @@
+package com.bootnext.platform.sla.dao.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.bootnext.core.generic.dao.impl.HibernateGenericDao;
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaTriggerInboxDao;
+import com.bootnext.platform.sla.model.template.SlaTriggerInbox;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sla Trigger Inbox Dao Implementation class
+ */
+@Repository
+@Slf4j
+public class SlaTriggerInboxDaoImpl extends HibernateGenericDao<Long, SlaTriggerInbox> implements ISlaTriggerInboxDao {
+
+    public SlaTriggerInboxDaoImpl(EntityManager entityManager) {
+        super(SlaTriggerInbox.class, entityManager);
+    }
+
+    /**
+     * Retrieve the ids of the pending events whose next attempt time is
+     * reached, in acceptance order, skipping the entities with an earlier event
+     * still processed or waiting for a retry.
+     *
+     * @param dueTime    The time in milliseconds up to which events are due.
+     * @param maxResults The maximum number of ids to return.
+     * @return The ids of the due events (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Long> getDueSlaTriggerInboxIds(long dueTime, int maxResults) {
+        try {
+            return getEntityManager().createNamedQuery("getDueSlaTriggerInboxIds", Long.class)
+                    .setParameter("pendingState", SlaTriggerInbox.STATE.PENDING)
+                    .setParameter("processingState", SlaTriggerInbox.STATE.PROCESSING).setParameter("dueTime", dueTime)
+                    .setMaxResults(maxResults).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :getDueSlaTriggerInboxIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the given pending events to the processing state under a claim
+     * token and returns the events actually claimed, in acceptance order.
+     * Events claimed in between by another instance are skipped, and so are the
+     * events of an entity whose earlier event was claimed in between by another
+     * instance or put back for a retry. The check is repeated in the update,
+     * which reads the earlier events under lock, so the events of an entity are
+     * applied in order across instances. Must be called inside a transaction.
+     *
+     * @param ids        The ids of the events to claim.
+     * @param claimToken The token identifying this claim.
+     * @param claimTime  The time of the claim in milliseconds, the due time of
+     *                   the events.
+     * @return The claimed events (could be empty).
+     * @throws BusinessException If any error occurs during the update.
+     */
+    @Override
+    public List<SlaTriggerInbox> claimSlaTriggerInbox(Collection<Long> ids, String claimToken, long claimTime) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            getEntityManager().createNamedQuery("claimSlaTriggerInbox")
+                    .setParameter("processingState", SlaTriggerInbox.STATE.PROCESSING.name())
+                    .setParameter("claimToken", claimToken).setParameter("modifiedTime", claimTime)
+                    .setParameter("dueTime", claimTime).setParameter("ids", ids)
+                    .setParameter("pendingState", SlaTriggerInbox.STATE.PENDING.name()).executeUpdate();
+            return getEntityManager().createNamedQuery("getSlaTriggerInboxByClaimToken", SlaTriggerInbox.class)
+                    .setParameter("claimToken", claimToken).setParameter("state", SlaTriggerInbox.STATE.PROCESSING)
+                    .getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :claimSlaTriggerInbox() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves back to the pending state the events claimed before the given time,
+     * e.g. by an instance stopped while applying them. Must be called inside a
+     * transaction.
+     *
+     * @param staleTime The time in milliseconds before which claims are stale.
+     * @return The number of released events.
+     * @throws BusinessException If any error occurs during the update.
+     */
+    @Override
+    public int releaseStaleSlaTriggerInbox(long staleTime) {
+        try {
+            return getEntityManager().createNamedQuery("releaseStaleSlaTriggerInbox")
+                    .setParameter("pendingState", SlaTriggerInbox.STATE.PENDING)
+                    .setParameter("processingState", SlaTriggerInbox.STATE.PROCESSING)
+                    .setParameter("staleTime", staleTime).executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :releaseStaleSlaTriggerInbox() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves back to the pending state the given claimed events, without counting
+     * an attempt. Must be called inside a transaction.
+     *
+     * @param ids The ids of the events.
+     * @return The number of released events.
+     * @throws BusinessException If any error occurs during the update.
+     */
+    @Override
+    public int releaseSlaTriggerInboxByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return getEntityManager().createNamedQuery("releaseSlaTriggerInboxByIds")
+                    .setParameter("pendingState", SlaTriggerInbox.STATE.PENDING).setParameter("ids", ids)
+                    .setParameter("processingState", SlaTriggerInbox.STATE.PROCESSING).executeUpdate();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :releaseSlaTriggerInboxByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the events with the given ids.
+     *
+     * @param ids The ids of the events.
+     * @return The matching events (could be empty).
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaTriggerInbox> getSlaTriggerInboxByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getEntityManager().createNamedQuery("getSlaTriggerInboxByIds", SlaTriggerInbox.class)
+                    .setParameter("ids", ids).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :getSlaTriggerInboxByIds() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve, for each state, the number of events and the acceptance time of
+     * the oldest one.
+     *
+     * @return Rows of state, count and oldest creation time.
+     * @throws BusinessException If any error occurs during the retrieval process.
+     */
+    @Override
+    public List<Object[]> getSlaTriggerInboxStatus() {
+        try {
+            return getEntityManager().createNamedQuery("getSlaTriggerInboxStatus", Object[].class).getResultList();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxDaoImpl @Method :getSlaTriggerInboxStatus() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.bootnext.platform.sla.dashboard;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bootnext.platform.sla.dao.ISlaDailyActivityDao;
+import com.bootnext.platform.sla.model.template.Escalation;
+import com.bootnext.platform.sla.model.template.SlaDailyActivity;
+import com.bootnext.platform.sla.model.template.SlaHistory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Daily counters of the SLA activities read by the dashboards.
+ *
+ * The counters are incremented in the transaction of the activity, so they
+ * are committed or rolled back with it. The increments of a transaction are
+ * summed per counter and applied just before it commits, in key order, so
+ * that the counter rows are locked only during the commit and concurrent
+ * transactions lock them in the same order. An activity is counted on the
+ * local day of the time zone of its SLA history, "today" is thus read per time
+ * zone.
+ */
+@Component
+@Slf4j
+public class SlaActivityRollup {
+
+    private final Map<String, ZoneId> zones = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ISlaDailyActivityDao slaDailyActivityDao;
+
+    /**
+     * Counts an SLA history reaching its current state.
+     *
+     * @param history The SLA history, in its new state.
+     * @param time    The time of the change.
+     */
+    public void recordTransition(SlaHistory history, long time) {
+        Map<String, SlaDailyActivity> increments = increments();
+        add(increments, history, history.getSlaIdentifier(), valueOf(history.getLevel()),
+                SlaDailyActivity.METRIC.valueOf(history.getState().name()), time);
+        applyOutsideTransaction(increments);
+    }
+
+    /**
+     * Counts the breaches of SLA histories, on the day of their breach time.
+     *
+     * @param histories The breached SLA histories.
+     */
+    public void recordBreaches(Collection<SlaHistory> histories) {
+        Map<String, SlaDailyActivity> increments = increments();
+        for (SlaHistory history : histories) {
+            add(increments, history, history.getSlaIdentifier(), valueOf(history.getLevel()),
+                    SlaDailyActivity.METRIC.BREACHED, history.getBreachTime());
+        }
+        applyOutsideTransaction(increments);
+    }
+
+    /**
+     * Counts the sent escalations, on the day of their escalation time.
+     *
+     * @param escalations The escalations flagged as sent.
+     */
+    public void recordEscalations(Collection<Escalation> escalations) {
+        Map<String, SlaDailyActivity> increments = increments();
+        for (Escalation escalation : escalations) {
+            add(increments, escalation.getSlaHistory(), escalation.getSlaId(), escalation.getLevel(),
+                    SlaDailyActivity.METRIC.ESCALATED, escalation.getEscalationTime());
+        }
+        applyOutsideTransaction(increments);
+    }
+
+    /**
+     * Returns the totals of each metric over the last days, each day being the
+     * local day of the time zones of the histories.
+     *
+     * @param days The number of days, today included.
+     * @return The totals per number of days ago, 0 being today.
+     */
+    public Map<Integer, Map<SlaDailyActivity.METRIC, Long>> getDailyTotals(int days) {
+        // the local days of the time zones lie between the days of the extreme UTC offsets
+        Instant now = Instant.now();
+        LocalDate earliestToday = LocalDate.ofInstant(now, ZoneOffset.MIN);
+        LocalDate latestToday = LocalDate.ofInstant(now, ZoneOffset.MAX);
+        Map<Integer, Map<SlaDailyActivity.METRIC, Long>> totals = new HashMap<>();
+        for (Object[] row : slaDailyActivityDao.getSlaDailyActivityTotals(
+                earliestToday.minusDays(days - 1L).toString(), latestToday.toString())) {
+            LocalDate today = LocalDate.now(zoneOf((String) row[1]));
+            int daysAgo = (int) ChronoUnit.DAYS.between(LocalDate.parse((String) row[0]), today);
+            if (daysAgo < 0 || daysAgo >= days) {
+                continue;
+            }
+            totals.computeIfAbsent(daysAgo, k -> new EnumMap<>(SlaDailyActivity.METRIC.class))
+                    .merge((SlaDailyActivity.METRIC) row[2], ((Number) row[3]).longValue(), Long::sum);
+        }
+        return totals;
+    }
+
+    private void add(Map<String, SlaDailyActivity> increments, SlaHistory history, String slaIdentifier, int level,
+            SlaDailyActivity.METRIC metric, Long time) {
+        ZoneId zone = zoneOf(history.getTimeZone());
+        String day = LocalDate.ofInstant(Instant.ofEpochMilli(time == null ? System.currentTimeMillis() : time), zone)
+                .toString();
+        String application = valueOf(history.getApplication());
+        String executedOn = valueOf(history.getExecutedOn());
+        String sla = valueOf(slaIdentifier);
+        String key = String.join("\u0000", day, zone.getId(), application, executedOn, sla, String.valueOf(level),
+                metric.name());
+        SlaDailyActivity activity = increments.computeIfAbsent(key, k -> {
+            SlaDailyActivity increment = new SlaDailyActivity();
+            increment.setActivityDay(day);
+            increment.setTimeZone(zone.getId());
+            increment.setApplication(application);
+            increment.setExecutedOn(executedOn);
+            increment.setSlaIdentifier(sla);
+            increment.setLevel(level);
+            increment.setMetric(metric);
+            return increment;
+        });
+        activity.setActivityCount(activity.getActivityCount() + 1);
+    }
+
+    /**
+     * Returns the increments of the current transaction, registering them to be
+     * applied before it commits, or new increments outside of a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, SlaDailyActivity> increments() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new TreeMap<>();
+        }
+        Map<String, SlaDailyActivity> increments = (Map<String, SlaDailyActivity>) TransactionSynchronizationManager
+                .getResource(this);
+        if (increments == null) {
+            Map<String, SlaDailyActivity> transactionIncrements = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionIncrements);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(transactionIncrements);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SlaActivityRollup.this);
+                }
+            });
+            increments = transactionIncrements;
+        }
+        return increments;
+    }
+
+    private void applyOutsideTransaction(Map<String, SlaDailyActivity> increments) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(increments);
+        }
+    }
+
+    private void apply(Map<String, SlaDailyActivity> increments) {
+        for (SlaDailyActivity increment : increments.values()) {
+            slaDailyActivityDao.incrementSlaDailyActivity(increment);
+        }
+        increments.clear();
+    }
+
+    /**
+     * Returns the zone of a time zone ID, the system zone when it is missing or
+     * invalid.
+     */
+    private ZoneId zoneOf(String timeZone) {
+        if (timeZone == null || timeZone.isEmpty()) {
+            return ZoneId.systemDefault();
+        }
+        return zones.computeIfAbsent(timeZone, id -> {
+            try {
+                return ZoneId.of(id);
+            } catch (DateTimeException e) {
+                log.warn("invalid time zone {}, activities are counted in the system time zone", id);
+                return ZoneId.systemDefault();
+            }
+        });
+    }
+
+    private static String valueOf(String value) {
+        // the unique key does not match null columns
+        return value == null ? "" : value;
+    }
+
+    private static int valueOf(Integer level) {
+        return level == null ? 0 : level;
+    }
+}
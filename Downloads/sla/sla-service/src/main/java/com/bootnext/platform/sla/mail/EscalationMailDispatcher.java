@@ -0,0 +1,403 @@
+package com.bootnext.platform.sla.mail;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootnext.platform.notification.mail.rest.INotificationMailRest;
+import com.bootnext.platform.notification.mail.wrapper.NotificationMailWrapper;
+import com.bootnext.platform.sla.dao.IEscalationDao;
+import com.bootnext.platform.sla.dao.IEscalationMailDao;
+import com.bootnext.platform.sla.dao.IEscalationMailDeadLetterDao;
+import com.bootnext.platform.sla.dashboard.SlaActivityRollup;
+import com.bootnext.platform.sla.model.template.Escalation;
+import com.bootnext.platform.sla.model.template.EscalationMail;
+import com.bootnext.platform.sla.model.template.EscalationMailDeadLetter;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the escalation mails stored in the ESCALATION_MAIL_OUTBOX table.
+ *
+ * A single poller claims the due mails and hands them to a bounded pool of
+ * workers, never claiming more mails than the pool can queue. The mails
+ * claimed together for the same recipients and mail template are sent as one
+ * digest, identical contents being included once. A mail is removed from the
+ * outbox and its escalation is flagged as sent, and counted in the daily
+ * activities, only when the mail service accepted it; failed mails are
+ * retried with an exponential backoff and moved to ESCALATION_MAIL_DEAD_LETTER
+ * after the configured number of attempts. Mails left in the sending state by
+ * a stopped instance are released once their claim is older than the sending
+ * lease.
+ */
+@Component
+@Slf4j
+public class EscalationMailDispatcher {
+
+    private static final String FROM_EMAIL = "info@bootnext.biz";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String DIGEST_SEPARATOR = "<hr/>";
+
+    @Autowired
+    private IEscalationMailDao escalationMailDao;
+
+    @Autowired
+    private IEscalationMailDeadLetterDao escalationMailDeadLetterDao;
+
+    @Autowired
+    private IEscalationDao escalationDao;
+
+    @Autowired
+    private INotificationMailRest emailNotification;
+
+    @Autowired
+    private EscalationRecipientResolver escalationRecipientResolver;
+
+    @Autowired
+    private SlaActivityRollup slaActivityRollup;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sla.mail.dispatcher.workers:4}")
+    private int workers;
+
+    @Value("${sla.mail.dispatcher.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${sla.mail.dispatcher.poll-interval-ms:5000}")
+    private long pollIntervalMillis;
+
+    @Value("${sla.mail.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sla.mail.dispatcher.retry-backoff-ms:30000}")
+    private long retryBackoffMillis;
+
+    @Value("${sla.mail.dispatcher.max-backoff-ms:3600000}")
+    private long maxBackoffMillis;
+
+    @Value("${sla.mail.dispatcher.sending-lease-ms:600000}")
+    private long sendingLeaseMillis;
+
+    private ThreadPoolExecutor senders;
+    private ScheduledExecutorService poller;
+
+    /**
+     * Adds the mail configured on the given escalation to the outbox. Must be
+     * called inside the transaction that updates the escalation, so that the
+     * mail is stored if and only if the escalation is.
+     *
+     * @param escalation The escalation whose mail has to be sent.
+     * @return True if a mail was queued, false if the escalation has no mail
+     *         configured.
+     */
+    public boolean queue(Escalation escalation) {
+        String mailConfig = escalation.getTemplateConfiguration();
+        if (mailConfig == null) {
+            return false;
+        }
+        JSONObject configObject = new JSONObject(mailConfig);
+        if (!configObject.has(SlaUtils.EMAIL)) {
+            return false;
+        }
+        JSONObject emailContent = new JSONObject(configObject.optString(SlaUtils.EMAIL));
+        Set<String> recipients = new TreeSet<>();
+        JSONArray whomToEscalate = escalation.getWhomToEscalate();
+        for (int i = 0; whomToEscalate != null && i < whomToEscalate.length(); i++) {
+            recipients.add(whomToEscalate.getString(i));
+        }
+        long now = System.currentTimeMillis();
+        EscalationMail mail = new EscalationMail();
+        mail.setEscalationId(escalation.getId());
+        mail.setToEmailIds(new JSONArray(recipients).toString());
+        if (whomToEscalate == null) {
+            mail.setRecipientSpec(escalation.getRecipientSpec());
+        }
+        mail.setMailTemplateName(escalation.getMailTemplateName());
+        mail.setSubject(emailContent.optString("subject"));
+        mail.setContent(emailContent.optString("content"));
+        mail.setCoalesceKey(coalesceKey(mail));
+        mail.setState(EscalationMail.STATE.PENDING);
+        mail.setNextAttemptTime(now);
+        mail.setCreatedTime(now);
+        mail.setModifiedTime(now);
+        escalationMailDao.create(mail);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sla-mail-sender-" + senderCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sla-mail-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("escalation mail dispatcher started with {} workers", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdown();
+        }
+        if (senders != null) {
+            senders.shutdown();
+            try {
+                if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+                    senders.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                senders.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Claims the due mails that fit in the sender queue and submits them, one
+     * task per recipients and mail template.
+     */
+    void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            Integer released = transactionTemplate
+                    .execute(status -> escalationMailDao.releaseStaleEscalationMails(now - sendingLeaseMillis));
+            if (released != null && released > 0) {
+                log.warn("{} escalation mails released after the sending lease expired", released);
+            }
+            int capacity = senders.getQueue().remainingCapacity();
+            if (capacity <= 0) {
+                return;
+            }
+            String claimToken = UUID.randomUUID().toString();
+            List<EscalationMail> claimed = transactionTemplate.execute(status -> escalationMailDao
+                    .claimEscalationMails(escalationMailDao.getDueEscalationMailIds(now, capacity), claimToken, now));
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+            Map<String, List<EscalationMail>> groups = new LinkedHashMap<>();
+            for (EscalationMail mail : claimed) {
+                groups.computeIfAbsent(mail.getCoalesceKey(), k -> new ArrayList<>()).add(mail);
+            }
+            log.info("{} escalation mails claimed, {} to send", claimed.size(), groups.size());
+            for (List<EscalationMail> group : groups.values()) {
+                try {
+                    senders.execute(() -> deliver(group));
+                } catch (RejectedExecutionException e) {
+                    log.warn("sender queue full, {} escalation mails postponed", group.size());
+                    fail(ids(group), "sender queue full", false);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDispatcher @Method :poll() {}", e.getMessage(), e);
+        }
+    }
+
+    private void deliver(List<EscalationMail> group) {
+        EscalationMail mail = group.get(0);
+        List<Integer> mailIds = ids(group);
+        try {
+            String result = emailNotification.sendEmail(toMailWrapper(group, resolveRecipients(mail)), true);
+            log.info("escalation mail sent to {} for {} escalations, result {}", mail.getToEmailIds(), group.size(),
+                    result);
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDispatcher @Method :deliver() {}", e.getMessage(), e);
+            fail(mailIds, e.getMessage(), true);
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> acknowledge(group));
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDispatcher @Method :deliver() {}", e.getMessage(), e);
+        }
+    }
+
+    private void acknowledge(List<EscalationMail> group) {
+        Set<Integer> escalationIds = new HashSet<>();
+        for (EscalationMail mail : group) {
+            escalationIds.add(mail.getEscalationId());
+        }
+        List<Escalation> escalations = escalationDao.getEscalationByIds(escalationIds);
+        for (Escalation escalation : escalations) {
+            escalation.setStatus(true);
+        }
+        slaActivityRollup.recordEscalations(escalations);
+        escalationMailDao.deleteEscalationMailsByIds(ids(group));
+    }
+
+    /**
+     * Puts failed mails back in the outbox with a backoff, or moves them to the
+     * dead letter table once they used all their attempts.
+     *
+     * @param mailIds      The ids of the mails.
+     * @param error        The reason of the failure.
+     * @param countAttempt Whether the failure counts as a delivery attempt.
+     */
+    private void fail(List<Integer> mailIds, String error, boolean countAttempt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long now = System.currentTimeMillis();
+                List<Integer> deadMailIds = new ArrayList<>();
+                for (EscalationMail mail : escalationMailDao.getEscalationMailsByIds(mailIds)) {
+                    mail.setLastError(truncate(error));
+                    mail.setModifiedTime(now);
+                    if (countAttempt) {
+                        mail.setAttempts(mail.getAttempts() + 1);
+                    }
+                    if (mail.getAttempts() >= maxAttempts) {
+                        escalationMailDeadLetterDao.create(toDeadLetter(mail, now));
+                        deadMailIds.add(mail.getId());
+                        log.error("escalation mail {} of escalation {} moved to dead letter after {} attempts",
+                                mail.getId(), mail.getEscalationId(), mail.getAttempts());
+                    } else {
+                        mail.setState(EscalationMail.STATE.PENDING);
+                        mail.setClaimToken(null);
+                        mail.setNextAttemptTime(now + backoff(mail.getAttempts()));
+                    }
+                }
+                escalationMailDao.deleteEscalationMailsByIds(deadMailIds);
+            });
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationMailDispatcher @Method :fail() {}", e.getMessage(), e);
+        }
+    }
+
+    private long backoff(int attempts) {
+        if (attempts <= 0) {
+            return 0;
+        }
+        long delay = retryBackoffMillis << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMillis);
+    }
+
+    /**
+     * Returns the recipients of the mail, resolving the escalation targets when
+     * their resolution was deferred to send time. A failure is handled as a
+     * failed delivery and retried.
+     */
+    private Set<String> resolveRecipients(EscalationMail mail) {
+        Set<String> recipients = new HashSet<>();
+        JSONArray toEmailIds = new JSONArray(mail.getToEmailIds());
+        for (int i = 0; i < toEmailIds.length(); i++) {
+            recipients.add(toEmailIds.getString(i));
+        }
+        if (mail.getRecipientSpec() != null) {
+            recipients.addAll(escalationRecipientResolver.resolve(new JSONObject(mail.getRecipientSpec())));
+        }
+        return recipients;
+    }
+
+    /**
+     * Builds the mail of a group, a digest of the distinct subjects and contents
+     * of its mails when they differ.
+     */
+    private static NotificationMailWrapper toMailWrapper(List<EscalationMail> group, Set<String> recipients) {
+        EscalationMail mail = group.get(0);
+        Set<String> subjects = new LinkedHashSet<>();
+        Set<String> contents = new LinkedHashSet<>();
+        for (EscalationMail groupMail : group) {
+            subjects.add(String.valueOf(groupMail.getSubject()));
+            contents.add(String.valueOf(groupMail.getContent()));
+        }
+        Set<String> ccUser = new HashSet<>();
+        NotificationMailWrapper emailNotificationWrapper = new NotificationMailWrapper();
+        emailNotificationWrapper.setCcEmailIds(ccUser);
+        emailNotificationWrapper.setBccEmailIds(ccUser);
+        emailNotificationWrapper.setEmailContent(contents.size() == 1 ? mail.getContent()
+                : String.join(DIGEST_SEPARATOR, contents));
+        emailNotificationWrapper.setSubject(subjects.size() == 1 ? mail.getSubject()
+                : subjects.size() + " SLA escalations: " + String.join(", ", subjects));
+        emailNotificationWrapper.setFromEmail(FROM_EMAIL);
+        emailNotificationWrapper.setTemplateName(mail.getMailTemplateName());
+        emailNotificationWrapper.setToEmailIds(recipients);
+        return emailNotificationWrapper;
+    }
+
+    private static EscalationMailDeadLetter toDeadLetter(EscalationMail mail, long now) {
+        EscalationMailDeadLetter deadLetter = new EscalationMailDeadLetter();
+        deadLetter.setEscalationId(mail.getEscalationId());
+        deadLetter.setToEmailIds(mail.getToEmailIds());
+        deadLetter.setMailTemplateName(mail.getMailTemplateName());
+        deadLetter.setSubject(mail.getSubject());
+        deadLetter.setContent(mail.getContent());
+        deadLetter.setAttempts(mail.getAttempts());
+        deadLetter.setLastError(mail.getLastError());
+        deadLetter.setQueuedTime(mail.getCreatedTime());
+        deadLetter.setCreatedTime(now);
+        return deadLetter;
+    }
+
+    /**
+     * Returns the key grouping the mails sent as one digest: their recipients,
+     * or the recipient specification resolved at send time, and mail template.
+     */
+    private static String coalesceKey(EscalationMail mail) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] { mail.getToEmailIds(), mail.getRecipientSpec(),
+                    mail.getMailTemplateName() }) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Integer> ids(Collection<EscalationMail> mails) {
+        List<Integer> ids = new ArrayList<>(mails.size());
+        for (EscalationMail mail : mails) {
+            ids.add(mail.getId());
+        }
+        return ids;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
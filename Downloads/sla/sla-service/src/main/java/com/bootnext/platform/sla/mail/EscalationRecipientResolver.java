@@ -0,0 +1,344 @@
+package com.bootnext.platform.sla.mail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.utils.SlaUtils;
+import com.bootnext.platform.umapi.product.um.user.model.User;
+import com.bootnext.platform.umapi.product.um.user.rest.UserRest;
+import com.bootnext.platform.umapi.product.um.usergroup.model.UserGroup;
+import com.google.gson.Gson;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the escalation targets of an SLA level (users, groups, vendors,
+ * "$Owner.manager" expressions) into email addresses.
+ *
+ * The users, user groups and filtered user lists returned by the user service
+ * are cached for a configurable time. Concurrent lookups of the same key share
+ * a single remote call, and filtered user lists are read page by page instead
+ * of being cut at the first page.
+ */
+@Component
+@Slf4j
+public class EscalationRecipientResolver {
+
+    private static final String TARGETS = "targets";
+    private static final String ESCALATE_WHOM = "escalateWhom";
+    private static final String USER_NAME = "userName";
+
+    @Autowired
+    private UserRest userRest;
+
+    @Value("${sla.recipient.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${sla.recipient.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${sla.recipient.page-size:100}")
+    private int pageSize;
+
+    @Value("${sla.recipient.max-users:2000}")
+    private int maxUsers;
+
+    @Value("${sla.recipient.resolve-at-send:false}")
+    private boolean resolveAtSend;
+
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the recipients are resolved when the escalation mail is sent rather
+     * than when the SLA starts.
+     *
+     * @return true if the resolution is deferred to send time.
+     */
+    public boolean isResolvedAtSend() {
+        return resolveAtSend;
+    }
+
+    /**
+     * Describes the escalation targets so that they can be resolved later with
+     * {@link #resolve(JSONObject)}.
+     *
+     * @param escalations    The escalation targets of the level.
+     * @param whomToEscalate The type of recipients of the level.
+     * @param userName       The user owning the entity.
+     * @param geo            The geographic filter of the level.
+     * @return The recipient specification.
+     */
+    public JSONObject toSpec(List<String> escalations, String whomToEscalate, String userName, String geo) {
+        JSONObject spec = new JSONObject();
+        spec.put(TARGETS, new JSONArray(escalations));
+        spec.put(ESCALATE_WHOM, whomToEscalate);
+        spec.put(USER_NAME, userName);
+        spec.put(SlaUtils.GEO, geo);
+        return spec;
+    }
+
+    /**
+     * Resolves a recipient specification built by
+     * {@link #toSpec(List, String, String, String)}.
+     *
+     * @param spec The recipient specification.
+     * @return The email addresses of the recipients.
+     * @throws BusinessException If the user service cannot be reached.
+     */
+    public List<String> resolve(JSONObject spec) {
+        JSONArray targets = spec.optJSONArray(TARGETS);
+        List<String> escalations = new ArrayList<>();
+        for (int i = 0; targets != null && i < targets.length(); i++) {
+            escalations.add(targets.getString(i));
+        }
+        return resolve(escalations, spec.optString(ESCALATE_WHOM, null), spec.optString(USER_NAME, null),
+                spec.optString(SlaUtils.GEO, null));
+    }
+
+    /**
+     * Retrieves a list of email addresses for escalation based on the provided
+     * parameters.
+     *
+     * @param escalations    The escalation targets, either email addresses,
+     *                       "type : name" pairs or expressions starting with "$".
+     * @param whomToEscalate The type of recipients of the level.
+     * @param userName       The username for which escalation is triggered.
+     * @param geo            The JSON array representing the geographic locations.
+     * @return A list of email addresses for escalation.
+     * @throws BusinessException If the user service cannot be reached.
+     */
+    public List<String> resolve(List<String> escalations, String whomToEscalate, String userName, String geo) {
+        List<String> mailList = new ArrayList<>();
+        try {
+            User currentUserWrapper = new User();
+            String currentUser = null;
+            Map<String, Object> filterMap = new HashMap<>();
+
+            for (String escalate : escalations) {
+                if (escalate.startsWith("$")) {
+                    if (userName != null) {
+                        currentUserWrapper = getUser(userName);
+                        currentUser = userName;
+                    }
+                    processEscalatePattern(escalate, currentUserWrapper, currentUser, mailList, filterMap, geo);
+                } else {
+                    String[] parts = escalate.split(" : ");
+                    String type = null;
+                    String reciever = null;
+                    if (parts.length == 2) {
+                        type = parts[0].trim();
+                        reciever = parts[1].trim();
+                    }
+                    if (type == null) {
+                        mailList.add(escalate);
+                    } else if (type.equalsIgnoreCase("user")) {
+                        mailList.add(reciever);
+                    } else if (type.equalsIgnoreCase("vendor") || type.equalsIgnoreCase("userGroup")) {
+                        filterMap.put(SlaUtils.GEO, geo);
+
+                        if (type.equalsIgnoreCase("vendor")) {
+                            String valueName = currentUserWrapper.getBusinessUnit().getName();
+                            filterMap.put("businessUnitName", valueName);
+                        } else if (type.equalsIgnoreCase("userGroup")) {
+                            filterMap.put("groupName", getUserGroups(currentUser));
+                        }
+                        mailList.addAll(getEmailsByFilter(filterMap));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error Inside @class: EscalationRecipientResolver @Method :resolve() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+        return mailList;
+    }
+
+    /**
+     * Processes the escalate pattern when the escalate string starts with "$".
+     *
+     * @param escalate           The escalate string starting with "$".
+     * @param currentUserWrapper The User object representing the current user.
+     * @param currentUser        The username of the current user.
+     * @param mailList           The list to store email addresses for escalation.
+     * @param filterMap          The filter map to be used for vendor or user group
+     *                           filtering.
+     * @param geo                The JSON array representing the geographic
+     *                           locations.
+     */
+    private void processEscalatePattern(String escalate, User currentUserWrapper, String currentUser,
+            List<String> mailList, Map<String, Object> filterMap, String geo) {
+        String[] splitPattern = escalate.split("\\.");
+        for (int i = 0; i < splitPattern.length; i++) {
+            String value = splitPattern[i];
+            if (value.equalsIgnoreCase("$Owner")) {
+                User ownerUser = getUser(currentUser);
+                currentUserWrapper = ownerUser;
+                String eMail = ownerUser.getEmail();
+                if (i == splitPattern.length - 1) {
+                    mailList.add(eMail);
+                }
+            } else if (value.equalsIgnoreCase("manager")) {
+                currentUserWrapper = getUser(currentUserWrapper.getReportingManager());
+                String eMail = currentUserWrapper.getEmail();
+                if (i == splitPattern.length - 1) {
+                    mailList.add(eMail);
+                }
+            } else if (value.equalsIgnoreCase(SlaUtils.VENDOR) || value.equalsIgnoreCase(SlaUtils.USER_SPACE)
+                    || value.equalsIgnoreCase(SlaUtils.BUSINESS_UNIT) || value.equalsIgnoreCase(SlaUtils.USER_GROUP)) {
+                processVendorOrUserGroup(currentUserWrapper, value, filterMap, geo);
+            }
+        }
+    }
+
+    /**
+     * Processes and filters vendors or user groups for escalation based on the
+     * provided value.
+     *
+     * @param currentUserWrapper The User object representing the current user.
+     * @param value              The value indicating the type of escalation to be
+     *                           processed.
+     * @param filterMap          The filter map used for vendor or user group
+     *                           filtering.
+     * @param geo                The JSON array representing the geographic
+     *                           locations.
+     */
+    private void processVendorOrUserGroup(User currentUserWrapper, String value, Map<String, Object> filterMap,
+            String geo) {
+
+        filterMap.put(SlaUtils.GEO, geo);
+
+        if (value.equalsIgnoreCase(SlaUtils.VENDOR) || value.equalsIgnoreCase(SlaUtils.BUSINESS_UNIT)) {
+            String valueName = currentUserWrapper.getBusinessUnit().getName();
+            filterMap.put("businessUnitName", valueName);
+        } else if (value.equalsIgnoreCase(SlaUtils.USER_SPACE)) {
+            String valueName = currentUserWrapper.getUserSpace().getName();
+            filterMap.put(SlaUtils.USER_SPACE, valueName);
+        } else if (value.equalsIgnoreCase(SlaUtils.USER_GROUP)) {
+            filterMap.put("groupName", getUserGroups(currentUserWrapper.getUserName()));
+        }
+    }
+
+    private User getUser(String userName) {
+        return cached("user|" + userName, () -> userRest.byUserName(userName));
+    }
+
+    private List<UserGroup> getUserGroups(String userName) {
+        return cached("groups|" + userName, () -> userRest.getUserGroupListByUserName(userName));
+    }
+
+    private List<String> getEmailsByFilter(Map<String, Object> filterMap) {
+        String filter = new Gson().toJson(filterMap);
+        return cached("filter|" + filter, () -> loadEmailsByFilter(filter));
+    }
+
+    /**
+     * Reads the users matching the filter page by page, up to the configured
+     * maximum number of users.
+     */
+    private List<String> loadEmailsByFilter(String filter) {
+        Map<String, Object> umMap = Collections.singletonMap("filterMap", filter);
+        List<String> emails = new ArrayList<>();
+        for (int offset = 0; offset < maxUsers; offset += pageSize) {
+            Map<String, Object> userMap = userRest.usersByFilter(offset, pageSize, umMap);
+            if (extractEmailsFromUserMap(userMap, emails) < pageSize) {
+                return Collections.unmodifiableList(emails);
+            }
+        }
+        log.warn("more than {} users match the escalation filter {}, the next ones are not notified", maxUsers,
+                filter);
+        return Collections.unmodifiableList(emails);
+    }
+
+    /**
+     * Extracts email addresses from a user map and adds them to the provided mail
+     * list.
+     *
+     * @param userMap  The map containing user data with email addresses.
+     * @param mailList The list to which the extracted email addresses will be
+     *                 added.
+     * @return The number of users found in the map.
+     */
+    @SuppressWarnings("unchecked")
+    private static int extractEmailsFromUserMap(Map<String, Object> userMap, List<String> mailList) {
+        int users = 0;
+        for (Map.Entry<String, Object> entry : userMap.entrySet()) {
+            Object valueObject = entry.getValue();
+            if (valueObject instanceof Map) {
+                Map<String, Object> userData = (Map<String, Object>) valueObject;
+                mailList.add((String) userData.get("email"));
+                users++;
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Returns the cached value of the key, loading it if absent or expired. A
+     * single caller loads a missing key, the concurrent callers wait for its
+     * result; failures are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        CacheEntry entry = cache.get(key);
+        if (entry == null || entry.isExpired(now)) {
+            evictIfFull(now);
+            CacheEntry created = new CacheEntry(now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+            entry = cache.compute(key, (k, current) -> current != null && !current.isExpired(now) ? current : created);
+            if (entry == created) {
+                try {
+                    created.value.complete(loader.get());
+                } catch (RuntimeException e) {
+                    cache.remove(key, created);
+                    created.value.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return (T) entry.value.join();
+        } catch (CompletionException e) {
+            throw new BusinessException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
+
+    private void evictIfFull(long now) {
+        if (cache.size() < maxEntries) {
+            return;
+        }
+        cache.values().removeIf(entry -> entry.isExpired(now));
+        if (cache.size() >= maxEntries) {
+            log.info("recipient cache full, clearing {} entries", cache.size());
+            cache.clear();
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private CacheEntry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bootnext.platform.sla.mail;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.bootnext.platform.notification.mail.rest.INotificationMailRest;
+import com.bootnext.platform.notification.mail.wrapper.NotificationMailWrapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local replacement of the notification mail client which only logs the mails,
+ * enabled with "sla.mail.stub.enabled=true" to run the escalation mail pipeline
+ * without the notification service.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "sla.mail.stub.enabled", havingValue = "true")
+@Slf4j
+public class LocalNotificationMailRest implements INotificationMailRest {
+
+    @Override
+    public String sendEmail(NotificationMailWrapper emailNotificationWrapper, boolean instant) {
+        log.info("stub mail to {} with subject {}", emailNotificationWrapper.getToEmailIds(),
+                emailNotificationWrapper.getSubject());
+        return "success";
+    }
+}
@@ -0,0 +1,227 @@
+package com.bootnext.platform.sla.registry;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.bootnext.platform.sla.model.template.SlaLevelTemplate;
+import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.rule.SlaRule;
+import com.bootnext.platform.sla.rule.SlaTemplateRules;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.Getter;
+
+/**
+ * An SLA template held by the {@link SlaTemplateRegistry}, with its JSON
+ * columns parsed once into typed values.
+ *
+ * The wrapped entity is detached and shared between threads, it must only be
+ * read.
+ */
+@Getter
+public final class RegisteredSlaTemplate {
+
+    /** Entity fields read when an SLA history is created or updated. */
+    private static final List<String> HISTORY_FIELDS = List.of("creator", "lastModifier", "user");
+
+    private static final Pattern MAIL_PLACEHOLDER = Pattern.compile("\\$[a-zA-Z0-9.]+");
+
+    private final SlaTemplate template;
+    private final SlaTemplateRules rules;
+    private final SlaWorkingHours workingHours;
+    private final ZoneId zoneId;
+    private final long breachMinutes;
+    private final List<SlaLevelDefinition> levels;
+    private final List<SlaLevelTemplate> levelTemplates;
+    private final Set<String> entityFields;
+    private final List<String> ruleFields;
+    private final boolean relativeToNow;
+    private final Integer snapshotId;
+
+    /**
+     * Parses the given template.
+     *
+     * @param template       The SLA template loaded from the database.
+     * @param rules          The compiled conditions of the template.
+     * @param levelTemplates The escalation levels of the template, detached from
+     *                       the persistence context.
+     * @param snapshotId     The ID of the stored snapshot of the template
+     *                       content, referenced by the SLA histories it starts.
+     */
+    public RegisteredSlaTemplate(SlaTemplate template, SlaTemplateRules rules, List<SlaLevelTemplate> levelTemplates,
+            Integer snapshotId) {
+        this.template = template;
+        this.rules = rules;
+        this.snapshotId = snapshotId;
+        this.workingHours = SlaWorkingHours.of(template.getOperationalHours(), template.getInTime(),
+                template.getOutTime(), template.getCalendarId());
+        this.zoneId = ZoneId.of(template.getTimeZoneData());
+        this.breachMinutes = Long.parseLong(template.getBreachDate());
+        this.levels = parseLevels(template.getLevelTemplate());
+        List<SlaLevelTemplate> sortedLevelTemplates = new ArrayList<>(levelTemplates);
+        sortedLevelTemplates.sort(Comparator.comparingInt(SlaLevelTemplate::getLevel));
+        this.levelTemplates = Collections.unmodifiableList(sortedLevelTemplates);
+        this.entityFields = collectEntityFields(rules, levelTemplates);
+        Set<String> rulePaths = new LinkedHashSet<>();
+        boolean timeDependent = false;
+        for (SlaRule rule : getRuleList(rules)) {
+            rule.collectFieldPaths(rulePaths);
+            timeDependent |= rule.isRelativeToNow();
+        }
+        List<String> normalizedPaths = new ArrayList<>(rulePaths.size());
+        for (String rulePath : rulePaths) {
+            normalizedPaths.add(normalizePath(rulePath));
+        }
+        this.ruleFields = Collections.unmodifiableList(normalizedPaths);
+        this.relativeToNow = timeDependent;
+    }
+
+    /**
+     * Tells whether a change of the given entity fields may change the result of
+     * the conditions of the template. Conditions comparing a field with the
+     * current time may change at any time, so they are always affected.
+     *
+     * @param changedFields The paths of the changed fields, using "." as path
+     *                      separator, or null if they are not known.
+     * @return True if the conditions must be evaluated, false if their result
+     *         cannot have changed since the previous event of the entity.
+     */
+    public boolean isAffectedBy(Collection<String> changedFields) {
+        if (changedFields == null || relativeToNow) {
+            return true;
+        }
+        for (String changedField : changedFields) {
+            String changedPath = normalizePath(changedField);
+            for (String ruleField : ruleFields) {
+                if (isSameOrNested(ruleField, changedPath) || isSameOrNested(changedPath, ruleField)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameOrNested(String path, String parentPath) {
+        return path.startsWith(parentPath)
+                && (path.length() == parentPath.length() || path.charAt(parentPath.length()) == '.');
+    }
+
+    private static String normalizePath(String path) {
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String name : path.split("\\.")) {
+            if (!name.isEmpty()) {
+                if (normalized.length() > 0) {
+                    normalized.append('.');
+                }
+                normalized.append(name);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static List<SlaRule> getRuleList(SlaTemplateRules rules) {
+        return List.of(rules.getStartRule(), rules.getStopRule(), rules.getOnHoldRule(), rules.getResumeRule(),
+                rules.getResetRule(), rules.getCancelRule());
+    }
+
+    /**
+     * Collects the paths of the entity fields read by the conditions, the SLA
+     * history and the escalations of the template: the level owner and the
+     * "$entity.field" placeholders of the mail templates.
+     *
+     * @return The field paths, or null if they cannot be determined, in which
+     *         case the whole entity must be read.
+     */
+    private static Set<String> collectEntityFields(SlaTemplateRules rules, List<SlaLevelTemplate> levelTemplates) {
+        Set<String> fieldPaths = new LinkedHashSet<>(HISTORY_FIELDS);
+        for (SlaRule rule : getRuleList(rules)) {
+            rule.collectFieldPaths(fieldPaths);
+        }
+        try {
+            for (SlaLevelTemplate levelTemplate : levelTemplates) {
+                String owner = levelTemplate.getEntityForOwner();
+                if (owner != null && owner.indexOf('.') >= 0) {
+                    // read as a plain key, not as a path
+                    return null;
+                }
+                if (owner != null) {
+                    fieldPaths.add(owner);
+                }
+                JSONObject mailContent = new JSONObject(levelTemplate.getTemplateConfiguration());
+                for (String key : mailContent.keySet()) {
+                    JSONObject object = mailContent.getJSONObject(key);
+                    collectPlaceholders(object.optString(SlaUtils.SUBJECT), fieldPaths);
+                    collectPlaceholders(object.optString(SlaUtils.CONTENT), fieldPaths);
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return Collections.unmodifiableSet(fieldPaths);
+    }
+
+    private static void collectPlaceholders(String input, Set<String> fieldPaths) {
+        Matcher matcher = MAIL_PLACEHOLDER.matcher(input);
+        while (matcher.find()) {
+            String[] parts = matcher.group().split("\\.");
+            if (parts.length > 1) {
+                fieldPaths.add(parts[1]);
+            }
+        }
+    }
+
+    private static List<SlaLevelDefinition> parseLevels(String levelTemplate) {
+        if (levelTemplate == null || levelTemplate.isBlank()) {
+            return Collections.emptyList();
+        }
+        JSONArray levelJson = new JSONArray(levelTemplate);
+        List<SlaLevelDefinition> levelDefinitions = new ArrayList<>(levelJson.length());
+        for (int i = 0; i < levelJson.length(); i++) {
+            JSONObject levelObj = levelJson.getJSONObject(i);
+            levelDefinitions.add(new SlaLevelDefinition(levelObj.optLong(SlaUtils.BREACH_DATE),
+                    levelObj.optString(SlaUtils.ESCALATE_WHEN)));
+        }
+        return Collections.unmodifiableList(levelDefinitions);
+    }
+
+    /**
+     * Returns the definition of the first escalation level.
+     *
+     * @return The first level of the template.
+     * @throws IllegalStateException If the template has no level configured.
+     */
+    public SlaLevelDefinition getFirstLevel() {
+        if (levels.isEmpty()) {
+            throw new IllegalStateException("No escalation level configured for SLA template " + template.getId());
+        }
+        return levels.get(0);
+    }
+
+    /**
+     * Returns the escalation level template of the given level.
+     *
+     * @param level The level.
+     * @return The level template.
+     * @throws IllegalStateException If the template has no such level.
+     */
+    public SlaLevelTemplate getLevelTemplate(int level) {
+        for (SlaLevelTemplate levelTemplate : levelTemplates) {
+            if (levelTemplate.getLevel() == level) {
+                return levelTemplate;
+            }
+        }
+        throw new IllegalStateException("No escalation level " + level + " configured for SLA template "
+                + template.getId());
+    }
+}
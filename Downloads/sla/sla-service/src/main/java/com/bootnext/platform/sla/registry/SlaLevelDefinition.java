@@ -0,0 +1,18 @@
+package com.bootnext.platform.sla.registry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of the "LEVEL_TEMPLATE" JSON of an SLA template.
+ */
+@Getter
+@AllArgsConstructor
+public final class SlaLevelDefinition {
+
+    /** Escalation delay of the level in minutes. */
+    private final long breachDate;
+
+    /** When the level is escalated, e.g. "AFTER SLA IS BREACHED". */
+    private final String escalateWhen;
+}
@@ -0,0 +1,200 @@
+package com.bootnext.platform.sla.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaLevelTemplateDao;
+import com.bootnext.platform.sla.dao.ISlaTemplateDao;
+import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.rule.SlaRuleCompiler;
+import com.bootnext.platform.sla.trigger.SlaEntityFields;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory registry of the SLA templates, indexed by application and entity
+ * name (the template "executedOn").
+ *
+ * Templates are loaded once per (application, executedOn) with their
+ * escalation levels, parsed into {@link RegisteredSlaTemplate} and served from
+ * memory to every triggered entity. Entries are dropped when a template is
+ * created, updated or imported on this instance, and expire after a
+ * configurable time so that changes made through another instance are picked
+ * up as well. The snapshot of each template content is stored when it is
+ * loaded, so that starting an SLA history only references it.
+ *
+ * Each entry also holds the union of the entity fields read by its templates,
+ * so that only those fields are extracted from the posted entities.
+ */
+@Component
+@Slf4j
+public class SlaTemplateRegistry {
+
+    @Autowired
+    private ISlaTemplateDao slaTemplateDao;
+
+    @Autowired
+    private ISlaLevelTemplateDao slaLevelTemplateDao;
+
+    @Autowired
+    private SlaRuleCompiler slaRuleCompiler;
+
+    @Autowired
+    private SlaTemplateSnapshotRegistry slaTemplateSnapshotRegistry;
+
+    @Value("${sla.template.registry.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<String, RegistryEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the templates configured for the given application and entity.
+     *
+     * @param application The name of the application.
+     * @param executedOn  The name of the entity.
+     * @return The registered templates, empty if none is configured.
+     * @throws BusinessException If the templates cannot be loaded.
+     */
+    public List<RegisteredSlaTemplate> getTemplates(String application, String executedOn) {
+        return getEntry(application, executedOn).templates;
+    }
+
+    /**
+     * Returns the entity fields read by the templates configured for the given
+     * application and entity.
+     *
+     * @param application The name of the application.
+     * @param executedOn  The name of the entity.
+     * @return The fields to extract from the posted entity.
+     * @throws BusinessException If the templates cannot be loaded.
+     */
+    public SlaEntityFields getEntityFields(String application, String executedOn) {
+        return getEntry(application, executedOn).entityFields;
+    }
+
+    private RegistryEntry getEntry(String application, String executedOn) {
+        String key = key(application, executedOn);
+        long now = System.currentTimeMillis();
+        RegistryEntry entry = entries.get(key);
+        if (entry == null || entry.isExpired(now)) {
+            entry = entries.compute(key, (k, current) -> current != null && !current.isExpired(now) ? current
+                    : new RegistryEntry(load(application, executedOn), now + TimeUnit.SECONDS.toMillis(ttlSeconds)));
+        }
+        return entry;
+    }
+
+    /**
+     * Drops every registered template. When called inside a transaction the
+     * registry is cleared once the transaction is committed, so that a concurrent
+     * trigger cannot reload the previous version of the template in between.
+     */
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        log.info("clearing sla template registry, {} entries", entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Loads every template at startup so that the first entity events do not pay
+     * for the database round trips.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            Map<String, List<RegisteredSlaTemplate>> templatesByKey = new HashMap<>();
+            for (SlaTemplate slaTemplate : slaTemplateDao.findAll()) {
+                templatesByKey.computeIfAbsent(key(slaTemplate.getApplication(), slaTemplate.getExecutedOn()),
+                        k -> new ArrayList<>()).add(register(slaTemplate));
+            }
+            long expiry = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            templatesByKey.forEach((key, templates) -> entries.putIfAbsent(key,
+                    new RegistryEntry(Collections.unmodifiableList(templates), expiry)));
+            log.info("sla template registry warmed up with {} entries", templatesByKey.size());
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTemplateRegistry @Method :warmUp() {}", e.getMessage(), e);
+        }
+    }
+
+    private List<RegisteredSlaTemplate> load(String application, String executedOn) {
+        try {
+            List<SlaTemplate> slaTemplates = slaTemplateDao.getSlaTemplateByApplicationAndExecutedOn(application,
+                    executedOn);
+            List<RegisteredSlaTemplate> templates = new ArrayList<>(slaTemplates.size());
+            for (SlaTemplate slaTemplate : slaTemplates) {
+                templates.add(register(slaTemplate));
+            }
+            log.info("loaded {} sla templates for application {} and entity {}", templates.size(), application,
+                    executedOn);
+            return Collections.unmodifiableList(templates);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTemplateRegistry @Method :load() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    private RegisteredSlaTemplate register(SlaTemplate slaTemplate) {
+        return new RegisteredSlaTemplate(slaTemplate, slaRuleCompiler.getTemplateRules(slaTemplate),
+                slaLevelTemplateDao.getSlaLevelTemplateById(slaTemplate.getId()),
+                slaTemplateSnapshotRegistry.getSnapshot(slaTemplate).getId());
+    }
+
+    private static String key(String application, String executedOn) {
+        return application + '\u0000' + executedOn;
+    }
+
+    private static final class RegistryEntry {
+
+        private final List<RegisteredSlaTemplate> templates;
+        private final SlaEntityFields entityFields;
+        private final long expiresAt;
+
+        private RegistryEntry(List<RegisteredSlaTemplate> templates, long expiresAt) {
+            this.templates = templates;
+            this.entityFields = mergeEntityFields(templates);
+            this.expiresAt = expiresAt;
+        }
+
+        private static SlaEntityFields mergeEntityFields(List<RegisteredSlaTemplate> templates) {
+            Set<String> fieldPaths = new HashSet<>();
+            for (RegisteredSlaTemplate template : templates) {
+                if (template.getEntityFields() == null) {
+                    return SlaEntityFields.ALL;
+                }
+                fieldPaths.addAll(template.getEntityFields());
+            }
+            return SlaEntityFields.of(fieldPaths);
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.bootnext.platform.sla.registry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.ISlaTemplateSnapshotDao;
+import com.bootnext.platform.sla.model.template.SlaHistory;
+import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.model.template.SlaTemplateSnapshot;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the template snapshots referenced by the SLA histories.
+ *
+ * Snapshots never change once stored, so they are cached in memory for the
+ * life of the service, by content hash and by ID. The snapshot of a template is
+ * looked up when the {@link SlaTemplateRegistry} loads the template, outside of
+ * the trigger transactions. A missing snapshot is stored in its own
+ * transaction, so that it is visible to the other instances as soon as
+ * possible and that an instance storing the same snapshot concurrently only
+ * makes this one read it back.
+ */
+@Component
+@Slf4j
+public class SlaTemplateSnapshotRegistry {
+
+    @Autowired
+    private ISlaTemplateSnapshotDao slaTemplateSnapshotDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    private final Map<String, SlaTemplateSnapshot> snapshotsByHash = new ConcurrentHashMap<>();
+    private final Map<Integer, SlaTemplateSnapshot> snapshotsById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the snapshot of the current content of a template, storing it if
+     * no history referenced this content yet. Hashes the whole content, so it is
+     * called once per load of the template rather than per SLA history.
+     *
+     * @param template The SLA template.
+     * @return The stored snapshot.
+     * @throws BusinessException If the snapshot cannot be stored.
+     */
+    public SlaTemplateSnapshot getSnapshot(SlaTemplate template) {
+        SlaTemplateSnapshot snapshot = toSnapshot(template);
+        SlaTemplateSnapshot cached = snapshotsByHash.get(snapshot.getContentHash());
+        if (cached != null) {
+            return cached;
+        }
+        SlaTemplateSnapshot stored = slaTemplateSnapshotDao
+                .getSlaTemplateSnapshotByContentHash(snapshot.getContentHash());
+        if (stored == null) {
+            try {
+                stored = newTransaction.execute(status -> slaTemplateSnapshotDao.create(snapshot));
+                log.info("template snapshot {} stored for sla {}", snapshot.getContentHash(), template.getSlaId());
+            } catch (Exception e) {
+                // stored in between by another instance
+                stored = newTransaction.execute(status -> slaTemplateSnapshotDao
+                        .getSlaTemplateSnapshotByContentHash(snapshot.getContentHash()));
+                if (stored == null) {
+                    log.error("Error Inside @class: SlaTemplateSnapshotRegistry @Method :getSnapshot() {}",
+                            e.getMessage(), e);
+                    throw new BusinessException(e.getMessage());
+                }
+            }
+        }
+        return cache(stored);
+    }
+
+    /**
+     * Returns the template snapshot of an SLA history. Histories started before
+     * the snapshots were introduced carry their own copy of the template, which
+     * is returned as an unsaved snapshot.
+     *
+     * @param history The SLA history.
+     * @return The snapshot of the template the history was started with.
+     * @throws BusinessException If the snapshot referenced by the history does
+     *                           not exist.
+     */
+    public SlaTemplateSnapshot getSnapshot(SlaHistory history) {
+        Integer snapshotId = history.getSnapshotId();
+        if (snapshotId == null) {
+            return toSnapshot(history);
+        }
+        SlaTemplateSnapshot snapshot = snapshotsById.get(snapshotId);
+        if (snapshot == null) {
+            snapshot = slaTemplateSnapshotDao.findByPk(snapshotId);
+            if (snapshot == null) {
+                throw new BusinessException("template snapshot " + snapshotId + " of sla history " + history.getId()
+                        + " not found");
+            }
+            snapshot = cache(snapshot);
+        }
+        return snapshot;
+    }
+
+    private SlaTemplateSnapshot cache(SlaTemplateSnapshot snapshot) {
+        SlaTemplateSnapshot cached = snapshotsByHash.putIfAbsent(snapshot.getContentHash(), snapshot);
+        if (cached != null) {
+            return cached;
+        }
+        snapshotsById.put(snapshot.getId(), snapshot);
+        return snapshot;
+    }
+
+    private static SlaTemplateSnapshot toSnapshot(SlaTemplate template) {
+        SlaTemplateSnapshot snapshot = new SlaTemplateSnapshot();
+        snapshot.setSlaIdentifier(template.getSlaId());
+        snapshot.setStartCondition(template.getStartCondition());
+        snapshot.setCancelCondition(template.getCancelCondition());
+        snapshot.setOnHoldCondition(template.getOnHoldCondition());
+        snapshot.setResumeCondition(template.getResumeCondition());
+        snapshot.setStopCondition(template.getStopCondition());
+        snapshot.setResetCondition(template.getResetCondition());
+        snapshot.setLevelTemplate(template.getLevelTemplate());
+        snapshot.setInTime(template.getInTime());
+        snapshot.setOutTime(template.getOutTime());
+        snapshot.setOperationalHours(template.getOperationalHours());
+        snapshot.setContentHash(contentHash(snapshot));
+        snapshot.setCreatedTime(System.currentTimeMillis());
+        return snapshot;
+    }
+
+    private static SlaTemplateSnapshot toSnapshot(SlaHistory history) {
+        SlaTemplateSnapshot snapshot = new SlaTemplateSnapshot();
+        snapshot.setSlaIdentifier(history.getSlaIdentifier());
+        snapshot.setStartCondition(history.getStartCondition());
+        snapshot.setCancelCondition(history.getCancelCondition());
+        snapshot.setOnHoldCondition(history.getOnHoldCondition());
+        snapshot.setResumeCondition(history.getResumeCondition());
+        snapshot.setStopCondition(history.getStopCondition());
+        snapshot.setResetCondition(history.getResetCondition());
+        snapshot.setLevelTemplate(history.getLevelTemplate());
+        snapshot.setInTime(history.getInTime());
+        snapshot.setOutTime(history.getOutTime());
+        snapshot.setOperationalHours(history.getOperationalHours());
+        return snapshot;
+    }
+
+    private static String contentHash(SlaTemplateSnapshot snapshot) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] { snapshot.getSlaIdentifier(), snapshot.getStartCondition(),
+                    snapshot.getCancelCondition(), snapshot.getOnHoldCondition(), snapshot.getResumeCondition(),
+                    snapshot.getStopCondition(), snapshot.getResetCondition(), snapshot.getLevelTemplate(),
+                    snapshot.getInTime(), snapshot.getOutTime(), snapshot.getOperationalHours() }) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bootnext.platform.sla.registry;
+
+import org.json.JSONObject;
+
+import lombok.Getter;
+
+/**
+ * Operational hours of an SLA template, parsed once from the "IN_TIME" and
+ * "OUT_TIME" JSON columns, or the named SLA calendar the template refers to.
+ */
+@Getter
+public final class SlaWorkingHours {
+
+    public static final String CALENDAR_HOURS = "Calendar Hours";
+
+    private final String operationalHours;
+    private final boolean calendarHours;
+    private final int startHour;
+    private final int startMinute;
+    private final int endHour;
+    private final int endMinute;
+    private final Integer calendarId;
+
+    private SlaWorkingHours(String operationalHours, int startHour, int startMinute, int endHour, int endMinute,
+            Integer calendarId) {
+        this.operationalHours = operationalHours;
+        this.calendarHours = CALENDAR_HOURS.equalsIgnoreCase(operationalHours);
+        this.startHour = startHour;
+        this.startMinute = startMinute;
+        this.endHour = endHour;
+        this.endMinute = endMinute;
+        this.calendarId = calendarId;
+    }
+
+    /**
+     * Parses the operational hours of a template.
+     *
+     * @param operationalHours The type of operational hours ("Calendar Hours" or
+     *                         custom working hours).
+     * @param inTime           The starting time of the working hours as a JSON
+     *                         string with "hours" and "minutes" fields.
+     * @param outTime          The ending time of the working hours as a JSON string
+     *                         with "hours" and "minutes" fields.
+     * @return The parsed working hours.
+     * @throws NumberFormatException If custom working hours are configured with
+     *                               an invalid time.
+     */
+    public static SlaWorkingHours of(String operationalHours, String inTime, String outTime) {
+        return of(operationalHours, inTime, outTime, null);
+    }
+
+    /**
+     * Parses the operational hours of a template. Custom working hours follow the
+     * named SLA calendar when one is given, the working window being then
+     * optional.
+     *
+     * @param operationalHours The type of operational hours ("Calendar Hours" or
+     *                         custom working hours).
+     * @param inTime           The starting time of the working hours as a JSON
+     *                         string with "hours" and "minutes" fields.
+     * @param outTime          The ending time of the working hours as a JSON string
+     *                         with "hours" and "minutes" fields.
+     * @param calendarId       The id of the SLA calendar of the template, or null.
+     * @return The parsed working hours.
+     * @throws NumberFormatException If custom working hours are configured with
+     *                               an invalid time.
+     */
+    public static SlaWorkingHours of(String operationalHours, String inTime, String outTime, Integer calendarId) {
+        if (CALENDAR_HOURS.equalsIgnoreCase(operationalHours)) {
+            return new SlaWorkingHours(operationalHours, 0, 0, 0, 0, calendarId);
+        }
+        if (calendarId != null && (inTime == null || outTime == null)) {
+            return new SlaWorkingHours(operationalHours, 0, 0, 0, 0, calendarId);
+        }
+        JSONObject in = new JSONObject(inTime);
+        JSONObject out = new JSONObject(outTime);
+        return new SlaWorkingHours(operationalHours, Integer.parseInt(in.optString("hours")),
+                Integer.parseInt(in.optString("minutes")), Integer.parseInt(out.optString("hours")),
+                Integer.parseInt(out.optString("minutes")), calendarId);
+    }
+
+    /**
+     * Returns the same working window with another operational hours type, used
+     * when an SLA history was started with a different setting than the current
+     * template.
+     *
+     * @param operationalHours The type of operational hours to apply.
+     * @return Working hours with the given type.
+     */
+    public SlaWorkingHours withOperationalHours(String operationalHours) {
+        if (operationalHours == null || operationalHours.equals(this.operationalHours)) {
+            return this;
+        }
+        return new SlaWorkingHours(operationalHours, startHour, startMinute, endHour, endMinute, calendarId);
+    }
+
+    /**
+     * Whether the working time is defined by a named SLA calendar rather than by
+     * the working window of the template.
+     *
+     * @return true if an SLA calendar applies.
+     */
+    public boolean isNamedCalendar() {
+        return !calendarHours && calendarId != null;
+    }
+
+    @Override
+    public String toString() {
+        if (calendarHours) {
+            return operationalHours;
+        }
+        if (calendarId != null) {
+            return operationalHours + " calendar " + calendarId;
+        }
+        return String.format("%s %02d:%02d-%02d:%02d", operationalHours, startHour, startMinute, endHour, endMinute);
+    }
+}
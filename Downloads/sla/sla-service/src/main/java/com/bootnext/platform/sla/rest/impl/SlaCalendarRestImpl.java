@@ -0,0 +1,106 @@
+package com.bootnext.platform.sla.rest.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+import com.bootnext.platform.sla.rest.ISlaCalendarRest;
+import com.bootnext.platform.sla.service.ISlaCalendarService;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SlaCalendarRestImpl
+ * 
+ * This class is a Spring REST Controller that handles HTTP requests related to SLA Calendar.
+ * It implements the ISlaCalendarRest interface and exposes the creation, update and retrieval
+ * of the working calendars referenced by the SLA templates.
+ * 
+ */
+@RestController
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE, path = "/SlaCalendar")
+@Primary
+@Slf4j
+public class SlaCalendarRestImpl implements ISlaCalendarRest {
+
+    @Autowired
+    private ISlaCalendarService slaCalendarService;
+
+    /**
+     * Creates a new SLA calendar.
+     *
+     * @param slaCalendar The SlaCalendar object containing the shifts, holidays and closures.
+     * @return The newly created SLA calendar with its generated ID.
+     * @throws BusinessException If an error occurs during the creation process.
+     */
+    @Override
+    public SlaCalendar createSlaCalendar(SlaCalendar slaCalendar) {
+        log.info(SlaUtils.INSIDE_METHOD, "createSlaCalendar");
+        try {
+            return slaCalendarService.createSlaCalendar(slaCalendar);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarRestImpl @Method :createSlaCalendar() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Updates an existing SLA calendar.
+     *
+     * @param slaCalendar The SlaCalendar object containing the updated details.
+     * @return The updated SLA calendar.
+     * @throws BusinessException If an error occurs during the update process.
+     */
+    @Override
+    public SlaCalendar updateSlaCalendar(SlaCalendar slaCalendar) {
+        log.info(SlaUtils.INSIDE_METHOD, "updateSlaCalendar");
+        try {
+            return slaCalendarService.update(slaCalendar);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarRestImpl @Method :updateSlaCalendar() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves an SLA calendar by its name.
+     *
+     * @param name The name of the SLA calendar.
+     * @return The SLA calendar, or null if not found.
+     * @throws BusinessException If an error occurs during the retrieval process.
+     */
+    @Override
+    public SlaCalendar getSlaCalendarByName(String name) {
+        log.info(SlaUtils.INSIDE_METHOD, "getSlaCalendarByName");
+        try {
+            return slaCalendarService.getSlaCalendarByName(name);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarRestImpl @Method :getSlaCalendarByName() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves every SLA calendar.
+     *
+     * @return The list of SLA calendars.
+     * @throws BusinessException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<SlaCalendar> getAllSlaCalendars() {
+        log.info(SlaUtils.INSIDE_METHOD, "getAllSlaCalendars");
+        try {
+            return slaCalendarService.findAll();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarRestImpl @Method :getAllSlaCalendars() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
@@ -48,19 +48,91 @@ public class SlaHistoryRestImpl implements ISlaHistoryRest {
      * @param applicationName The name of the application associated with the entity.
      * @param entityName The name of the entity.
      * @param entityId The unique identifier of the entity.
+     * @param changedFields The paths of the entity fields changed since the previous event, or null if unknown.
+     * @param entityVersion The version of the entity, or null if unknown. An event whose version was already applied is dropped.
      * @return true if the SLA trigger is successful, false otherwise.
      * @throws BusinessException If any error occurs during the SLA triggering process.
      */
     @Override
-    public Boolean triggerSla(String entityString, String applicationName, String entityName, String entityId) throws BusinessException {
+    public Boolean triggerSla(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion) throws BusinessException {
         try{
-            return slaHistoryService.triggerSLA( entityString ,applicationName, entityName, entityId);
+            return slaHistoryService.triggerSLA( entityString ,applicationName, entityName, entityId, changedFields,
+                    entityVersion);
         }catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryRestImpl @Method :triggerSla() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
         }
     }
 
+    /**
+     * Trigger the SLA for a batch of entity events.
+     *
+     * The events are applied in order by the slaHistoryService in a single
+     * transaction, which lets upstream systems replay their backlog without one
+     * HTTP call per event.
+     *
+     * @param eventsString The JSON array of events, each with the applicationName,
+     *                     entityName, entityId and entity fields.
+     * @return A JSON array with the result of each event, in order.
+     * @throws BusinessException If any error occurs during the SLA triggering process.
+     */
+    @Override
+    public String triggerSlaBatch(String eventsString) throws BusinessException {
+        try {
+            return slaHistoryService.triggerSLABatch(eventsString);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryRestImpl @Method :triggerSlaBatch() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Accept an entity event for asynchronous SLA triggering.
+     *
+     * The event is stored by the slaHistoryService and acknowledged before any
+     * template is evaluated, so that the caller does not wait for the rule
+     * engine, the user service or the mail service.
+     *
+     * @param entityString    The JSON representation of the entity.
+     * @param applicationName The name of the application.
+     * @param entityName      The name of the entity.
+     * @param entityId        The ID of the entity.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, optional.
+     * @param entityVersion   The version of the entity, optional.
+     * @return The ID of the accepted event, or null if no SLA template is affected.
+     * @throws BusinessException If any error occurs while storing the event.
+     */
+    @Override
+    public Long triggerSlaAsync(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion) throws BusinessException {
+        try {
+            return slaHistoryService.acceptSLATrigger(entityString, applicationName, entityName, entityId,
+                    changedFields, entityVersion);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryRestImpl @Method :triggerSlaAsync() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the processing status of the asynchronous SLA trigger.
+     *
+     * @return A JSON object with the number of events per state and the
+     *         processing lag in milliseconds.
+     * @throws BusinessException If any error occurs while reading the inbox.
+     */
+    @Override
+    public String getTriggerInboxStatus() {
+        try {
+            return slaHistoryService.getSLATriggerInboxStatus();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryRestImpl @Method :getTriggerInboxStatus() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
     /**
      * Execute scheduled SLA history tasks.
      *
@@ -183,13 +255,14 @@ public class SlaHistoryRestImpl implements ISlaHistoryRest {
      *
      * This method retrieves information about SLA breach proximity by calling the `slaHistoryService.getSlaBreachProximity` method. If the retrieval is successful, it returns the information as a String. Otherwise, it throws a `BusinessException` with an error message.
      *
+     * @param timeZone The time zone of the days of the proximity, the system time zone if null.
      * @return Information about SLA breach proximity as a String.
      * @throws BusinessException If any error occurs during the retrieval of information about SLA breach proximity.
      */
     @Override
-    public String getSlaBreachProximity() {
+    public String getSlaBreachProximity(String timeZone) {
         try{
-            return slaHistoryService.getSlaBreachProximity();
+            return slaHistoryService.getSlaBreachProximity(timeZone);
         }catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryRestImpl @Method :getSlaBreachProximity() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
@@ -317,4 +390,14 @@ public class SlaHistoryRestImpl implements ISlaHistoryRest {
             throw new BusinessException(e.getMessage());
             }
         }
+
+    @Override
+    public String getSlaHistoryTimeline(long id, String cursor, int size) {
+        try {
+            return slaHistoryService.getSlaHistoryTimeline(id, cursor, size);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryRestImpl @Method :getSlaHistoryTimeline() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.bootnext.platform.sla.rule;
+
+import java.util.Collection;
+
+/**
+ * A compiled, immutable node of an SLA condition tree.
+ *
+ * Instances are produced once per template version by {@link SlaRuleCompiler}
+ * and are evaluated against the posted entity through a {@link SlaRuleContext},
+ * so they are safe to share between concurrent trigger calls.
+ */
+public interface SlaRule {
+
+    /**
+     * Evaluates this rule against the entity of the given context, reading only
+     * the fields needed to decide.
+     *
+     * @param context The evaluation of the entity event, holding the entity and
+     *                the outcome of the predicates already evaluated.
+     * @return True if the rule is matched, false otherwise.
+     */
+    boolean evaluate(SlaRuleContext context);
+
+    /**
+     * Writes the human readable description of this rule for the entity of the
+     * given context, stored as the SLA history expression. Every leaf is listed,
+     * including the ones the evaluation did not need.
+     *
+     * @param context The evaluation of the entity event.
+     * @param trace   The builder receiving the description.
+     */
+    default void describe(SlaRuleContext context, StringBuilder trace) {
+    }
+
+    /**
+     * Returns the estimated relative cost of evaluating this rule, used to
+     * evaluate the cheap rules of a group first.
+     *
+     * @return The estimated cost, at least 1.
+     */
+    default int getCost() {
+        return 1;
+    }
+
+    /**
+     * Tells whether the rule was compiled from an empty condition, in which case
+     * it must not be evaluated at all.
+     *
+     * @return True if the condition has no rules, false otherwise.
+     */
+    default boolean isEmpty() {
+        return false;
+    }
+
+    /**
+     * Adds the paths of the entity fields read by this rule, using "." as path
+     * separator, so that only those fields need to be extracted from the posted
+     * entity.
+     *
+     * @param fieldPaths The collection receiving the field paths.
+     */
+    default void collectFieldPaths(Collection<String> fieldPaths) {
+    }
+
+    /**
+     * Tells whether the result of this rule depends on the current time, in
+     * which case it must be evaluated even if the entity did not change.
+     *
+     * @return True if the rule compares a field with the current time.
+     */
+    default boolean isRelativeToNow() {
+        return false;
+    }
+}
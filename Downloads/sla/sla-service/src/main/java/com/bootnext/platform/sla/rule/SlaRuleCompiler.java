@@ -0,0 +1,126 @@
+package com.bootnext.platform.sla.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.stereotype.Component;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiles the JSON conditions of an SLA template into immutable rule trees.
+ *
+ * Compiled templates are cached by template id and invalidated as soon as the
+ * template modified time changes, so each version of a template is parsed only
+ * once whatever the number of triggered entities.
+ */
+@Component
+@Slf4j
+public class SlaRuleCompiler {
+
+    /** Rule used for leaves that cannot be evaluated (missing field, invalid value). */
+    private static final SlaRule INVALID_RULE = context -> false;
+
+    /** Rule used for templates without any condition configured. */
+    private static final SlaRule EMPTY_RULE = new SlaRuleGroup("N/A", Collections.emptyList());
+
+    private final Map<Integer, SlaTemplateRules> compiledTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the compiled conditions of the given template, compiling them if
+     * the template was never seen or was modified since the last compilation.
+     *
+     * @param slaTemplate The SLA template whose conditions are needed.
+     * @return The compiled conditions of the template.
+     * @throws BusinessException If one of the conditions cannot be parsed.
+     */
+    public SlaTemplateRules getTemplateRules(SlaTemplate slaTemplate) {
+        SlaTemplateRules rules = compiledTemplates.get(slaTemplate.getId());
+        if (rules == null || !Objects.equals(rules.getVersion(), slaTemplate.getModifiedTime())) {
+            rules = compileTemplate(slaTemplate);
+            compiledTemplates.put(slaTemplate.getId(), rules);
+        }
+        return rules;
+    }
+
+    /**
+     * Compiles all the conditions of the given template.
+     *
+     * @param slaTemplate The SLA template to compile.
+     * @return The compiled conditions of the template.
+     * @throws BusinessException If one of the conditions cannot be parsed.
+     */
+    public SlaTemplateRules compileTemplate(SlaTemplate slaTemplate) {
+        try {
+            log.info("compiling conditions of sla template {} version {}", slaTemplate.getId(),
+                    slaTemplate.getModifiedTime());
+            return new SlaTemplateRules(slaTemplate.getId(), slaTemplate.getModifiedTime(),
+                    compile(slaTemplate.getStartCondition()), compile(slaTemplate.getStopCondition()),
+                    compile(slaTemplate.getOnHoldCondition()), compile(slaTemplate.getResumeCondition()),
+                    compile(slaTemplate.getResetCondition()), compile(slaTemplate.getCancelCondition()));
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaRuleCompiler @Method :compileTemplate() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Compiles a condition of the form
+     * {"condition": "and", "rules": [...]} into a rule tree.
+     *
+     * @param condition The condition JSON as stored on the template.
+     * @return The compiled rule, empty if no condition is configured.
+     */
+    public SlaRule compile(String condition) {
+        if (condition == null || condition.isBlank()) {
+            return EMPTY_RULE;
+        }
+        JSONObject slaObject = new JSONObject(condition);
+        JSONArray rules = slaObject.optJSONArray(SlaUtils.RULES);
+        if (rules == null || rules.isEmpty()) {
+            return EMPTY_RULE;
+        }
+        return compileGroup(slaObject.optString("condition", "N/A"), rules);
+    }
+
+    private SlaRule compileGroup(String condition, JSONArray rules) {
+        List<SlaRule> compiledRules = new ArrayList<>(rules.length());
+        for (int i = 0; i < rules.length(); i++) {
+            JSONObject rule = rules.getJSONObject(i);
+            if (rule.has(SlaUtils.RULES)) {
+                compiledRules.add(compileGroup(rule.optString("condition", "N/A"), rule.getJSONArray(SlaUtils.RULES)));
+            } else {
+                compiledRules.add(compilePredicate(rule));
+            }
+        }
+        return new SlaRuleGroup(condition, compiledRules);
+    }
+
+    private SlaRule compilePredicate(JSONObject rule) {
+        Object fields = rule.opt(SlaUtils.FIELDS);
+        Object operators = rule.opt("operators");
+        Object value = rule.opt(SlaUtils.VALUE);
+        if (!(fields instanceof JSONObject) || !(operators instanceof JSONObject) || !(value instanceof String)) {
+            log.info("rule {} can not be evaluated, it will never match", rule);
+            return INVALID_RULE;
+        }
+        String fieldName = ((JSONObject) fields).optString(SlaUtils.NAME);
+        String operator = ((JSONObject) operators).optString(SlaUtils.VALUE);
+        long offsetMillis = TimeUnit.HOURS.toMillis(rule.optLong(SlaUtils.HOURS))
+                + TimeUnit.MINUTES.toMillis(rule.optLong(SlaUtils.MINUTES));
+        long betweenMinutes = (rule.optLong(SlaUtils.HOURS) * 60 + rule.optLong("minute"))
+                - (rule.optLong("hoursData") * 60 + rule.optLong("minutesData"));
+        return new SlaRulePredicate(fieldName, operator, (String) value, offsetMillis, betweenMinutes);
+    }
+}
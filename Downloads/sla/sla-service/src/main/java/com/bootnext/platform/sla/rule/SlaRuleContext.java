@@ -0,0 +1,77 @@
+package com.bootnext.platform.sla.rule;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONObject;
+
+import lombok.Getter;
+
+/**
+ * Evaluation of the SLA conditions of one entity event.
+ *
+ * The templates of the same entity often test the same fields with the same
+ * operators and values. Equal predicates are evaluated once per event, whatever
+ * the number of templates and conditions using them; the outcome is reused by
+ * the following ones, along with the entity value written in their
+ * description.
+ *
+ * A context belongs to a single trigger call and is not thread-safe.
+ */
+public final class SlaRuleContext {
+
+    @Getter
+    private final JSONObject entity;
+
+    private final Map<SlaRulePredicate, Outcome> outcomes = new HashMap<>();
+
+    @Getter
+    private int reusedOutcomes;
+
+    /**
+     * Creates the context of an entity event.
+     *
+     * @param entity The JSON object representing the entity data.
+     */
+    public SlaRuleContext(JSONObject entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Returns the number of distinct predicates evaluated so far.
+     *
+     * @return The number of evaluated predicates.
+     */
+    public int getEvaluatedPredicates() {
+        return outcomes.size();
+    }
+
+    Outcome getOutcome(SlaRulePredicate predicate) {
+        Outcome outcome = outcomes.get(predicate);
+        if (outcome == null) {
+            outcome = predicate.evaluate(entity);
+            outcomes.put(predicate, outcome);
+        } else {
+            reusedOutcomes++;
+        }
+        return outcome;
+    }
+
+    Outcome describe(SlaRulePredicate predicate) {
+        return outcomes.computeIfAbsent(predicate, p -> p.evaluate(entity));
+    }
+
+    /**
+     * Result of a predicate for the entity of the context.
+     */
+    static final class Outcome {
+
+        final boolean matched;
+        final Object value;
+
+        Outcome(boolean matched, Object value) {
+            this.matched = matched;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bootnext.platform.sla.rule;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Compiled group of rules joined by the same "and"/"or" condition.
+ *
+ * The evaluation stops at the first child deciding the result: the first
+ * unmatched rule of an "and" group, the first matched rule of an "or" group.
+ * The children are tried in the order most likely to decide early for a low
+ * cost, learnt from the outcome of the previous evaluations, and the order is
+ * revised periodically. The description still lists every child in the
+ * configured order, exactly like the expression that used to be stored on the
+ * SLA history.
+ */
+@Getter
+public final class SlaRuleGroup implements SlaRule {
+
+    /** Number of evaluations of a group between two revisions of its order. */
+    private static final int REORDER_INTERVAL = 1024;
+
+    private final String condition;
+    private final boolean disjunction;
+    private final List<SlaRule> rules;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] costs;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLongArray evaluations;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLongArray matches;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong groupEvaluations = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private volatile int[] order;
+
+    /**
+     * Creates a new rule group.
+     *
+     * @param condition The condition label as configured in the template ("and",
+     *                  "or"), any other value is treated as "and".
+     * @param rules     The compiled child rules.
+     */
+    public SlaRuleGroup(String condition, List<SlaRule> rules) {
+        this.condition = condition;
+        this.disjunction = "or".equalsIgnoreCase(condition);
+        this.rules = Collections.unmodifiableList(rules);
+        this.costs = new int[rules.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = Math.max(1, rules.get(i).getCost());
+        }
+        this.evaluations = new AtomicLongArray(rules.size());
+        this.matches = new AtomicLongArray(rules.size());
+        this.order = computeOrder();
+    }
+
+    @Override
+    public boolean evaluate(SlaRuleContext context) {
+        boolean matched = !disjunction;
+        for (int index : order) {
+            boolean ruleMatched = rules.get(index).evaluate(context);
+            evaluations.incrementAndGet(index);
+            if (ruleMatched) {
+                matches.incrementAndGet(index);
+            }
+            if (ruleMatched == disjunction) {
+                matched = disjunction;
+                break;
+            }
+        }
+        if (groupEvaluations.incrementAndGet() % REORDER_INTERVAL == 0) {
+            order = computeOrder();
+        }
+        return matched;
+    }
+
+    @Override
+    public void describe(SlaRuleContext context, StringBuilder trace) {
+        for (int i = 0; i < rules.size(); i++) {
+            trace.append("(");
+            rules.get(i).describe(context, trace);
+            trace.append(")");
+            if (i < rules.size() - 1) {
+                trace.append(condition).append(" ");
+            }
+        }
+    }
+
+    @Override
+    public int getCost() {
+        int cost = 0;
+        for (int childCost : costs) {
+            cost += childCost;
+        }
+        return Math.max(1, cost);
+    }
+
+    /**
+     * Orders the children by expected cost per deciding outcome, the cost
+     * divided by the observed probability that the child decides the group.
+     * The probability is smoothed so that children never evaluated yet are
+     * assumed to decide half of the time.
+     */
+    private int[] computeOrder() {
+        double[] scores = new double[rules.size()];
+        Integer[] indexes = new Integer[rules.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            long evaluated = evaluations.get(i);
+            long matched = matches.get(i);
+            long deciding = disjunction ? matched : evaluated - matched;
+            scores[i] = costs[i] * (evaluated + 2d) / (deciding + 1d);
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, Comparator.comparingDouble(i -> scores[i]));
+        int[] sorted = new int[indexes.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = indexes[i];
+        }
+        return sorted;
+    }
+
+    @Override
+    public void collectFieldPaths(Collection<String> fieldPaths) {
+        for (SlaRule rule : rules) {
+            rule.collectFieldPaths(fieldPaths);
+        }
+    }
+
+    @Override
+    public boolean isRelativeToNow() {
+        for (SlaRule rule : rules) {
+            if (rule.isRelativeToNow()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bootnext.platform.sla.rule;
+
+/**
+ * Operators supported in the SLA template conditions, mapped from the value
+ * stored in the rule JSON.
+ */
+public enum SlaRuleOperator {
+
+    EQUAL_TO("=="),
+    GREATER_THAN(">"),
+    LESS_THAN("<"),
+    NOT_EQUAL_TO("!="),
+    LESS_THAN_OR_EQUAL_TO("<="),
+    GREATER_THAN_OR_EQUAL_TO(">="),
+    IS_NULL("Is_Null"),
+    IS_NOT_NULL("Is_Not_Null"),
+    IS_EMPTY("Is_Empty"),
+    IS_NOT_EMPTY("Is_Not_Empty"),
+    IS_EQUALS("Is_Equals"),
+    IS_NOT_EQUALS("Is_Not_Equals"),
+    STARTS_WITH("Starts_With"),
+    ENDS_WITH("Ends_With"),
+    CONTAINS("Contains"),
+    DOES_NOT_CONTAINS("Does_Not_Contains"),
+    IS_BEFORE("Is_Before"),
+    IS_AFTER("Is_After"),
+    IS_BETWEEN("Is_Between");
+
+    private final String value;
+
+    SlaRuleOperator(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Tells whether the operator compares the entity value as a number.
+     *
+     * @return True for the numeric comparison operators.
+     */
+    public boolean isNumeric() {
+        return ordinal() <= GREATER_THAN_OR_EQUAL_TO.ordinal();
+    }
+
+    /**
+     * Returns the type in which the operator compares the entity value.
+     *
+     * @return The value type of the operator.
+     */
+    public SlaRuleValueType getValueType() {
+        if (isNumeric()) {
+            return SlaRuleValueType.NUMBER;
+        }
+        if (isRelativeToNow()) {
+            return SlaRuleValueType.INSTANT;
+        }
+        if (this == IS_NULL || this == IS_NOT_NULL) {
+            return SlaRuleValueType.PRESENCE;
+        }
+        return SlaRuleValueType.TEXT;
+    }
+
+    /**
+     * Tells whether the operator compares the entity value with the current time,
+     * so that its result may change while the entity does not.
+     *
+     * @return True for the date operators.
+     */
+    public boolean isRelativeToNow() {
+        return this == IS_BEFORE || this == IS_AFTER || this == IS_BETWEEN;
+    }
+
+    /**
+     * Resolves the operator from the value configured in the template.
+     *
+     * @param value The operator value of the rule.
+     * @return The matching operator, or null if the operator is not supported.
+     */
+    public static SlaRuleOperator fromValue(String value) {
+        for (SlaRuleOperator operator : values()) {
+            if (operator.value.equals(value)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.bootnext.platform.sla.rule;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled leaf rule comparing one field of the entity with the value
+ * configured in the template.
+ *
+ * The field path, the operator and the configured value are resolved once at
+ * compile time; only the entity value is read at evaluation time.
+ *
+ * Predicates are equal when they are configured with the same field, operator
+ * and values, so that a {@link SlaRuleContext} evaluates them once per event.
+ */
+@Slf4j
+@Getter
+public final class SlaRulePredicate implements SlaRule {
+
+    private final String fieldName;
+    private final String[] path;
+    private final String operatorValue;
+    private final SlaRuleOperator operator;
+    private final String value;
+    private final Number numericValue;
+    private final long offsetMillis;
+    private final long betweenMinutes;
+    @Getter(AccessLevel.NONE)
+    private final int hash;
+
+    /**
+     * Creates a new predicate.
+     *
+     * @param fieldName      The field name as configured in the template, using "."
+     *                       as path separator.
+     * @param operatorValue  The operator as configured in the template.
+     * @param value          The value configured in the template.
+     * @param offsetMillis   The offset from now used by the "Is_Before" and
+     *                       "Is_After" operators.
+     * @param betweenMinutes The window in minutes used by the "Is_Between"
+     *                       operator.
+     */
+    public SlaRulePredicate(String fieldName, String operatorValue, String value, long offsetMillis,
+            long betweenMinutes) {
+        this.fieldName = fieldName;
+        this.path = fieldName.split("\\.");
+        this.operatorValue = operatorValue;
+        this.operator = SlaRuleOperator.fromValue(operatorValue);
+        this.value = value;
+        this.numericValue = operator != null && operator.isNumeric() ? SlaRuleValues.toNumber(value) : null;
+        this.offsetMillis = offsetMillis;
+        this.betweenMinutes = betweenMinutes;
+        this.hash = Objects.hash(fieldName, operatorValue, value, offsetMillis, betweenMinutes);
+    }
+
+    @Override
+    public boolean evaluate(SlaRuleContext context) {
+        return context.getOutcome(this).matched;
+    }
+
+    @Override
+    public void describe(SlaRuleContext context, StringBuilder trace) {
+        trace.append(" key: ").append(fieldName).append(", condition: ").append(operatorValue).append(", value: ")
+                .append(toText(context.describe(this).value)).append(" ");
+    }
+
+    /**
+     * Estimates the cost from the path depth and the operator: null checks only
+     * read the value, text operators scan it and date operators also parse it
+     * and read the clock.
+     */
+    @Override
+    public int getCost() {
+        int cost = path.length;
+        if (operator == null || operator == SlaRuleOperator.IS_NULL || operator == SlaRuleOperator.IS_NOT_NULL) {
+            return cost;
+        }
+        if (operator.isRelativeToNow()) {
+            return cost + 3;
+        }
+        switch (operator) {
+            case STARTS_WITH, ENDS_WITH, CONTAINS, DOES_NOT_CONTAINS:
+                return cost + 2;
+            default:
+                return cost + 1;
+        }
+    }
+
+    SlaRuleContext.Outcome evaluate(JSONObject entity) {
+        Object rawValue = getValueByPath(entity);
+        return new SlaRuleContext.Outcome(matches(rawValue), rawValue);
+    }
+
+    private boolean matches(Object rawValue) {
+        if (operator == null) {
+            log.warn("Unsupported operator {} for field {}", operatorValue, fieldName);
+            return false;
+        }
+        switch (operator.getValueType()) {
+            case NUMBER:
+                return compareNumbers(rawValue);
+            case INSTANT:
+                Long dateTime = SlaRuleValues.toEpochMillis(rawValue instanceof String ? toText(rawValue) : rawValue);
+                if (operator == SlaRuleOperator.IS_BETWEEN) {
+                    return isDateInBtw(dateTime);
+                }
+                return compareDates(dateTime, operator == SlaRuleOperator.IS_AFTER);
+            case PRESENCE:
+                boolean isNull = rawValue == null || JSONObject.NULL.equals(rawValue)
+                        || JSONObject.NULL.toString().equals(rawValue);
+                return operator == SlaRuleOperator.IS_NULL ? isNull : !isNull;
+            default:
+                return compareTexts(toText(rawValue));
+        }
+    }
+
+    private boolean compareTexts(String entityValue) {
+        switch (operator) {
+            case IS_EMPTY:
+                return entityValue == null || entityValue.isEmpty();
+            case IS_NOT_EMPTY:
+                return entityValue != null && !entityValue.isEmpty();
+            case IS_EQUALS:
+                return entityValue != null && entityValue.equalsIgnoreCase(value);
+            case IS_NOT_EQUALS:
+                return entityValue == null || !entityValue.equalsIgnoreCase(value);
+            case STARTS_WITH:
+                return entityValue != null && entityValue.startsWith(value);
+            case ENDS_WITH:
+                return entityValue != null && entityValue.endsWith(value);
+            case CONTAINS:
+                return entityValue != null && entityValue.contains(value);
+            case DOES_NOT_CONTAINS:
+                return entityValue == null || !entityValue.contains(value);
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void collectFieldPaths(Collection<String> fieldPaths) {
+        fieldPaths.add(fieldName);
+    }
+
+    @Override
+    public boolean isRelativeToNow() {
+        return operator != null && operator.isRelativeToNow();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SlaRulePredicate)) {
+            return false;
+        }
+        SlaRulePredicate other = (SlaRulePredicate) obj;
+        return hash == other.hash && offsetMillis == other.offsetMillis && betweenMinutes == other.betweenMinutes
+                && fieldName.equals(other.fieldName) && Objects.equals(operatorValue, other.operatorValue)
+                && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private boolean compareNumbers(Object rawValue) {
+        if (rawValue == null || numericValue == null) {
+            return false;
+        }
+        Number number = SlaRuleValues.toNumber(rawValue instanceof String ? toText(rawValue) : rawValue);
+        if (number == null) {
+            return false;
+        }
+        int result = SlaRuleValues.compare(number, numericValue);
+        switch (operator) {
+            case EQUAL_TO:
+                return result == 0;
+            case GREATER_THAN:
+                return result > 0;
+            case LESS_THAN:
+                return result < 0;
+            case NOT_EQUAL_TO:
+                return result != 0;
+            case LESS_THAN_OR_EQUAL_TO:
+                return result <= 0;
+            default:
+                return result >= 0;
+        }
+    }
+
+    private boolean compareDates(Long dateTime, boolean after) {
+        if (dateTime == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (after) {
+            return now + offsetMillis > dateTime;
+        }
+        return now - offsetMillis < dateTime;
+    }
+
+    private boolean isDateInBtw(Long givenDate) {
+        if (givenDate == null) {
+            return false;
+        }
+        long timeDiffMillis = System.currentTimeMillis() - givenDate / 1000;
+        long finalTime = TimeUnit.MILLISECONDS.toHours(timeDiffMillis) * 60
+                + TimeUnit.MILLISECONDS.toMinutes(timeDiffMillis) % 60;
+        return betweenMinutes > finalTime;
+    }
+
+    /**
+     * Reads the value at the compiled path, walking nested JSON objects.
+     *
+     * @param entity The JSON object representing the entity data.
+     * @return The value found at the path, as read from the JSON entity, or null
+     *         if the path does not point to a value.
+     */
+    private Object getValueByPath(JSONObject entity) {
+        JSONObject currentObj = entity;
+        for (String key : path) {
+            if (!key.isEmpty()) {
+                Object value = currentObj.opt(key);
+                if (value == null) {
+                    return null;
+                }
+                if (value instanceof JSONObject) {
+                    currentObj = (JSONObject) value;
+                } else {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String toText(Object rawValue) {
+        return rawValue == null ? null : htmlToText(rawValue.toString());
+    }
+
+    private static String htmlToText(String html) {
+        if (html.indexOf('<') < 0 && html.indexOf('>') < 0) {
+            return html;
+        }
+        StringBuilder plainText = new StringBuilder(html.length());
+        boolean insideTag = false;
+        for (int i = 0; i < html.length(); i++) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                insideTag = true;
+            } else if (c == '>') {
+                insideTag = false;
+            } else if (!insideTag) {
+                plainText.append(c);
+            }
+        }
+        return plainText.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.bootnext.platform.sla.rule;
+
+/**
+ * Type in which an operator compares the entity value with the template value,
+ * resolved once per rule when the template is compiled.
+ */
+public enum SlaRuleValueType {
+
+    /** Integral or decimal number, compared without overflow. */
+    NUMBER,
+
+    /** Point in time, compared as epoch milliseconds. */
+    INSTANT,
+
+    /** Text, compared after removing the HTML tags. */
+    TEXT,
+
+    /** Only the presence of the value is checked. */
+    PRESENCE
+}
@@ -0,0 +1,114 @@
+package com.bootnext.platform.sla.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversions of the entity values to the typed values compared by the rules.
+ *
+ * Numbers read from the JSON entity are used as they are; only values posted
+ * as strings are parsed. Integral values are compared as longs and every other
+ * number as a {@link BigDecimal}, so that large identifiers and decimal fields
+ * neither overflow nor fail to parse.
+ */
+final class SlaRuleValues {
+
+    private static final DateTimeFormatter ISO_DATE_TIME = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    private SlaRuleValues() {
+    }
+
+    /**
+     * Converts a value to a number.
+     *
+     * @param value The entity or template value.
+     * @return A {@link Long} for integral values fitting in a long, a
+     *         {@link BigDecimal} for the other numbers, or null if the value is
+     *         not a number.
+     */
+    static Number toNumber(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isFinite(number) ? BigDecimal.valueOf(number) : null;
+        }
+        if (!(value instanceof String)) {
+            return null;
+        }
+        String text = (String) value;
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // not an integral value fitting in a long
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compares two numbers returned by {@link #toNumber(Object)}.
+     *
+     * @param number The entity number.
+     * @param other  The template number.
+     * @return A negative integer, zero, or a positive integer as the entity number
+     *         is less than, equal to, or greater than the template number.
+     */
+    static int compare(Number number, Number other) {
+        if (number instanceof Long && other instanceof Long) {
+            return Long.compare(number.longValue(), other.longValue());
+        }
+        return toDecimal(number).compareTo(toDecimal(other));
+    }
+
+    private static BigDecimal toDecimal(Number number) {
+        return number instanceof BigDecimal ? (BigDecimal) number : BigDecimal.valueOf(number.longValue());
+    }
+
+    /**
+     * Converts a value to epoch milliseconds. Numbers are taken as epoch
+     * milliseconds, text as epoch milliseconds or as an ISO-8601 date-time with
+     * offset.
+     *
+     * @param value The entity value.
+     * @return The epoch milliseconds, or null if the value is not a point in time.
+     */
+    static Long toEpochMillis(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        if (!(value instanceof String)) {
+            return null;
+        }
+        String text = (String) value;
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // not epoch milliseconds
+        }
+        if (text.length() < 17 || text.charAt(10) != 'T') {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(text, ISO_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
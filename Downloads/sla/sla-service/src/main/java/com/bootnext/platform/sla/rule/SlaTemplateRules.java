@@ -0,0 +1,21 @@
+package com.bootnext.platform.sla.rule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Compiled conditions of one version of an SLA template.
+ */
+@Getter
+@AllArgsConstructor
+public final class SlaTemplateRules {
+
+    private final Integer templateId;
+    private final Long version;
+    private final SlaRule startRule;
+    private final SlaRule stopRule;
+    private final SlaRule onHoldRule;
+    private final SlaRule resumeRule;
+    private final SlaRule resetRule;
+    private final SlaRule cancelRule;
+}
@@ -0,0 +1,11 @@
+package com.bootnext.platform.sla.service;
+
+import com.bootnext.core.generic.service.IBaseService;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+
+public interface ISlaCalendarService extends IBaseService<Integer, SlaCalendar> {
+
+    SlaCalendar createSlaCalendar(SlaCalendar slaCalendar);
+
+    SlaCalendar getSlaCalendarByName(String name);
+}
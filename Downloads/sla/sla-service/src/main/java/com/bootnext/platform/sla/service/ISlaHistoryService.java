@@ -1,5 +1,6 @@
 package com.bootnext.platform.sla.service;
 
+import java.util.List;
 import java.util.Map;
 
 import com.bootnext.core.generic.service.IBaseService;
@@ -7,7 +8,15 @@ import com.bootnext.platform.sla.model.template.SlaHistory;
 
 public interface ISlaHistoryService extends IBaseService<Integer, SlaHistory> {
 
-    Boolean triggerSLA(String entityString, String applicationName, String entityName, String entityId);
+    Boolean triggerSLA(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion);
+
+    String triggerSLABatch(String eventsString);
+
+    Long acceptSLATrigger(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion);
+
+    String getSLATriggerInboxStatus();
 
     String scheduledExecuteHistory();
 
@@ -19,7 +28,7 @@ public interface ISlaHistoryService extends IBaseService<Integer, SlaHistory> {
 
     String getTopSlaTriggered();
 
-    String getSlaBreachProximity();
+    String getSlaBreachProximity(String timeZone);
 
     String getTopSlaEntityWise();
 
@@ -32,4 +41,6 @@ public interface ISlaHistoryService extends IBaseService<Integer, SlaHistory> {
     String getSlaHistoryAudById(long slaId);
 
     int auditCount(long slaId);
+
+    String getSlaHistoryTimeline(long slaId, String cursor, int size);
 }
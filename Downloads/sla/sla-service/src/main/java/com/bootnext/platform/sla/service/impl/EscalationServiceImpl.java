@@ -2,26 +2,30 @@ package com.bootnext.platform.sla.service.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bootnext.core.generic.exceptions.application.BusinessException;
 import com.bootnext.core.generic.service.impl.AbstractService;
 import com.bootnext.platform.notification.mail.rest.INotificationMailRest;
 import com.bootnext.platform.notification.mail.wrapper.NotificationMailWrapper;
 import com.bootnext.platform.sla.dao.IEscalationDao;
-import com.bootnext.platform.sla.dao.ISlaHistoryDao;
+import com.bootnext.platform.sla.dashboard.SlaActivityRollup;
+import com.bootnext.platform.sla.mail.EscalationMailDispatcher;
 import com.bootnext.platform.sla.model.template.Escalation;
 import com.bootnext.platform.sla.model.template.SlaHistory;
 import com.bootnext.platform.sla.service.IEscalationService;
-import com.bootnext.platform.sla.utils.SlaUtils;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,7 +49,16 @@ public class EscalationServiceImpl extends AbstractService<Integer, Escalation>
     private IEscalationDao escalationDao;
 
     @Autowired
-    private ISlaHistoryDao slaTemplateHistoryDao;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EscalationMailDispatcher escalationMailDispatcher;
+
+    @Autowired
+    private SlaActivityRollup slaActivityRollup;
+
+    @Value("${sla.escalation.batch-size:500}")
+    private int escalationBatchSize;
 
     @Autowired
     private INotificationMailRest emailNotification;
@@ -58,55 +71,81 @@ public class EscalationServiceImpl extends AbstractService<Integer, Escalation>
      * compares current date and time to specified Escalation time, 
      * if current date and time is greater than escalation time specified user is escalated.
      *
-     * @return A string indicating the result of the escalation process.
+     * Due escalations are loaded with their SLA history in chunks of
+     * "sla.escalation.batch-size" rows. For each chunk the levels of the histories
+     * are advanced and the escalation mails are added to the outbox in a single
+     * transaction. The mails are delivered by the {@link EscalationMailDispatcher},
+     * which flags the escalations as sent once the mail service accepted them.
+     *
+     * @return Returns null.
      * @throws BusinessException If an error occurs while scheduling and executing escalations.
      */
     @Override
     public String scheduleEscalateUser() {
         log.info("inside ................... scheduleEscalateUser");
-        String result = null;
         try{
-            List<Escalation> escalations = escalationDao.getAllEscalations(false);
-            for(Escalation escalation: escalations){
-
-                Date escalateTime = new Date(escalation.getEscalationTime());
-                Date currentTime = new Date();
-                int comparison = escalateTime.compareTo(currentTime);
-                SlaHistory slaHistory = escalation.getSlaHistory();
-                if(comparison < 0 && (slaHistory.getState() == SlaHistory.STAGE.IN_PROGRESS)){
-                escalation.setStatus(true);
-                escalationDao.update(escalation);
-                log.info("inside if condition after check, escalation.getSlaHistory {}", escalation.getSlaHistory());
-                List<String> mailList = new ArrayList<>();
-                JSONArray jsonArray = escalation.getWhomToEscalate();
-                for (int i = 0; i < jsonArray.length(); i++) {
-                String value = jsonArray.getString(i);
-                mailList.add(value);
-                }
-                String mailTemplateName = escalation.getMailTemplateName();
-                String mailConfig = escalation.getTemplateConfiguration();
-                if(mailConfig != null){
-                JSONObject object = new JSONObject(mailConfig);
-                if(object.has(SlaUtils.EMAIL)){
-                result = sendEmail(mailList, mailTemplateName, mailConfig);
-                }
-                }
-                List<Escalation> currentEscalation = escalationDao.getEscalationBySlaHistory(slaHistory.getId());
-                   log.info("currentEscalation.size() {}", currentEscalation.size());
-                   if((currentEscalation.size() - 1) > slaHistory.getLevel()){
-                       log.info("history.getLevel() {},  slaHistory{}", slaHistory.getLevel(), slaHistory );
-                    Escalation escalation1 = escalationDao.getEscalationByLevelAndEntityId(slaHistory.getLevel()+ 1, slaHistory.getId());
-                   slaHistory.setEscalateTime(escalation1.getEscalationTime());
-                   slaHistory.setLevel(slaHistory.getLevel()+ 1);
-                   slaTemplateHistoryDao.update(slaHistory);
-               }
-                }
-            }
+            long dueTime = System.currentTimeMillis();
+            int chunkSize;
+            do {
+                chunkSize = transactionTemplate.execute(status -> escalateDueEscalations(dueTime));
+            } while (chunkSize >= escalationBatchSize);
         }catch (Exception e) {
             log.error("Error Inside @class: EscalationServiceImpl @Method :scheduleEscalateUser() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
         }
-        return result;
+        return null;
+    }
+
+    /**
+     * Queues the mails of the next chunk of due escalations and moves their SLA
+     * histories to the next escalation level. Escalations without mail are
+     * flagged as sent, and counted, right away. The escalations of all the touched histories
+     * are loaded with one query, the changes are flushed on commit.
+     *
+     * @param dueTime The time in milliseconds up to which escalations are due.
+     * @return The number of escalations executed.
+     */
+    private int escalateDueEscalations(long dueTime) {
+        List<Escalation> dueEscalations = escalationDao.getDueEscalations(dueTime, escalationBatchSize);
+        if (dueEscalations.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, SlaHistory> histories = new LinkedHashMap<>();
+        for (Escalation escalation : dueEscalations) {
+            histories.putIfAbsent(escalation.getSlaHistory().getId(), escalation.getSlaHistory());
+        }
+        Map<Integer, Map<Integer, Escalation>> levelsByHistory = new HashMap<>();
+        for (Escalation escalation : escalationDao.getEscalationBySlaHistoryIds(histories.keySet())) {
+            levelsByHistory.computeIfAbsent(escalation.getSlaHistory().getId(), k -> new HashMap<>())
+                    .put(escalation.getLevel(), escalation);
+        }
+        long queuedTime = System.currentTimeMillis();
+        List<Escalation> sentEscalations = new ArrayList<>();
+        for (Escalation escalation : dueEscalations) {
+            if (escalationMailDispatcher.queue(escalation)) {
+                escalation.setMailQueuedTime(queuedTime);
+            } else {
+                escalation.setStatus(true);
+                sentEscalations.add(escalation);
+            }
+            SlaHistory slaHistory = histories.get(escalation.getSlaHistory().getId());
+            Map<Integer, Escalation> levels = levelsByHistory.getOrDefault(slaHistory.getId(), Map.of());
+            log.info("currentEscalation.size() {}", levels.size());
+            if ((levels.size() - 1) > slaHistory.getLevel()) {
+                Escalation nextEscalation = levels.get(slaHistory.getLevel() + 1);
+                if (nextEscalation == null) {
+                    log.warn("no escalation found for level {} of sla history {}", slaHistory.getLevel() + 1,
+                            slaHistory.getId());
+                    continue;
+                }
+                log.info("history.getLevel() {},  slaHistory{}", slaHistory.getLevel(), slaHistory.getId());
+                slaHistory.setEscalateTime(nextEscalation.getEscalationTime());
+                slaHistory.setLevel(slaHistory.getLevel() + 1);
+            }
+        }
+        slaActivityRollup.recordEscalations(sentEscalations);
+        log.info("{} escalations executed for {} sla histories", dueEscalations.size(), histories.size());
+        return dueEscalations.size();
     }
 
     public static List<String> convertToList(String commaSeparatedString) {
@@ -0,0 +1,113 @@
+package com.bootnext.platform.sla.service.impl;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.core.generic.service.impl.AbstractService;
+import com.bootnext.platform.sla.calendar.BusinessCalendarRegistry;
+import com.bootnext.platform.sla.calendar.SlaCalendarSchedule;
+import com.bootnext.platform.sla.dao.ISlaCalendarDao;
+import com.bootnext.platform.sla.model.template.SlaCalendar;
+import com.bootnext.platform.sla.service.ISlaCalendarService;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service implementation for managing the named SLA calendars.
+ *
+ * A calendar defines the working shifts of each weekday, the public holidays
+ * and the one-off closures that SLA templates referring to it exclude from
+ * their breach and escalation times. Calendars are validated on save and the
+ * compiled calendars are refreshed once the change is committed.
+ */
+@Service
+@Slf4j
+public class SlaCalendarServiceImpl extends AbstractService<Integer, SlaCalendar> implements ISlaCalendarService {
+
+    @Autowired
+    private ISlaCalendarDao slaCalendarDao;
+
+    @Autowired
+    private BusinessCalendarRegistry businessCalendarRegistry;
+
+    @Autowired
+    public void setDao(ISlaCalendarDao dao) {
+        super.setDao(dao);
+        slaCalendarDao = dao;
+    }
+
+    /**
+     * Creates a new SLA calendar.
+     *
+     * @param slaCalendar The calendar to create.
+     * @return The created calendar.
+     * @throws BusinessException If a calendar with the same name already exists or
+     *                           the calendar is not valid.
+     */
+    @Override
+    @Transactional
+    public SlaCalendar createSlaCalendar(SlaCalendar slaCalendar) {
+        if (slaCalendar.getId() != null || !slaCalendarDao.getSlaCalendarByName(slaCalendar.getName()).isEmpty()) {
+            throw new BusinessException(SlaUtils.SLA_CALENDAR_ALREADY_EXIST);
+        }
+        try {
+            SlaCalendarSchedule.parse(slaCalendar);
+            long now = new Date().getTime();
+            slaCalendar.setCreatedTime(now);
+            slaCalendar.setModifiedTime(now);
+            SlaCalendar createdCalendar = slaCalendarDao.create(slaCalendar);
+            businessCalendarRegistry.invalidateSchedules();
+            return createdCalendar;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarServiceImpl @Method :createSlaCalendar() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Updates an existing SLA calendar. SLA histories already started keep their
+     * breach time, the new calendar applies to the next computed times.
+     *
+     * @param slaCalendar The calendar with its updated values.
+     * @return The updated calendar.
+     * @throws BusinessException If the calendar is not valid.
+     */
+    @Override
+    @Transactional
+    public SlaCalendar update(SlaCalendar slaCalendar) {
+        try {
+            SlaCalendarSchedule.parse(slaCalendar);
+            slaCalendar.setModifiedTime(new Date().getTime());
+            SlaCalendar updatedCalendar = slaCalendarDao.update(slaCalendar);
+            businessCalendarRegistry.invalidateSchedules();
+            return updatedCalendar;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarServiceImpl @Method :update() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves an SLA calendar by its name.
+     *
+     * @param name The name of the calendar.
+     * @return The calendar, or null if none exists with this name.
+     * @throws BusinessException If an error occurs while retrieving the calendar.
+     */
+    @Override
+    public SlaCalendar getSlaCalendarByName(String name) {
+        try {
+            List<SlaCalendar> slaCalendars = slaCalendarDao.getSlaCalendarByName(name);
+            return slaCalendars.isEmpty() ? null : slaCalendars.get(0);
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaCalendarServiceImpl @Method :getSlaCalendarByName() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
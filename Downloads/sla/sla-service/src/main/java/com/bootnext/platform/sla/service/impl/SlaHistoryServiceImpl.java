@@ -1,36 +1,28 @@
 package com.bootnext.platform.sla.service.impl;
 
-import java.text.SimpleDateFormat;
-import java.time.DayOfWeek;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
+import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bootnext.core.generic.exceptions.application.BusinessException;
 import com.bootnext.core.generic.service.impl.AbstractService;
@@ -38,25 +30,41 @@ import com.bootnext.platform.customannotation.annotation.GenericAnnotation;
 import com.bootnext.platform.notification.model.NotificationTemplate;
 import com.bootnext.platform.notification.model.NotificationTemplateDetail;
 import com.bootnext.platform.notification.rest.INotificationTemplateRest;
+import com.bootnext.platform.sla.calendar.BusinessCalendar;
+import com.bootnext.platform.sla.calendar.BusinessCalendarRegistry;
 import com.bootnext.platform.sla.dao.IEscalationDao;
+import com.bootnext.platform.sla.dashboard.SlaActivityRollup;
+import com.bootnext.platform.sla.mail.EscalationRecipientResolver;
+import com.bootnext.platform.sla.dao.ISlaEntityVersionDao;
 import com.bootnext.platform.sla.dao.ISlaHistoryDao;
-import com.bootnext.platform.sla.dao.ISlaLevelTemplateDao;
-import com.bootnext.platform.sla.dao.ISlaTemplateDao;
+import com.bootnext.platform.sla.dao.ISlaHistoryTransitionDao;
+import com.bootnext.platform.sla.dao.ISlaTriggerInboxDao;
 import com.bootnext.platform.sla.model.template.Escalation;
+import com.bootnext.platform.sla.model.template.SlaDailyActivity;
+import com.bootnext.platform.sla.model.template.SlaEntityVersion;
 import com.bootnext.platform.sla.model.template.SlaHistory;
+import com.bootnext.platform.sla.model.template.SlaHistoryTransition;
 import com.bootnext.platform.sla.model.template.SlaLevelTemplate;
 import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.model.template.SlaTriggerInbox;
+import com.bootnext.platform.sla.registry.RegisteredSlaTemplate;
+import com.bootnext.platform.sla.registry.SlaLevelDefinition;
+import com.bootnext.platform.sla.registry.SlaTemplateRegistry;
+import com.bootnext.platform.sla.registry.SlaTemplateSnapshotRegistry;
+import com.bootnext.platform.sla.registry.SlaWorkingHours;
+import com.bootnext.platform.sla.rule.SlaRule;
+import com.bootnext.platform.sla.rule.SlaRuleContext;
 import com.bootnext.platform.sla.service.ISlaHistoryService;
+import com.bootnext.platform.sla.timeline.SlaTimeline;
+import com.bootnext.platform.sla.timeline.SlaTimelineEntry;
+import com.bootnext.platform.sla.trigger.SlaEntityFields;
+import com.bootnext.platform.sla.trigger.SlaTriggerEvent;
+import com.bootnext.platform.sla.trigger.SlaTriggerFanOut;
+import com.bootnext.platform.sla.trigger.SlaTriggerLanes;
 import com.bootnext.platform.sla.utils.SlaUtils;
-import com.bootnext.platform.umapi.product.um.user.model.User;
-import com.bootnext.platform.umapi.product.um.user.rest.UserRest;
-import com.bootnext.platform.umapi.product.um.usergroup.model.UserGroup;
 import com.bootnext.platform.umapi.product.um.usergroup.rest.UserBusinessUnitRest;
 import com.bootnext.product.audit.utils.ActionType;
 import com.bootnext.product.audit.utils.Auditable;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -76,20 +84,58 @@ import lombok.extern.slf4j.Slf4j;
 public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
         implements ISlaHistoryService {
 
-    @Autowired
-    private ISlaTemplateDao slaTemplateDao;
-    @Autowired
-    private ISlaLevelTemplateDao slaLevelTemplateDao;
     @Autowired
     private ISlaHistoryDao slaTemplateHistoryDao;
     @Autowired
     private IEscalationDao escalationDao;
+    @Autowired
+    private ISlaHistoryTransitionDao slaHistoryTransitionDao;
+    @Autowired
+    private SlaTimeline slaTimeline;
+    @Autowired
+    private SlaActivityRollup slaActivityRollup;
+    @Autowired
+    private SlaTemplateRegistry slaTemplateRegistry;
+    @Autowired
+    private SlaTemplateSnapshotRegistry slaTemplateSnapshotRegistry;
+    @Autowired
+    private BusinessCalendarRegistry businessCalendarRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static final String SLA_BREACHED = "SLA has been breached";
+    private static final int MAX_REASON_LENGTH = 1000;
+    private static final int THIRTY_DAYS = 30;
+
+    @Value("${sla.breach.batch-size:500}")
+    private int breachBatchSize;
+
+    @Value("${sla.proximity.horizon-hours:}")
+    private int[] proximityHorizonHours;
+
+    @Value("${sla.trigger.batch.max-events:1000}")
+    private int triggerBatchMaxEvents;
+
+    @Value("${sla.trigger.field-extraction.enabled:true}")
+    private boolean fieldExtractionEnabled;
 
     @Autowired
     private INotificationTemplateRest notificationTemplateRest;
 
     @Autowired
-    private UserRest userRest;
+    private EscalationRecipientResolver escalationRecipientResolver;
+
+    @Autowired
+    private SlaTriggerFanOut slaTriggerFanOut;
+
+    @Autowired
+    private SlaTriggerLanes slaTriggerLanes;
+
+    @Autowired
+    private ISlaTriggerInboxDao slaTriggerInboxDao;
+
+    @Autowired
+    private ISlaEntityVersionDao slaEntityVersionDao;
 
     @Autowired
     private UserBusinessUnitRest userBusinessUnitRest;
@@ -104,11 +150,20 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * Checks if an SLA should be triggered for a given entity based on certain
      * conditions.
      * If condition matches then performs tasks specified in the template.
+     * Triggers of the same entity are applied one at a time, in arrival order.
      *
      * @param entityString    The JSON representation of the entity.
      * @param applicationName The name of the application.
      * @param entityName      The name of the entity.
      * @param entityId        The ID of the entity.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, or null if unknown.
+     *                        Templates whose conditions read none of them are
+     *                        skipped, unless a condition compares a field with
+     *                        the current time.
+     * @param entityVersion   The version of the entity, or null if unknown.
+     *                        Templates which already applied this version or a
+     *                        later one are skipped.
      * @return True if the SLA is triggered, false otherwise.
      * @throws BusinessException If an error occurs while checking the SLA trigger
      *                           conditions.
@@ -120,42 +175,484 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     // "SlaHistory",globalSearchData="application",searchTitle="name", uniqEntityId
     // = "id")
     // @Auditable(actionType = ActionType.CREATE, actionName = "CREATE")
-    public Boolean triggerSLA(String entityString, String applicationName, String entityName, String entityId) {
-        log.info("entityString {}, applicationName {}, entityName {}, entityId {}", entityString, applicationName,
-                entityName, entityId);
+    public Boolean triggerSLA(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion) {
+        log.info("entityString {}, applicationName {}, entityName {}, entityId {}, changedFields {}, entityVersion {}",
+                entityString, applicationName, entityName, entityId, changedFields, entityVersion);
         boolean matched = false;
         try {
-            JSONObject entity = new JSONObject(entityString);
-            List<SlaTemplate> slaTemplates = slaTemplateDao.getSlaTemplateByApplicationAndExecutedOn(applicationName,
-                    entityName);
+            List<RegisteredSlaTemplate> affectedTemplates = getAffectedTemplates(applicationName, entityName,
+                    changedFields);
+            if (affectedTemplates.isEmpty()) {
+                return false;
+            }
+            int lane = slaTriggerLanes.laneOf(applicationName, entityName, entityId);
+            matched = slaTriggerLanes.run(lane, () -> {
+                Map<String, SlaEntityVersion> entityVersions = loadEntityVersions(applicationName, entityName,
+                        Collections.singleton(entityId), entityVersion);
+                List<RegisteredSlaTemplate> slaTemplates = getUnappliedTemplates(affectedTemplates, entityVersions,
+                        entityId, entityVersion);
+                if (slaTemplates.isEmpty()) {
+                    log.info("version {} of entity {} already applied", entityVersion, entityId);
+                    return false;
+                }
+                SlaRuleContext context = new SlaRuleContext(
+                        getEntityFields(applicationName, entityName).read(entityString));
+                Map<String, SlaHistory> openHistories = loadOpenHistories(applicationName, entityName,
+                        Collections.singleton(entityId));
+                Map<String, SlaStart> starts = prepareStarts(slaTemplates, openHistories, context, entityId);
+
+                boolean templateMatched = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    boolean anyMatched = false;
+                    for (RegisteredSlaTemplate slaTemplate : slaTemplates) {
+                        SlaHistory history = openHistories.get(openHistoryKey(entityId,
+                                slaTemplate.getTemplate().getSlaId()));
+                        if (history != null) {
+                            if (applyOpenHistoryConditionsOrFail(slaTemplate, context, history, entityId)) {
+                                anyMatched = true;
+                            }
+                        } else if (startSlaHistory(slaTemplate, context, entityId,
+                                starts.get(slaTemplate.getTemplate().getSlaId())) != null) {
+                            anyMatched = true;
+                        }
+                        recordEntityVersion(entityVersions, applicationName, entityName, entityId,
+                                slaTemplate.getTemplate().getSlaId(), entityVersion);
+                    }
+                    return anyMatched;
+                }));
+                log.debug("{} predicates evaluated, {} outcomes reused", context.getEvaluatedPredicates(),
+                        context.getReusedOutcomes());
+                return templateMatched;
+            });
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :triggerSLA() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+        return matched;
+    }
 
-            for (SlaTemplate slaTemplate : slaTemplates) {
-                SlaHistory history = slaTemplateHistoryDao.findSlaHistoryByEntityIdAppNameAndEntityName(entityId,
-                        applicationName, entityName, slaTemplate.getSlaId());
+    /**
+     * Triggers the SLA for a batch of entity events, e.g. when an upstream system
+     * replays its backlog.
+     *
+     * The events are given as a JSON array of objects with the "applicationName",
+     * "entityName", "entityId" and "entity" fields and are applied in order, each
+     * event in its own transaction. The templates are resolved once per
+     * application and entity name, and the open SLA histories of all the entities
+     * of a group are loaded with one query. The batch holds the trigger lanes of
+     * all its entities until its last event is committed. An event whose entity
+     * version was already applied is skipped. An event which cannot be applied is
+     * rolled back and reported in the result, the other events are still
+     * applied.
+     *
+     * @param eventsString The JSON array of entity events.
+     * @return A JSON array with, for each event in order, its "entityId" and
+     *         whether an SLA condition "matched", or the "error" if it failed.
+     * @throws BusinessException If the events cannot be parsed or exceed the
+     *                           maximum batch size.
+     */
+    @Override
+    public String triggerSLABatch(String eventsString) {
+        try {
+            List<SlaTriggerEvent> events = SlaTriggerEvent.readAll(eventsString, triggerBatchMaxEvents);
+            log.info("triggerSLABatch with {} events", events.size());
+            Set<Integer> lanes = new HashSet<>();
+            for (SlaTriggerEvent event : events) {
+                if (event.isObject()) {
+                    lanes.add(slaTriggerLanes.laneOf(event.getApplicationName(), event.getEntityName(),
+                            event.getEntityId()));
+                }
+            }
+            JSONArray results = slaTriggerLanes.run(lanes, () -> applyTriggerEvents(events));
+            return results != null ? results.toString() : null;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :triggerSLABatch() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    private JSONArray applyTriggerEvents(List<SlaTriggerEvent> events) {
+        Map<String, Map<String, SlaHistory>> openHistoriesByGroup = new HashMap<>();
+        Map<String, Map<String, SlaEntityVersion>> entityVersionsByGroup = new HashMap<>();
+        Map<String, Set<String>> entityIdsByGroup = new HashMap<>();
+        for (SlaTriggerEvent event : events) {
+            if (event.isObject() && event.getEntityId() != null) {
+                entityIdsByGroup.computeIfAbsent(event.getGroupKey(), k -> new HashSet<>()).add(event.getEntityId());
+            }
+        }
+        JSONArray results = new JSONArray();
+        for (SlaTriggerEvent event : events) {
+            JSONObject result = new JSONObject();
+            try {
+                if (!event.isObject()) {
+                    throw new BusinessException("event at index " + event.getIndex() + " is not a JSON object");
+                }
+                requireEventField(event, SlaUtils.APPLICATION_NAME, event.getApplicationName());
+                requireEventField(event, SlaUtils.ENTITY_NAME, event.getEntityName());
+                result.put(SlaUtils.ENTITY_ID, requireEventField(event, SlaUtils.ENTITY_ID, event.getEntityId()));
+                try {
+                    result.put(SlaUtils.MATCHED, applyTriggerEvent(event, openHistoriesByGroup,
+                            entityVersionsByGroup, entityIdsByGroup));
+                } catch (RuntimeException e) {
+                    // the histories of the group may hold changes of the rolled back transaction,
+                    // the next events of the group read them again
+                    openHistoriesByGroup.remove(event.getGroupKey());
+                    entityVersionsByGroup.remove(event.getGroupKey());
+                    throw e;
+                }
+            } catch (Exception e) {
+                log.error("Error Inside @class: SlaHistoryServiceImpl @Method :applyTriggerEvents() {}",
+                        e.getMessage(), e);
+                result.put("error", String.valueOf(e.getMessage()));
+            }
+            results.put(result);
+        }
+        return results;
+    }
+
+    /**
+     * Applies an event of a batch in its own transaction, the starts of the SLA
+     * histories being prepared before it. The open histories and applied versions
+     * of the group of the event are loaded on first use and kept up to date for
+     * the next events.
+     *
+     * @return True if an SLA condition matched.
+     */
+    private boolean applyTriggerEvent(SlaTriggerEvent event,
+            Map<String, Map<String, SlaHistory>> openHistoriesByGroup,
+            Map<String, Map<String, SlaEntityVersion>> entityVersionsByGroup,
+            Map<String, Set<String>> entityIdsByGroup) {
+        String applicationName = event.getApplicationName();
+        String entityName = event.getEntityName();
+        String entityId = event.getEntityId();
+        Long entityVersion = event.getEntityVersion();
+        List<RegisteredSlaTemplate> slaTemplates = getAffectedTemplates(applicationName, entityName,
+                event.getChangedFields());
+        String groupKey = event.getGroupKey();
+        Map<String, SlaEntityVersion> entityVersions = entityVersion == null || slaTemplates.isEmpty()
+                ? Collections.emptyMap()
+                : entityVersionsByGroup.computeIfAbsent(groupKey, k -> loadEntityVersions(applicationName,
+                        entityName, entityIdsByGroup.get(k), entityVersion));
+        List<RegisteredSlaTemplate> unappliedTemplates = getUnappliedTemplates(slaTemplates, entityVersions,
+                entityId, entityVersion);
+        if (unappliedTemplates.isEmpty()) {
+            return false;
+        }
+        SlaRuleContext context = new SlaRuleContext(event.readEntity(getEntityFields(applicationName, entityName)));
+        Map<String, SlaHistory> openHistories = openHistoriesByGroup.computeIfAbsent(groupKey,
+                k -> loadOpenHistories(applicationName, entityName, entityIdsByGroup.get(k)));
+        Map<String, SlaStart> starts = prepareStarts(unappliedTemplates, openHistories, context, entityId);
 
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            boolean matched = false;
+            for (RegisteredSlaTemplate slaTemplate : unappliedTemplates) {
+                String historyKey = openHistoryKey(entityId, slaTemplate.getTemplate().getSlaId());
+                SlaHistory history = openHistories.get(historyKey);
                 if (history != null) {
-                    if (history.getState().equals(SlaHistory.STAGE.IN_PROGRESS)
-                            && (isOnHoldConditionApply(slaTemplate, entity, history)
-                                    || isStopConditionApply(slaTemplate, entity, history)
-                                    || isCancelConditionApply(slaTemplate, entity, history)
-                                    || isResetConditionApply(slaTemplate, entity, history))) {
+                    if (applyOpenHistoryConditionsOrFail(slaTemplate, context, history, entityId)) {
                         matched = true;
-                    } else if (history.getState().equals(SlaHistory.STAGE.ON_HOLD)
-                            && (isStopConditionApply(slaTemplate, entity, history)
-                                    || isResumeConditionApply(slaTemplate, entity, history, entityId)
-                                    || isCancelConditionApply(slaTemplate, entity, history)
-                                    || isResetConditionApply(slaTemplate, entity, history))) {
+                    }
+                    if (!isOpen(history)) {
+                        openHistories.remove(historyKey);
+                    }
+                } else {
+                    SlaHistory startedHistory = startSlaHistory(slaTemplate, context, entityId,
+                            starts.get(slaTemplate.getTemplate().getSlaId()));
+                    if (startedHistory != null) {
                         matched = true;
+                        openHistories.put(historyKey, startedHistory);
                     }
-                } else if (isStartConditionApply(slaTemplate, entity, entityId)) {
-                    matched = true;
                 }
+                recordEntityVersion(entityVersions, applicationName, entityName, entityId,
+                        slaTemplate.getTemplate().getSlaId(), entityVersion);
             }
+            return matched;
+        }));
+    }
+
+    private Map<String, SlaHistory> loadOpenHistories(String applicationName, String entityName,
+            Set<String> entityIds) {
+        Map<String, SlaHistory> openHistories = new HashMap<>();
+        for (SlaHistory history : slaTemplateHistoryDao.getOpenSlaHistoryByEntityIds(applicationName, entityName,
+                entityIds)) {
+            openHistories.putIfAbsent(openHistoryKey(history.getEntityIdentifier(), history.getSlaIdentifier()),
+                    history);
+        }
+        return openHistories;
+    }
+
+    /**
+     * Accepts an entity event for asynchronous processing: the event is stored
+     * in the SLA_TRIGGER_INBOX table and applied later by the inbox workers, as
+     * {@link #triggerSLA} would apply it. Events of entities without any
+     * affected template are not stored.
+     *
+     * @param entityString    The JSON representation of the entity.
+     * @param applicationName The name of the application.
+     * @param entityName      The name of the entity.
+     * @param entityId        The ID of the entity.
+     * @param changedFields   The paths of the entity fields changed since the
+     *                        previous event of the entity, or null if unknown.
+     * @param entityVersion   The version of the entity, or null if unknown.
+     * @return The ID of the stored event, or null if no template is affected by
+     *         the event.
+     * @throws BusinessException If the event cannot be stored.
+     */
+    @Override
+    public Long acceptSLATrigger(String entityString, String applicationName, String entityName, String entityId,
+            List<String> changedFields, Long entityVersion) {
+        try {
+            if (getAffectedTemplates(applicationName, entityName, changedFields).isEmpty()) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            SlaTriggerInbox event = new SlaTriggerInbox();
+            event.setApplicationName(applicationName);
+            event.setEntityName(entityName);
+            event.setEntityId(entityId);
+            event.setEntity(entityString);
+            if (changedFields != null) {
+                event.setChangedFields(new JSONArray(changedFields).toString());
+            }
+            event.setEntityVersion(entityVersion);
+            event.setState(SlaTriggerInbox.STATE.PENDING);
+            event.setNextAttemptTime(now);
+            event.setCreatedTime(now);
+            event.setModifiedTime(now);
+            SlaTriggerInbox created = transactionTemplate.execute(status -> slaTriggerInboxDao.create(event));
+            return created != null ? created.getId() : null;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :acceptSLATrigger() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reports the processing lag of the asynchronous trigger.
+     *
+     * @return A JSON object with the number of "pending", "processing" and
+     *         "failed" events, and the "lagMillis" elapsed since the oldest event
+     *         not applied yet was accepted (0 if there is none).
+     * @throws BusinessException If the inbox cannot be read.
+     */
+    @Override
+    public String getSLATriggerInboxStatus() {
+        try {
+            long now = System.currentTimeMillis();
+            JSONObject status = new JSONObject();
+            long oldestTime = now;
+            for (SlaTriggerInbox.STATE state : SlaTriggerInbox.STATE.values()) {
+                status.put(state.name().toLowerCase(), 0L);
+            }
+            for (Object[] row : slaTriggerInboxDao.getSlaTriggerInboxStatus()) {
+                SlaTriggerInbox.STATE state = (SlaTriggerInbox.STATE) row[0];
+                status.put(state.name().toLowerCase(), ((Number) row[1]).longValue());
+                if (state != SlaTriggerInbox.STATE.FAILED && row[2] != null) {
+                    oldestTime = Math.min(oldestTime, ((Number) row[2]).longValue());
+                }
+            }
+            status.put("lagMillis", now - oldestTime);
+            return status.toString();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getSLATriggerInboxStatus() {}",
+                    e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the last applied versions of the given entities, by entity and
+     * template.
+     *
+     * @param applicationName The name of the application.
+     * @param entityName      The name of the entity.
+     * @param entityIds       The IDs of the entities.
+     * @param entityVersion   The version of the event, nothing is loaded if null.
+     * @return The applied versions, by {@link #openHistoryKey}.
+     */
+    private Map<String, SlaEntityVersion> loadEntityVersions(String applicationName, String entityName,
+            Set<String> entityIds, Long entityVersion) {
+        Map<String, SlaEntityVersion> entityVersions = new HashMap<>();
+        if (entityVersion == null) {
+            return entityVersions;
+        }
+        for (SlaEntityVersion version : slaEntityVersionDao.getSlaEntityVersionsByEntityIds(applicationName,
+                entityName, entityIds)) {
+            entityVersions.put(openHistoryKey(version.getEntityId(), version.getSlaIdentifier()), version);
+        }
+        return entityVersions;
+    }
+
+    /**
+     * Drops the templates which already applied the version of the event or a
+     * later one: the event is a duplicate, or arrived after a newer state of the
+     * entity.
+     */
+    private static List<RegisteredSlaTemplate> getUnappliedTemplates(List<RegisteredSlaTemplate> slaTemplates,
+            Map<String, SlaEntityVersion> entityVersions, String entityId, Long entityVersion) {
+        if (entityVersion == null || entityVersions.isEmpty()) {
+            return slaTemplates;
+        }
+        List<RegisteredSlaTemplate> unappliedTemplates = new ArrayList<>(slaTemplates.size());
+        for (RegisteredSlaTemplate slaTemplate : slaTemplates) {
+            SlaEntityVersion applied = entityVersions.get(openHistoryKey(entityId,
+                    slaTemplate.getTemplate().getSlaId()));
+            if (applied == null || applied.getEntityVersion() < entityVersion) {
+                unappliedTemplates.add(slaTemplate);
+            }
+        }
+        return unappliedTemplates;
+    }
+
+    /**
+     * Records that a template applied the version of the event. Must be called
+     * inside the transaction applying the event. The row is upserted, so that
+     * instances recording the first version of an entity at the same time do
+     * not fail on the unique key.
+     */
+    private void recordEntityVersion(Map<String, SlaEntityVersion> entityVersions, String applicationName,
+            String entityName, String entityId, String slaIdentifier, Long entityVersion) {
+        if (entityVersion == null) {
+            return;
+        }
+        SlaEntityVersion version = new SlaEntityVersion();
+        version.setApplicationName(applicationName);
+        version.setEntityName(entityName);
+        version.setEntityId(entityId);
+        version.setSlaIdentifier(slaIdentifier);
+        version.setEntityVersion(entityVersion);
+        version.setModifiedTime(System.currentTimeMillis());
+        slaEntityVersionDao.upsertSlaEntityVersion(version);
+        entityVersions.put(openHistoryKey(entityId, slaIdentifier), version);
+    }
+
+    private static String requireEventField(SlaTriggerEvent event, String name, String value) {
+        if (value == null) {
+            throw new BusinessException(name + " of event at index " + event.getIndex() + " is missing");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the templates of the given application and entity whose conditions
+     * may be affected by the changed fields.
+     */
+    private List<RegisteredSlaTemplate> getAffectedTemplates(String applicationName, String entityName,
+            List<String> changedFields) {
+        List<RegisteredSlaTemplate> slaTemplates = slaTemplateRegistry.getTemplates(applicationName, entityName);
+        if (changedFields == null) {
+            return slaTemplates;
+        }
+        List<RegisteredSlaTemplate> affectedTemplates = new ArrayList<>(slaTemplates.size());
+        for (RegisteredSlaTemplate slaTemplate : slaTemplates) {
+            if (slaTemplate.isAffectedBy(changedFields)) {
+                affectedTemplates.add(slaTemplate);
+            }
+        }
+        log.debug("{} of {} sla templates affected by changed fields {}", affectedTemplates.size(),
+                slaTemplates.size(), changedFields);
+        return affectedTemplates;
+    }
+
+    /**
+     * Returns the entity fields to read for the given application and entity,
+     * every field when the extraction is disabled.
+     */
+    private SlaEntityFields getEntityFields(String applicationName, String entityName) {
+        return fieldExtractionEnabled ? slaTemplateRegistry.getEntityFields(applicationName, entityName)
+                : SlaEntityFields.ALL;
+    }
+
+    private boolean applyOpenHistoryConditionsOrFail(RegisteredSlaTemplate slaTemplate, SlaRuleContext context,
+            SlaHistory history, String entityId) {
+        try {
+            return applyOpenHistoryConditions(slaTemplate, context, history, entityId);
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :triggerSLA() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
         }
-        return matched;
+    }
+
+    /**
+     * Prepares the SLA histories started by an entity event before the
+     * transaction creating them: the outcome of the start rules, the breach and
+     * first escalation times and the escalation recipients of the matching
+     * templates. The recipients of all the levels are resolved concurrently, so
+     * that the SLA histories created afterwards do not call the user service one
+     * template and level after the other.
+     *
+     * @param slaTemplates  The templates of the entity.
+     * @param openHistories The open SLA histories of the entity.
+     * @param context       The evaluation of the entity event.
+     * @param entityId      The ID of the entity.
+     * @return The prepared starts, by SLA identifier of the template.
+     */
+    private Map<String, SlaStart> prepareStarts(List<RegisteredSlaTemplate> slaTemplates,
+            Map<String, SlaHistory> openHistories, SlaRuleContext context, String entityId) {
+        Map<String, SlaStart> starts = new HashMap<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (RegisteredSlaTemplate slaTemplate : slaTemplates) {
+            String slaIdentifier = slaTemplate.getTemplate().getSlaId();
+            SlaRule startRule = slaTemplate.getRules().getStartRule();
+            if (openHistories.containsKey(openHistoryKey(entityId, slaIdentifier)) || startRule.isEmpty()) {
+                continue;
+            }
+            StringBuilder expressionBuilder = new StringBuilder();
+            if (!checkRule(startRule, context, expressionBuilder)) {
+                starts.put(slaIdentifier, new SlaStart(false, expressionBuilder, null));
+                continue;
+            }
+            SlaStart start = new SlaStart(true, expressionBuilder, computeStartTimes(slaTemplate));
+            starts.put(slaIdentifier, start);
+            if (escalationRecipientResolver.isResolvedAtSend()) {
+                continue;
+            }
+            for (SlaLevelTemplate slaLevelTemplate : slaTemplate.getLevelTemplates()) {
+                List<String> escalate = jsonArrayToList(new JSONArray(slaLevelTemplate.getEscalationTarget()));
+                String userName = context.getEntity().optString(slaLevelTemplate.getEntityForOwner());
+                tasks.add(() -> start.recipients.put(slaLevelTemplate.getLevel(),
+                        escalationRecipientResolver.resolve(escalate, slaLevelTemplate.getEscalateWhom(), userName,
+                                slaLevelTemplate.getEntityForGeo())));
+            }
+        }
+        slaTriggerFanOut.runAll(tasks);
+        return starts;
+    }
+
+    private static String openHistoryKey(String entityId, String slaIdentifier) {
+        return entityId + '\u0000' + slaIdentifier;
+    }
+
+    private static boolean isOpen(SlaHistory history) {
+        return history.getState() == SlaHistory.STAGE.IN_PROGRESS || history.getState() == SlaHistory.STAGE.ON_HOLD;
+    }
+
+    /**
+     * Applies the conditions of the SLA template to an SLA history which is in
+     * progress or on hold.
+     *
+     * @param slaTemplate The SLA template of the history.
+     * @param context     The evaluation of the entity event.
+     * @param history     The open SLA history of the entity.
+     * @param entityId    The ID of the entity.
+     * @return True if one of the conditions matched, false otherwise.
+     * @throws Exception If an error occurs while checking the conditions.
+     */
+    private boolean applyOpenHistoryConditions(RegisteredSlaTemplate slaTemplate, SlaRuleContext context,
+            SlaHistory history, String entityId) throws Exception {
+        if (history.getState().equals(SlaHistory.STAGE.IN_PROGRESS)) {
+            return isOnHoldConditionApply(slaTemplate, context, history)
+                    || isStopConditionApply(slaTemplate, context, history)
+                    || isCancelConditionApply(slaTemplate, context, history)
+                    || isResetConditionApply(slaTemplate, context, history);
+        } else if (history.getState().equals(SlaHistory.STAGE.ON_HOLD)) {
+            return isStopConditionApply(slaTemplate, context, history)
+                    || isResumeConditionApply(slaTemplate, context, history, entityId)
+                    || isCancelConditionApply(slaTemplate, context, history)
+                    || isResetConditionApply(slaTemplate, context, history);
+        }
+        return false;
     }
 
     /**
@@ -164,22 +661,38 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * If the condition is satisfied it creates new SLA History.
      *
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param entityId    The ID of the entity.
      * @return True if the start conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the start conditions.
      */
-    public boolean isStartConditionApply(SlaTemplate slaTemplate, JSONObject entity, String entityId) throws Exception {
-        boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getStartCondition());
-        StringBuilder expressionBuilder = new StringBuilder();
-        matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+    public boolean isStartConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, String entityId) throws Exception {
+        return startSlaHistory(slaTemplate, context, entityId) != null;
+    }
 
-        log.info("matched in isStartConditionApply {}, startCondition===== {}", matched, slaObject);
-        if (matched) {
-            matched = createSlaHistory(slaTemplate, entityId, entity, expressionBuilder);
+    private SlaHistory startSlaHistory(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, String entityId) {
+        return startSlaHistory(slaTemplate, context, entityId, null);
+    }
+
+    /**
+     * Starts an SLA history if the start rule of the template matches, reusing
+     * the start prepared by {@link #prepareStarts} when given.
+     */
+    private SlaHistory startSlaHistory(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, String entityId,
+            SlaStart start) {
+        if (start == null) {
+            SlaRule startRule = slaTemplate.getRules().getStartRule();
+            StringBuilder expressionBuilder = new StringBuilder();
+            start = new SlaStart(!startRule.isEmpty() && checkRule(startRule, context, expressionBuilder),
+                    expressionBuilder, null);
         }
-        return matched;
+
+        log.info("matched in isStartConditionApply {}, template===== {}", start.matched,
+                slaTemplate.getTemplate().getId());
+        if (start.matched) {
+            return insertSlaHistory(slaTemplate, entityId, context.getEntity(), start.expressionBuilder, start);
+        }
+        return null;
     }
 
     /**
@@ -188,26 +701,28 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * If the condition is satisfied it Changes the state of SLA to ON_Hold.
      *
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param history     The SLA History to set required fields.
      * @return True if the onHold conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the onHold conditions.
      */
-    public boolean isOnHoldConditionApply(SlaTemplate slaTemplate, JSONObject entity, SlaHistory history)
+    public boolean isOnHoldConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, SlaHistory history)
             throws Exception {
         log.info("inside isOnHoldConditionApply {}", history.getId());
         boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getOnHoldCondition());
+        SlaRule rule = slaTemplate.getRules().getOnHoldRule();
         StringBuilder expressionBuilder = new StringBuilder();
-        if (slaObject.length() > 0)
-            matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+        if (!rule.isEmpty())
+            matched = checkRule(rule, context, expressionBuilder);
         if (matched) {
-            JSONObject modifier = entity.optJSONObject("lastModifier");
+            JSONObject modifier = context.getEntity().optJSONObject("lastModifier");
+            SlaHistory.STAGE fromState = history.getState();
             history.setLastModifier(modifier.optString("userName"));
             history.setState(SlaHistory.STAGE.ON_HOLD);
             history.setModifiedTime(new Date().getTime());
             history.setSpelExpression(expressionBuilder.toString());
             slaTemplateHistoryDao.update(history);
+            recordTransition(history, fromState, history.getSpelExpression());
         }
         return matched;
     }
@@ -218,26 +733,28 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * If the condition is satisfied it Changes the state of SLA to COMPLETED.
      *
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param history     The SLA History to set required fields.
      * @return True if the stop conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the stop conditions.
      */
-    public boolean isStopConditionApply(SlaTemplate slaTemplate, JSONObject entity, SlaHistory history)
+    public boolean isStopConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, SlaHistory history)
             throws Exception {
         log.info("inside isStopConditionApply {}", history.getId());
         boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getStopCondition());
+        SlaRule rule = slaTemplate.getRules().getStopRule();
         StringBuilder expressionBuilder = new StringBuilder();
-        if (slaObject.length() > 0)
-            matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+        if (!rule.isEmpty())
+            matched = checkRule(rule, context, expressionBuilder);
         if (matched) {
-            JSONObject modifier = entity.optJSONObject("lastModifier");
+            JSONObject modifier = context.getEntity().optJSONObject("lastModifier");
+            SlaHistory.STAGE fromState = history.getState();
             history.setLastModifier(modifier.optString("userName"));
             history.setState(SlaHistory.STAGE.COMPLETED);
             history.setModifiedTime(new Date().getTime());
             history.setSpelExpression(expressionBuilder.toString());
             slaTemplateHistoryDao.update(history);
+            recordTransition(history, fromState, history.getSpelExpression());
         }
         return matched;
     }
@@ -248,26 +765,28 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * If the condition is satisfied it Changes the state of SLA to CANCELLED.
      *
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param history     The SLA History to set required fields.
      * @return True if the cancel conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the cancel conditions.
      */
-    public boolean isCancelConditionApply(SlaTemplate slaTemplate, JSONObject entity, SlaHistory history)
+    public boolean isCancelConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, SlaHistory history)
             throws Exception {
         log.info("inside isCancelConditionApply {}", history.getId());
         boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getCancelCondition());
+        SlaRule rule = slaTemplate.getRules().getCancelRule();
         StringBuilder expressionBuilder = new StringBuilder();
-        if (slaObject.length() > 0)
-            matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+        if (!rule.isEmpty())
+            matched = checkRule(rule, context, expressionBuilder);
         if (matched) {
-            JSONObject modifier = entity.optJSONObject("lastModifier");
+            JSONObject modifier = context.getEntity().optJSONObject("lastModifier");
+            SlaHistory.STAGE fromState = history.getState();
             history.setLastModifier(modifier.optString("userName"));
             history.setState(SlaHistory.STAGE.CANCELLED);
             history.setSpelExpression(expressionBuilder.toString());
             history.setModifiedTime(new Date().getTime());
             slaTemplateHistoryDao.update(history);
+            recordTransition(history, fromState, history.getSpelExpression());
         }
         return matched;
     }
@@ -282,27 +801,24 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * it to breach time and escalation time respectively.
      * 
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param entityId    The ID of the entity.
      * @param history     The SLA History to set required fields.
      * @return True if the resume conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the resume conditions.
      */
-    public boolean isResumeConditionApply(SlaTemplate slaTemplate, JSONObject entity, SlaHistory history,
+    public boolean isResumeConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, SlaHistory history,
             String entityId) throws Exception {
         log.info("inside isResumeConditionApply {}", history.getId());
         boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getStartCondition());
-
-        JSONObject inTime = new JSONObject(slaTemplate.getInTime());
-        JSONObject outTime = new JSONObject(slaTemplate.getOutTime());
+        SlaRule rule = slaTemplate.getRules().getStartRule();
         StringBuilder expressionBuilder = new StringBuilder();
-        if (slaObject.length() > 0)
-            matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+        if (!rule.isEmpty())
+            matched = checkRule(rule, context, expressionBuilder);
         if (matched) {
 
-            long timeToAdd = new Date().getTime() - history.getModifiedTime();
-            long diffInMinutes = TimeUnit.MILLISECONDS.toMinutes(timeToAdd);
+            Instant onHoldSince = Instant.ofEpochMilli(history.getModifiedTime());
+            Instant resumedAt = Instant.now();
             long oldBreachDateInMilli = history.getBreachTime();
             long oldEscalateDateInMilli = history.getEscalateTime();
             String timeZone = history.getTimeZone();
@@ -311,33 +827,42 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
             ZonedDateTime oldEscalateDate = ZonedDateTime.ofInstant(Instant.ofEpochMilli(oldEscalateDateInMilli),
                     zoneId);
             boolean isExcludingNonWorkingDay = history.getIsExcludeNonWorkingDays();
-            String operationalHours = history.getOperationalHours();
+            SlaWorkingHours workingHours = slaTemplate.getWorkingHours()
+                    .withOperationalHours(slaTemplateSnapshotRegistry.getSnapshot(history).getOperationalHours());
 
+            // the SLA clocks are extended by the working time spent on hold
+            long diffInMinutes = businessCalendarRegistry.getCalendar(zoneId, workingHours, isExcludingNonWorkingDay)
+                    .workingMinutesBetween(onHoldSince, resumedAt);
             ZonedDateTime newBreachDate = addTimeExcludingWeekendsAndWorkingHours(oldBreachDate, diffInMinutes, "add",
-                    isExcludingNonWorkingDay, operationalHours, timeZone, inTime, outTime);
+                    isExcludingNonWorkingDay, workingHours);
             boolean isExcludingNonWorkingDayLevel = true;
-            ZonedDateTime newEscalateDate = addTimeExcludingWeekendsAndWorkingHours(oldEscalateDate, diffInMinutes,
-                    "add", isExcludingNonWorkingDayLevel, operationalHours, timeZone, inTime, outTime);
+            long diffInMinutesLevel = businessCalendarRegistry
+                    .getCalendar(zoneId, workingHours, isExcludingNonWorkingDayLevel)
+                    .workingMinutesBetween(onHoldSince, resumedAt);
+            ZonedDateTime newEscalateDate = addTimeExcludingWeekendsAndWorkingHours(oldEscalateDate,
+                    diffInMinutesLevel, "add", isExcludingNonWorkingDayLevel, workingHours);
 
             long millisnewBreachDate = newBreachDate.toInstant().toEpochMilli();
             long millisNewEscalateDate = newEscalateDate.toInstant().toEpochMilli();
 
-            JSONObject modifier = entity.optJSONObject("lastModifier");
+            JSONObject modifier = context.getEntity().optJSONObject("lastModifier");
             history.setLastModifier(modifier.optString("userName"));
             history.setEscalateTime(millisNewEscalateDate);
             history.setBreachTime(millisnewBreachDate);
+            SlaHistory.STAGE fromState = history.getState();
             history.setState(SlaHistory.STAGE.IN_PROGRESS);
             history.setSpelExpression(expressionBuilder.toString());
             history.setModifiedTime(new Date().getTime());
             slaTemplateHistoryDao.update(history);
+            recordTransition(history, fromState, history.getSpelExpression());
 
             List<Escalation> escalation = escalationDao.getEscalationByEntityId(entityId);
             for (Escalation escalation1 : escalation) {
 
                 ZonedDateTime escalateDate = ZonedDateTime
                         .ofInstant(Instant.ofEpochMilli(escalation1.getEscalationTime()), zoneId);
-                ZonedDateTime newDate = addTimeExcludingWeekendsAndWorkingHours(escalateDate, diffInMinutes, "add",
-                        isExcludingNonWorkingDayLevel, operationalHours, timeZone, inTime, outTime);
+                ZonedDateTime newDate = addTimeExcludingWeekendsAndWorkingHours(escalateDate, diffInMinutesLevel,
+                        "add", isExcludingNonWorkingDayLevel, workingHours);
                 escalation1.setEscalationTime(newDate.toInstant().toEpochMilli());
                 escalationDao.update(escalation1);
             }
@@ -352,31 +877,24 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * the new one.
      *
      * @param slaTemplate The SLA template to check.
-     * @param entity      The JSON representation of the entity.
+     * @param context     The evaluation of the entity event.
      * @param history     The SLA History to set required fields.
      * @return True if the reset conditions are met, false otherwise.
      * @throws Exception If an error occurs while checking the reset conditions.
      */
-    public boolean isResetConditionApply(SlaTemplate slaTemplate, JSONObject entity, SlaHistory history)
+    public boolean isResetConditionApply(RegisteredSlaTemplate slaTemplate, SlaRuleContext context, SlaHistory history)
             throws Exception {
         log.info("inside isResetConditionApply {}", history.getId());
-        JSONObject inTime = new JSONObject(slaTemplate.getInTime());
-        JSONObject outTime = new JSONObject(slaTemplate.getOutTime());
         boolean matched = false;
-        JSONObject slaObject = new JSONObject(slaTemplate.getResetCondition());
+        SlaRule rule = slaTemplate.getRules().getResetRule();
         StringBuilder expressionBuilder = new StringBuilder();
-        if (slaObject.length() > 0)
-            matched = checkRule(slaTemplate, entity, slaObject, expressionBuilder);
+        if (!rule.isEmpty())
+            matched = checkRule(rule, context, expressionBuilder);
         if (matched) {
-            long timeInMinute = Integer.parseInt(slaTemplate.getBreachDate());
-            boolean isExcludingNonWorkingDay = slaTemplate.getIsExcludeNonWorkingDays();
-            String operationalHours = slaTemplate.getOperationalHours();
+            long timeInMinute = slaTemplate.getBreachMinutes();
+            boolean isExcludingNonWorkingDay = slaTemplate.getTemplate().getIsExcludeNonWorkingDays();
             String timeZone = history.getTimeZone();
-            int id = slaTemplate.getId();
-            List<SlaLevelTemplate> slaLevelTemplates = slaLevelTemplateDao.getSlaLevelTemplateById(id);
-            log.info("slaLevelTemplates {}", slaLevelTemplates);
-            SlaLevelTemplate slaLevelTemplate = slaLevelTemplateDao.getSlaLevelTemplateByIdAndLevel(slaTemplate.getId(),
-                    1);
+            SlaLevelTemplate slaLevelTemplate = slaTemplate.getLevelTemplate(1);
             int amountToAdd = Integer.parseInt(slaLevelTemplate.getDurationInMinute());
             String whenToEscalate = slaLevelTemplate.getWhenToEscalate();
             boolean isExcludingNonWorkingDayLevel = true;
@@ -384,19 +902,21 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
             ZoneId zoneId = ZoneId.of(timeZone);
             ZonedDateTime currentDateTime = ZonedDateTime.now(zoneId);
             ZonedDateTime newDateTime = addTimeExcludingWeekendsAndWorkingHours(currentDateTime, timeInMinute, "add",
-                    isExcludingNonWorkingDay, operationalHours, timeZone, inTime, outTime);
+                    isExcludingNonWorkingDay, slaTemplate.getWorkingHours());
 
             ZonedDateTime escalateTime = calculateEscalationTime(newDateTime, amountToAdd, whenToEscalate,
-                    isExcludingNonWorkingDayLevel, history.getId(), timeZone, slaTemplate);
-            JSONObject modifier = entity.optJSONObject("lastModifier");
+                    isExcludingNonWorkingDayLevel, history.getId(), timeZone, slaTemplate.getWorkingHours());
+            JSONObject modifier = context.getEntity().optJSONObject("lastModifier");
             history.setLastModifier(modifier.optString("userName"));
             history.setBreachTime(newDateTime.toInstant().toEpochMilli());
             history.setLevel(1);
             history.setSpelExpression(expressionBuilder.toString());
             history.setEscalateTime(escalateTime.toInstant().toEpochMilli());
+            SlaHistory.STAGE fromState = history.getState();
             history.setState(SlaHistory.STAGE.IN_PROGRESS);
             history.setBreachStatus(false);
             slaTemplateHistoryDao.update(history);
+            recordTransition(history, fromState, history.getSpelExpression());
 
             updateEscalationForReset(entityId, history, newDateTime, isExcludingNonWorkingDayLevel, slaTemplate);
         }
@@ -416,340 +936,45 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      *                                      entity and history.
      */
     public void updateEscalationForReset(String entityId, SlaHistory history, ZonedDateTime newDateTime,
-            boolean isExcludingNonWorkingDayLevel, SlaTemplate slaTemplate) {
+            boolean isExcludingNonWorkingDayLevel, RegisteredSlaTemplate slaTemplate) {
         List<Escalation> escalation = escalationDao.getEscalationByEntityId(entityId);
+        String levelTemplate = slaTemplateSnapshotRegistry.getSnapshot(history).getLevelTemplate();
         for (Escalation escalation1 : escalation) {
-            int i = 0;
-            JSONArray levelJson = new JSONArray(history.getLevelTemplate());
+            JSONArray levelJson = new JSONArray(levelTemplate);
             String timeZone = history.getTimeZone();
-            JSONObject levelObj = levelJson.getJSONObject(i);
+            JSONObject levelObj = levelJson.getJSONObject(0);
             long amountToAddLevel = levelObj.getLong(SlaUtils.BREACH_DATE);
             String whenToEscalateLevel = levelObj.optString(SlaUtils.ESCALATE_WHEN);
             ZonedDateTime escalationTime = calculateEscalationTime(newDateTime, amountToAddLevel, whenToEscalateLevel,
-                    isExcludingNonWorkingDayLevel, history.getId(), timeZone, slaTemplate);
+                    isExcludingNonWorkingDayLevel, history.getId(), timeZone, slaTemplate.getWorkingHours());
             escalation1.setBreachTime(newDateTime.toInstant().toEpochMilli());
             escalation1.setEscalationTime(escalationTime.toInstant().toEpochMilli());
             escalationDao.update(escalation1);
         }
     }
 
-    /**
-     * Evaluates the rules defined in the SLA template against the provided entity
-     * data using SpEL (Spring Expression Language).
-     *
-     * @param slaTemplate The SLA template against which the rules are defined.
-     * @param entity      The JSON object representing the entity data.
-     * @param slaObject   The array of SLA conditions to evaluate.
-     * @return True if the rules are matched, false otherwise.
-     */
-    public boolean checkRule(SlaTemplate slaTemplate, JSONObject entity, JSONObject slaObject,
-            StringBuilder finalExpression) {
-        try {
-            ExpressionParser parser = new SpelExpressionParser();
-            StandardEvaluationContext context = new StandardEvaluationContext();
-            StringBuilder expressionBuilder = new StringBuilder();
-            JSONArray rulesArray = slaObject.getJSONArray(SlaUtils.RULES);
-            iterateRules(rulesArray, slaObject.optString("condition", "N/A"), expressionBuilder, entity,
-                    finalExpression);
-            String expression = expressionBuilder.toString();
-            log.info("expression {}", expression);
-            boolean matched = false;
-            if (expression != null || expression.equals("")) {
-                matched = parser.parseExpression(expression.trim()).getValue(context, Boolean.class);
-            }
-            log.info("final expression {}, matched {}", expression, matched);
-            return matched;
-        } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :checkRule() {}", e.getMessage(), e);
-            throw new BusinessException(e.getMessage());
-        }
-    }
-
-    /**
-     * Recursive method to iterate through the rules defined in the SLA template and
-     * construct the SpEL expression.
-     *
-     * @param rules             The JSON array containing the rules to iterate.
-     * @param parentCondition   The parent condition to apply between nested rules.
-     * @param expressionBuilder The StringBuilder to build the SpEL expression.
-     * @param entity            The JSON object representing the entity data used to
-     *                          evaluate the rules.
-     */
-
-    public void iterateRules(JSONArray rules, String parentCondition, StringBuilder expressionBuilder,
-            JSONObject entity, StringBuilder finalExpression) {
-        try {
-            for (int i = 0; i < rules.length(); i++) {
-                JSONObject rule = rules.getJSONObject(i);
-                if (rule.has("rules")) {
-                    JSONArray nestedRules = rule.getJSONArray("rules");
-                    String nestedCondition = rule.optString("condition", "N/A");
-                    expressionBuilder.append("(");
-                    finalExpression.append("(");
-                    iterateRules(nestedRules, nestedCondition, expressionBuilder, entity, finalExpression);
-                    expressionBuilder.append(")");
-                    finalExpression.append(")");
-                } else {
-                    finalExpression.append("(");
-                    expressionBuilder.append("(").append(generateExpression(rule, entity, finalExpression)).append(")");
-                    finalExpression.append(")");
-                }
-                if (i < rules.length() - 1) {
-                    expressionBuilder.append(parentCondition).append(" ");
-                    finalExpression.append(parentCondition).append(" ");
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :iterateRules() {}", e.getMessage(), e);
-            throw new BusinessException(e.getMessage());
-        }
-    }
-
-    /**
-     * Generates the SpEL expression for a single rule defined in the SLA template.
-     *
-     * @param rule   The JSON object representing a single rule.
-     * @param entity The JSON object representing the entity data used to evaluate
-     *               the rule.
-     * @return The SpEL expression corresponding to the given rule and entity data.
-     */
-    public String generateExpression(JSONObject rule, JSONObject entity, StringBuilder finalExpression) {
-        log.info("rule======={}", rule);
-
-        if (!rule.has(SlaUtils.FIELDS)) {
-            log.info("came to check fields ==============");
-            return SlaUtils.FALSE;
-        }
-        if ((rule.get("operators") instanceof String) || !(rule.get("value") instanceof String)
-                || (rule.get(SlaUtils.FIELDS) instanceof String)) {
-            return SlaUtils.FALSE;
-        }
-
-        ExpressionParser parser = new SpelExpressionParser();
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        JSONObject operators = rule.getJSONObject("operators");
-        String operator = operators.optString(SlaUtils.VALUE);
-        String slaValue = rule.optString(SlaUtils.VALUE);
-        StringBuilder expressionBuilder = new StringBuilder();
-        String json = String.valueOf(entity);
-        JSONObject fields = rule.getJSONObject(SlaUtils.FIELDS);
-        String jsonPathExpression = "/" + fields.getString("name").replace(".", "/");
-        log.info("jsonPathExpression", jsonPathExpression);
-        System.out.println(jsonPathExpression);
-        String valueAtPath = getValueByPath(entity, jsonPathExpression);
-        Expression expressionForObject = parser.parseExpression("#jsonPath.read(#root, '" + jsonPathExpression + "')");
-        context.setVariable("jsonPath", new JsonPathAccessor());
-        String objectEntityValueRaw = getValueByPath(entity, jsonPathExpression);
-        String objectEntityValue = htmlToText(objectEntityValueRaw);
-        log.info("jsonPathExpression {}, expressionForObject {},  objectEntityValue {}", jsonPathExpression,
-                expressionForObject, objectEntityValue);
-        log.info("operator {}, value {}, field {}, objectEntityValue {}", operator, slaValue, fields.getString("name"),
-                objectEntityValue);
-        finalExpression.append(" key: " + fields.getString("name") + ", condition: " + operator + ", value: "
-                + objectEntityValue + " ");
-        switch (operator) {
-            case "==", ">", "<", "!=", "<=", ">=":
-                if (objectEntityValueRaw == null || "".equals(objectEntityValueRaw)) {
-                    return SlaUtils.FALSE;
-                }
-                expressionBuilder.append("").append(Integer.parseInt(objectEntityValue)).append(" ").append(operator)
-                        .append(" ").append(Integer.parseInt(slaValue)).append(" ");
-                break;
-            case "Is_Null":
-                expressionBuilder.append(objectEntityValue).append("== null")
-                        .append(" ");
-                break;
-            case "Is_Not_Null":
-                expressionBuilder.append("'").append(objectEntityValue).append("' ").append("!= null")
-                        .append(" ");
-                break;
-            case "Is_Empty":
-                expressionBuilder.append("'").append(objectEntityValue).append("' ").append("==")
-                        .append("''").append(" ");
-                break;
-            case "Is_Not_Empty":
-                expressionBuilder.append("'").append(objectEntityValue).append("' ").append("!=")
-                        .append("''").append(" ");
-                break;
-            case "Is_Equals":
-                expressionBuilder.append("'").append(objectEntityValue).append("'.").append("equalsIgnoreCase")
-                        .append("('")
-                        .append(slaValue).append("') ").append(" ");
-                break;
-            case "Is_Not_Equals":
-                expressionBuilder.append("!('").append(objectEntityValue).append("'.").append("equalsIgnoreCase")
-                        .append("('")
-                        .append(slaValue).append("')) ").append(" ");
-                break;
-            case "Starts_With":
-                expressionBuilder.append("'").append(objectEntityValue).append("'.").append("startsWith").append("('")
-                        .append(slaValue)
-                        .append("') ").append(" ");
-                break;
-            case "Ends_With":
-                expressionBuilder.append("'").append(objectEntityValue).append("'.").append("endsWith").append("('")
-                        .append(slaValue)
-                        .append("') ").append(" ");
-                break;
-            case "Contains":
-                expressionBuilder.append("'").append(objectEntityValue).append("'.").append("contains").append("('")
-                        .append(slaValue)
-                        .append("') ").append(" ");
-                break;
-            case "Does_Not_Contains":
-                expressionBuilder.append("!('").append(objectEntityValue).append("'.").append("contains").append("('")
-                        .append(slaValue)
-                        .append("')) ").append(" ");
-                break;
-            case "Is_Before":
-                JSONObject obj = new JSONObject(slaValue);
-
-                if (compareDates(objectEntityValue, rule, "before")) {
-                    expressionBuilder.append(SlaUtils.TRUE).append(" ");
-                } else {
-                    expressionBuilder.append(SlaUtils.FALSE).append(" ");
-                }
-                break;
-            case "Is_After":
-                if (compareDates(objectEntityValue, rule, "after")) {
-                    expressionBuilder.append(SlaUtils.TRUE).append(" ");
-                } else {
-                    expressionBuilder.append(SlaUtils.FALSE).append(" ");
-                }
-                break;
-            case "Is_Between":
-                expressionBuilder.append(isDateInBtw(objectEntityValue, rule));
-                break;
-
-            default:
-                expressionBuilder.append("'").append(objectEntityValue).append("'.").append("('").append(slaValue)
-                        .append("') ").append(operator).append(" ");
-
-                break;
-        }
-        return expressionBuilder.toString();
-    }
-
-    private String getValueByPath(JSONObject jsonObject, String path) {
-        // Split the path by '/'
-        String[] keys = path.split("/");
-
-        // Traverse the JSON object based on the path
-        JSONObject currentObj = jsonObject;
-        for (String key : keys) {
-            // Check if key is not empty (as the split method creates an empty string at the
-            // beginning due to leading '/')
-            if (!key.isEmpty()) {
-                // Get the value corresponding to the current key
-                Object value = currentObj.get(key);
-
-                // Check if the value is a JSONObject for further traversal
-                if (value instanceof JSONObject) {
-                    currentObj = (JSONObject) value; // Move to the next JSON object
-                } else {
-                    return value.toString(); // Return the value when found
-                }
-            }
-        }
-
-        return null; // Return null if path not found
-    }
-
-    private String htmlToText(String html) {
-        log.info("inside htmlToText =============={}", html);
-        StringBuilder plainText = new StringBuilder();
-        boolean insideTag = false;
-
-        for (char c : html.toCharArray()) {
-            if (c == '<') {
-                insideTag = true;
-            } else if (c == '>') {
-                insideTag = false;
-            } else if (!insideTag) {
-                plainText.append(c);
-            }
-        }
-
-        return plainText.toString();
-    }
-
-    private boolean compareDates(String objectEntityValue, JSONObject rule, String condition) {
-
-        long hours = rule.getLong(SlaUtils.HOURS);
-        long minutes = rule.getLong(SlaUtils.MINUTES);
-
-        Instant instant = Instant.ofEpochMilli(Long.parseLong(objectEntityValue));
-        LocalDateTime dateTime = LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
-
-        LocalDateTime now = LocalDateTime.now();
-        if (condition.equals("after")) {
-            now = now.plusHours(hours);
-            now = now.plusMinutes(minutes);
-            if (now.compareTo(dateTime) > 0) {
-                return true;
-            }
-        } else {
-            now = now.minusHours(hours);
-            now = now.minusMinutes(minutes);
-            if (now.compareTo(dateTime) < 0) {
-                return true;
-            }
-        }
-
-        return false;
-
-    }
-
-    class JsonPathAccessor {
-        public String read(String json, String path) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            try {
-                JsonNode rootNode = objectMapper.readTree(json);
-                JsonNode valueNode = rootNode.at(path);
-                return valueNode.asText();
-            } catch (Exception e) {
-                log.error("Error Inside @class: SlaHistoryServiceImpl {}", e.getMessage(), e);
-                throw new BusinessException(e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Converts a date string from the given input format to the format
-     * "yyyy-MM-dd".
-     *
-     * @param inputDate   The date string to be converted.
-     * @param inputFormat The format of the input date string.
-     * @return The converted date string in the format "yyyy-MM-dd".
-     */
-    public static String convertToYYYYMMDD(String inputDate, String inputFormat) {
-        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern(inputFormat);
-        LocalDateTime localDateTime = LocalDateTime.parse(inputDate, inputFormatter);
-
-        OffsetDateTime offsetDateTime = OffsetDateTime.of(localDateTime, ZoneOffset.UTC);
-
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        return offsetDateTime.format(outputFormatter);
-    }
-
-    public boolean isDateInBtw(String objValue, JSONObject rule) {
-
-        long currentTimeMillis = System.currentTimeMillis();
-        Date currentDate = new Date(currentTimeMillis);
-
-        Date givenDate = new Date(Long.parseLong(objValue) / 1000);
-
-        long timeDiffMillis = currentDate.getTime() - givenDate.getTime();
-
-        long hours = TimeUnit.MILLISECONDS.toHours(timeDiffMillis);
-        long minutes = TimeUnit.MILLISECONDS.toMinutes(timeDiffMillis) % 60;
-
-        long finalTime = hours * 60 + minutes;
-        long firstTimeInMin = rule.getLong("hours") * 60 + rule.getLong("minute");
-        long secondTimeInMin = rule.getLong("hoursData") * 60 + rule.getLong("minutesData");
-
-        long diff = firstTimeInMin - secondTimeInMin;
-        return (diff > finalTime);
+    /**
+     * Evaluates a compiled rule of the SLA template against the provided entity
+     * data.
+     *
+     * @param rule            The compiled rule of the SLA template.
+     * @param context         The evaluation of the entity event.
+     * @param finalExpression The StringBuilder receiving the description of the
+     *                        rule when it is matched.
+     * @return True if the rules are matched, false otherwise.
+     */
+    public boolean checkRule(SlaRule rule, SlaRuleContext context, StringBuilder finalExpression) {
+        try {
+            boolean matched = rule.evaluate(context);
+            if (matched) {
+                rule.describe(context, finalExpression);
+            }
+            log.info("final expression {}, matched {}", finalExpression, matched);
+            return matched;
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :checkRule() {}", e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
+        }
     }
 
     /**
@@ -757,44 +982,57 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * the provided SlaTemplate,
      * entityId, and entity data.
      *
-     * @param slaTemplate The SlaTemplate object to create SlaHistory and Escalation
-     *                    records from.
+     * @param registeredTemplate The registered SLA template to create SlaHistory
+     *                           and Escalation records from.
      * @param entityId    The ID of the entity for which the SLA history is created.
      * @param entity      The JSON representation of the entity.
      * @return True if the SlaHistory and Escalation records are successfully
      *         created, otherwise false.
      */
-    public boolean createSlaHistory(SlaTemplate slaTemplate, String entityId, JSONObject entity,
+    public boolean createSlaHistory(RegisteredSlaTemplate registeredTemplate, String entityId, JSONObject entity,
             StringBuilder expressionBuilder) {
+        insertSlaHistory(registeredTemplate, entityId, entity, expressionBuilder, null);
+        return true;
+    }
+
+    /**
+     * Computes the breach time and first escalation time of an SLA history of
+     * the template started now.
+     */
+    private SlaStartTimes computeStartTimes(RegisteredSlaTemplate registeredTemplate) {
+        SlaTemplate template = registeredTemplate.getTemplate();
+        SlaWorkingHours workingHours = registeredTemplate.getWorkingHours();
+        log.info("workingHours {}", workingHours);
+
+        ZonedDateTime currentDateTime = ZonedDateTime.now(registeredTemplate.getZoneId());
+        log.info("currentDateTime {}", currentDateTime);
+
+        SlaLevelDefinition firstLevel = registeredTemplate.getFirstLevel();
+        ZonedDateTime breachTime = addTimeExcludingWeekendsAndWorkingHours(currentDateTime,
+                registeredTemplate.getBreachMinutes(), "add", template.getIsExcludeNonWorkingDays(), workingHours);
+        log.info("newDateTime {}", breachTime);
+        ZonedDateTime escalateTime = calculateEscalationTime(breachTime, firstLevel.getBreachDate(),
+                firstLevel.getEscalateWhen(), true, 0, template.getTimeZoneData(), workingHours);
+        log.info("escalateTime {}", escalateTime);
+        return new SlaStartTimes(breachTime, escalateTime);
+    }
+
+    private SlaHistory insertSlaHistory(RegisteredSlaTemplate registeredTemplate, String entityId, JSONObject entity,
+            StringBuilder expressionBuilder, SlaStart start) {
         log.info("inside createSlaHistory");
 
         try {
             log.info("inside createSlaHistory");
 
-            JSONObject inTime = new JSONObject(slaTemplate.getInTime());
-            JSONObject outTime = new JSONObject(slaTemplate.getOutTime());
-            log.info("inTime {}, outTime {}", inTime, outTime);
-
-            int timeInMinute = Integer.parseInt(slaTemplate.getBreachDate());
-            String timeZone = slaTemplate.getTimeZoneData();
-            boolean isExcludingNonWorkingDay = slaTemplate.getIsExcludeNonWorkingDays();
-            String operationalHours = slaTemplate.getOperationalHours();
-            ZonedDateTime currentDateTime = ZonedDateTime.now(ZoneId.of(timeZone));
-            log.info("currentDateTime {}", currentDateTime);
-
-            JSONArray levelJson = new JSONArray(slaTemplate.getLevelTemplate());
-            JSONObject levelJsonObj = levelJson.getJSONObject(0);
-            log.info("levelJsonObj {}", levelJsonObj);
-            long amountToAdd = levelJsonObj.getLong("breachDate");
-            String whenToEscalate = levelJsonObj.optString("escalateWhen");
+            SlaTemplate template = registeredTemplate.getTemplate();
+            SlaWorkingHours workingHours = registeredTemplate.getWorkingHours();
+            String timeZone = template.getTimeZoneData();
             boolean isExcludingNonWorkingDayLevel = true;
 
-            ZonedDateTime breachTime = addTimeExcludingWeekendsAndWorkingHours(currentDateTime, timeInMinute, "add",
-                    isExcludingNonWorkingDay, operationalHours, timeZone, inTime, outTime);
-            log.info("newDateTime {}", breachTime);
-            ZonedDateTime escalateTime = calculateEscalationTime(breachTime, amountToAdd, whenToEscalate,
-                    isExcludingNonWorkingDayLevel, 0, timeZone, slaTemplate);
-            log.info("escalateTime {}", escalateTime);
+            SlaStartTimes startTimes = start != null && start.times != null ? start.times
+                    : computeStartTimes(registeredTemplate);
+            ZonedDateTime breachTime = startTimes.breachTime;
+            ZonedDateTime escalateTime = startTimes.escalateTime;
 
             JSONObject creator = entity.optJSONObject("creator");
             JSONObject modifier = entity.optJSONObject("lastModifier");
@@ -802,50 +1040,47 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
             SlaHistory slaHistory = new SlaHistory();
             slaHistory.setState(SlaHistory.STAGE.IN_PROGRESS);
             slaHistory.setEntityIdentifier(entityId);
-            slaHistory.setApplication(slaTemplate.getApplication());
+            slaHistory.setApplication(template.getApplication());
             slaHistory.setCreatedTime(new Date().getTime());
             slaHistory.setModifiedTime(new Date().getTime());
-            slaHistory.setSlaIdentifier(slaTemplate.getSlaId());
+            slaHistory.setSlaIdentifier(template.getSlaId());
             slaHistory.setBreachStatus(false);
             slaHistory.setStatus(true);
             slaHistory.setBreachTime(breachTime.toInstant().toEpochMilli());
-            slaHistory.setExecutedOn(slaTemplate.getExecutedOn());
-            slaHistory.setIsExcludeNonWorkingDays(slaTemplate.getIsExcludeNonWorkingDays());
-            slaHistory.setStartCondition(slaTemplate.getStartCondition());
-            slaHistory.setCancelCondition(slaTemplate.getCancelCondition());
-            slaHistory.setOnHoldCondition(slaTemplate.getOnHoldCondition());
-            slaHistory.setResumeCondition(slaTemplate.getResumeCondition());
-            slaHistory.setResetCondition(slaTemplate.getResetCondition());
-            slaHistory.setStopCondition(slaTemplate.getStopCondition());
-            slaHistory.setLevelTemplate(slaTemplate.getLevelTemplate());
+            slaHistory.setExecutedOn(template.getExecutedOn());
+            slaHistory.setIsExcludeNonWorkingDays(template.getIsExcludeNonWorkingDays());
+            slaHistory.setSnapshotId(registeredTemplate.getSnapshotId());
             slaHistory.setEscalateTime(escalateTime.toInstant().toEpochMilli());
             slaHistory.setLevel(1);
-            slaHistory.setSlaId("SLA-" + slaTemplate.getId());
+            slaHistory.setSlaId("SLA-" + template.getId());
             slaHistory.setSpelExpression(expressionBuilder.toString());
-            slaHistory.setInTime(slaTemplate.getInTime());
-            slaHistory.setOutTime(slaTemplate.getOutTime());
-            slaHistory.setOperationalHours(slaTemplate.getOperationalHours());
             slaHistory.setOwner(entity.optString("user"));
-            slaHistory.setTimeZone(slaTemplate.getTimeZoneData());
+            slaHistory.setTimeZone(template.getTimeZoneData());
             slaHistory.setCreator(creator.optString("userName"));
             slaHistory.setLastModifier(modifier.optString("userName"));
             slaTemplateHistoryDao.create(slaHistory);
+            recordTransition(slaHistory, null, slaHistory.getSpelExpression());
 
-            int id = slaTemplate.getId();
+            int id = template.getId();
             log.info("sla_template_id {}", id);
-            List<SlaLevelTemplate> slaLevelTemplates = slaLevelTemplateDao.getSlaLevelTemplateById(id);
+            List<SlaLevelTemplate> slaLevelTemplates = registeredTemplate.getLevelTemplates();
 
+            // levels may escalate relatively to a previous level, computed in this loop
+            Map<Integer, ZonedDateTime> computedLevels = new HashMap<>();
+            List<Escalation> escalations = new ArrayList<>(slaLevelTemplates.size());
             for (SlaLevelTemplate slaLevelTemplate : slaLevelTemplates) {
                 String templateName = slaLevelTemplate.getEmailTemplate();
                 long amountToAddLevel = Long.parseLong(slaLevelTemplate.getDurationInMinute());
                 String whenToEscalateLevel = slaLevelTemplate.getWhenToEscalate();
                 ZonedDateTime escalationTime = calculateEscalationTime(breachTime, amountToAddLevel,
-                        whenToEscalateLevel, isExcludingNonWorkingDayLevel, slaHistory.getId(), timeZone, slaTemplate);
+                        whenToEscalateLevel, isExcludingNonWorkingDayLevel, slaHistory.getId(), computedLevels,
+                        timeZone, workingHours);
+                computedLevels.put(slaLevelTemplate.getLevel(), escalationTime);
                 long escalationTimeInTimeStamp = escalationTime.toInstant().toEpochMilli();
                 log.info("template config for escalation {}", slaLevelTemplate.getTemplateConfiguration());
                 JSONObject mailContent = new JSONObject(slaLevelTemplate.getTemplateConfiguration());
                 Escalation escalation = new Escalation();
-                escalation.setSlaId(slaTemplate.getSlaId());
+                escalation.setSlaId(template.getSlaId());
                 escalation.setLevel(slaLevelTemplate.getLevel());
                 escalation.setEntityId(entityId);
                 escalation.setCreatedTime(new Date().getTime());
@@ -862,12 +1097,23 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
                 String userName = entity.optString(slaLevelTemplate.getEntityForOwner());
                 String geo = slaLevelTemplate.getEntityForGeo();
                 log.info("geo {}", geo);
-                List<String> mailToEscalate = getMailForEscalation(escalate, slaLevelTemplate.getEscalateWhom(),
-                        userName, geo);
-                escalation.setWhomToEscalate(listToArray(mailToEscalate));
-                escalationDao.create(escalation);
+                if (escalationRecipientResolver.isResolvedAtSend()) {
+                    escalation.setRecipientSpec(escalationRecipientResolver
+                            .toSpec(escalate, slaLevelTemplate.getEscalateWhom(), userName, geo).toString());
+                } else {
+                    // resolved by prepareStarts unless the lookup failed or did not complete in time
+                    List<String> mailToEscalate = start != null ? start.recipients.get(slaLevelTemplate.getLevel())
+                            : null;
+                    if (mailToEscalate == null) {
+                        mailToEscalate = getMailForEscalation(escalate, slaLevelTemplate.getEscalateWhom(), userName,
+                                geo);
+                    }
+                    escalation.setWhomToEscalate(listToArray(mailToEscalate));
+                }
+                escalations.add(escalation);
             }
-            return true;
+            escalationDao.createAll(escalations);
+            return slaHistory;
         } catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryServiceImpl @Method :createSlaHistory() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
@@ -900,164 +1146,16 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      * Retrieves a list of email addresses for escalation based on the provided
      * parameters.
      *
-     * @param escalate    The escalate string which can be either an email address
-     *                    or an expression starting with "$".
-     * @param isUser      A boolean flag indicating whether the escalation is for a
-     *                    user.
-     * @param isVendor    A boolean flag indicating whether the escalation is for a
-     *                    vendor.
-     * @param isUserGroup A boolean flag indicating whether the escalation is for a
-     *                    user group.
-     * @param userName    The username for which escalation is triggered.
-     * @param geo         The JSON array representing the geographic locations.
+     * @param escalations    The escalation targets, either email addresses,
+     *                       "type : name" pairs or expressions starting with "$".
+     * @param whomToEscalate The type of recipients of the level.
+     * @param userName       The username for which escalation is triggered.
+     * @param geo            The JSON array representing the geographic locations.
      * @return A list of email addresses for escalation.
      */
     public List<String> getMailForEscalation(List<String> escalations, String whomToEscalate, String userName,
             String geo) {
-        List<String> mailList = new ArrayList<>();
-        try {
-            log.info("getMailForEscalation________________");
-            User currentUserWrapper = new User();
-            String currentUser = null;
-            Map<String, Object> filterMap = new HashMap<>();
-
-            for (String escalate : escalations) {
-                if (escalate.startsWith("$")) {
-                    if (userName != null) {
-                        currentUserWrapper = userRest.byUserName(userName);
-                        currentUser = userName;
-                    }
-                    processEscalatePattern(escalate, currentUserWrapper, currentUser, mailList, filterMap, geo);
-                } else {
-                    String[] parts = escalate.split(" : ");
-                    String type = null;
-                    String reciever = null;
-                    if (parts.length == 2) {
-                        type = parts[0].trim();
-                        reciever = parts[1].trim();
-                    }
-                    if (type == null) {
-                        mailList.add(escalate);
-                    } else if (type.equalsIgnoreCase("user")) {
-                        mailList.add(reciever);
-                    } else if (type.equalsIgnoreCase("vendor") || type.equalsIgnoreCase("userGroup")) {
-                        filterMap.put(SlaUtils.GEO, geo);
-
-                        if (type.equalsIgnoreCase("vendor")) {
-                            String valueName = currentUserWrapper.getBusinessUnit().getName();
-                            filterMap.put("businessUnitName", valueName);
-                        } else if (type.equalsIgnoreCase("userGroup")) {
-                            List<UserGroup> userGroupList = userRest.getUserGroupListByUserName(currentUser);
-                            filterMap.put("groupName", userGroupList);
-                        }
-                        Integer llimit = 0;
-                        Integer ulimit = 100;
-                        String gsonString = new Gson().toJson(filterMap);
-                        Map<String, Object> umMap = Collections.singletonMap("filterMap", gsonString);
-                        Map<String, Object> userMap = userRest.usersByFilter(llimit, ulimit, umMap);
-                        extractEmailsFromUserMap(userMap, mailList);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getMailForEscalation() {}", e.getMessage(),
-                    e);
-            throw new BusinessException(e.getMessage());
-        }
-        return mailList;
-    }
-
-    /**
-     * Extracts email addresses from a user map and adds them to the provided mail
-     * list.
-     *
-     * This method iterates through the user map, which contains user data, and
-     * extracts
-     * the email addresses from it. It assumes that the user map contains String
-     * keys
-     * and Object values, where the email address is stored under the key "email" as
-     * a String.
-     * The extracted email addresses are then added to the provided mail list.
-     *
-     * @param userMap  The map containing user data with email addresses.
-     * @param mailList The list to which the extracted email addresses will be
-     *                 added.
-     */
-    private void extractEmailsFromUserMap(Map<String, Object> userMap, List<String> mailList) {
-        for (Map.Entry<String, Object> entry : userMap.entrySet()) {
-            Object valueObject = entry.getValue();
-            if (valueObject instanceof Map) {
-                Map<String, Object> userData = (Map<String, Object>) valueObject;
-                String eMail = (String) userData.get("email");
-                mailList.add(eMail);
-            }
-        }
-    }
-
-    /**
-     * Processes the escalate pattern when the escalate string starts with "$".
-     *
-     * @param escalate           The escalate string starting with "$".
-     * @param currentUserWrapper The User object representing the current user.
-     * @param currentUser        The username of the current user.
-     * @param mailList           The list to store email addresses for escalation.
-     * @param filterMap          The filter map to be used for vendor or user group
-     *                           filtering.
-     * @param geo                The JSON array representing the geographic
-     *                           locations.
-     */
-    private void processEscalatePattern(String escalate, User currentUserWrapper, String currentUser,
-            List<String> mailList, Map<String, Object> filterMap, String geo) {
-        String[] splitPattern = escalate.split("\\.");
-        for (int i = 0; i < splitPattern.length; i++) {
-            String value = splitPattern[i];
-            if (value.equalsIgnoreCase("$Owner")) {
-                User ownerUser = userRest.byUserName(currentUser);
-                currentUserWrapper = ownerUser;
-                String eMail = ownerUser.getEmail();
-                if (i == splitPattern.length - 1) {
-                    mailList.add(eMail);
-                }
-            } else if (value.equalsIgnoreCase("manager")) {
-                currentUserWrapper = userRest.byUserName(currentUserWrapper.getReportingManager());
-                String eMail = currentUserWrapper.getEmail();
-                if (i == splitPattern.length - 1) {
-                    mailList.add(eMail);
-                }
-            } else if (value.equalsIgnoreCase(SlaUtils.VENDOR) || value.equalsIgnoreCase(SlaUtils.USER_SPACE)
-                    || value.equalsIgnoreCase(SlaUtils.BUSINESS_UNIT) || value.equalsIgnoreCase(SlaUtils.USER_GROUP)) {
-                processVendorOrUserGroup(currentUserWrapper, value, filterMap, geo);
-            }
-        }
-    }
-
-    /**
-     * Processes and filters vendors or user groups for escalation based on the
-     * provided value.
-     *
-     * @param currentUserWrapper The User object representing the current user.
-     * @param value              The value indicating the type of escalation to be
-     *                           processed.
-     * @param filterMap          The filter map used for vendor or user group
-     *                           filtering.
-     * @param geo                The JSON array representing the geographic
-     *                           locations.
-     */
-    private void processVendorOrUserGroup(User currentUserWrapper, String value, Map<String, Object> filterMap,
-            String geo) {
-
-        filterMap.put(SlaUtils.GEO, geo);
-
-        if (value.equalsIgnoreCase(SlaUtils.VENDOR) || value.equalsIgnoreCase(SlaUtils.BUSINESS_UNIT)) {
-            String valueName = currentUserWrapper.getBusinessUnit().getName();
-            filterMap.put("businessUnitName", valueName);
-        } else if (value.equalsIgnoreCase(SlaUtils.USER_SPACE)) {
-            String valueName = currentUserWrapper.getUserSpace().getName();
-            filterMap.put(SlaUtils.USER_SPACE, valueName);
-        } else if (value.equalsIgnoreCase(SlaUtils.USER_GROUP)) {
-            List<UserGroup> userGroupList = userRest.getUserGroupListByUserName(currentUserWrapper.getUserName());
-            filterMap.put("groupName", userGroupList);
-        }
+        return escalationRecipientResolver.resolve(escalations, whomToEscalate, userName, geo);
     }
 
     private JSONObject updateMailContent(JSONObject template, JSONObject entity) {
@@ -1254,55 +1352,73 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      *                                 escalation is being calculated.
      * @param timeZone                 The time zone in which the escalation time
      *                                 should be calculated.
-     * @param slaTemplate              The SLA template containing operational hours
-     *                                 and other information.
+     * @param workingHours             The operational hours of the SLA template.
      * @return The escalated date and time based on the specified parameters.
      */
     private ZonedDateTime calculateEscalationTime(ZonedDateTime dateTime, long amountToAdd, String whenToEscalate,
-            boolean isExcludingNonWorkingDay, int entityId, String timeZone, SlaTemplate slaTemplate) {
+            boolean isExcludingNonWorkingDay, int entityId, String timeZone, SlaWorkingHours workingHours) {
+        return calculateEscalationTime(dateTime, amountToAdd, whenToEscalate, isExcludingNonWorkingDay, entityId,
+                Collections.emptyMap(), timeZone, workingHours);
+    }
+
+    /**
+     * Calculates the escalation time based on the specified parameters, the
+     * escalation time of the previous levels being taken from the given map when
+     * they were just computed and are not stored yet.
+     *
+     * @param dateTime                 The base date and time from which to
+     *                                 calculate the escalation time.
+     * @param amountToAdd              The amount of time to add or subtract for
+     *                                 escalation, in minutes.
+     * @param whenToEscalate           The condition for escalation.
+     * @param isExcludingNonWorkingDay A flag indicating whether non-working days
+     *                                 should be excluded from the calculation.
+     * @param entityId                 The SLA history identifier, used to load
+     *                                 the previous levels not found in the map.
+     * @param computedLevels           The escalation times already computed, by
+     *                                 level.
+     * @param timeZone                 The time zone in which the escalation time
+     *                                 should be calculated.
+     * @param workingHours             The operational hours of the SLA template.
+     * @return The escalated date and time based on the specified parameters.
+     */
+    private ZonedDateTime calculateEscalationTime(ZonedDateTime dateTime, long amountToAdd, String whenToEscalate,
+            boolean isExcludingNonWorkingDay, int entityId, Map<Integer, ZonedDateTime> computedLevels,
+            String timeZone, SlaWorkingHours workingHours) {
         log.info(
                 "============================ dateTime {}, amountToAdd {}, whenToEscalate {}, isExcludingNonWorkingDay {}, entityId {}",
                 dateTime, amountToAdd, whenToEscalate, isExcludingNonWorkingDay, entityId);
 
-        JSONObject inTime = new JSONObject(slaTemplate.getInTime());
-        JSONObject outTime = new JSONObject(slaTemplate.getOutTime());
         String escalateCondition = whenToEscalate.toUpperCase();
-        Escalation escalation;
         int level = 0;
         switch (escalateCondition) {
             case "BEFORE SLA IS BREACHED":
                 dateTime = addTimeExcludingWeekendsAndWorkingHours(dateTime, amountToAdd, "sub",
-                        isExcludingNonWorkingDay, slaTemplate.getOperationalHours(), timeZone, inTime, outTime);
+                        isExcludingNonWorkingDay, workingHours);
                 break;
 
             case "AFTER SLA IS BREACHED":
                 dateTime = addTimeExcludingWeekendsAndWorkingHours(dateTime, amountToAdd, "add",
-                        isExcludingNonWorkingDay, slaTemplate.getOperationalHours(), timeZone, inTime, outTime);
+                        isExcludingNonWorkingDay, workingHours);
                 break;
 
             case "AS SOON AS LEVEL 1 IS ESCALATED", "AS SOON AS LEVEL 2 IS ESCALATED":
                 level = escalateCondition.contains(SlaUtils.LEVEL1) ? 1 : 2;
-                escalation = escalationDao.getEscalationByLevelAndEntityId(level, entityId);
-                dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(escalation.getEscalationTime()),
-                        ZoneId.of(timeZone));
+                dateTime = getLevelEscalationTime(level, entityId, computedLevels, timeZone);
                 break;
 
             case "AFTER LEVEL 1 IS ESCALATED", "AFTER LEVEL 2 IS ESCALATED":
                 level = escalateCondition.contains(SlaUtils.LEVEL1) ? 1 : 2;
-                escalation = escalationDao.getEscalationByLevelAndEntityId(level, entityId);
-                ZonedDateTime dateL = ZonedDateTime.ofInstant(Instant.ofEpochMilli(escalation.getEscalationTime()),
-                        ZoneId.of(timeZone));
+                ZonedDateTime dateL = getLevelEscalationTime(level, entityId, computedLevels, timeZone);
                 dateTime = addTimeExcludingWeekendsAndWorkingHours(dateL, amountToAdd, "add", isExcludingNonWorkingDay,
-                        slaTemplate.getOperationalHours(), timeZone, inTime, outTime);
+                        workingHours);
                 break;
 
             case "BEFORE LEVEL 1 IS ESCALATED", "BEFORE LEVEL 2 IS ESCALATED":
                 level = escalateCondition.contains(SlaUtils.LEVEL1) ? 1 : 2;
-                escalation = escalationDao.getEscalationByLevelAndEntityId(level, entityId);
-                ZonedDateTime dateF = ZonedDateTime.ofInstant(Instant.ofEpochMilli(escalation.getEscalationTime()),
-                        ZoneId.of(timeZone));
+                ZonedDateTime dateF = getLevelEscalationTime(level, entityId, computedLevels, timeZone);
                 dateTime = addTimeExcludingWeekendsAndWorkingHours(dateF, amountToAdd, "sub", isExcludingNonWorkingDay,
-                        slaTemplate.getOperationalHours(), timeZone, inTime, outTime);
+                        workingHours);
                 break;
 
             default:
@@ -1312,6 +1428,16 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
         return dateTime;
     }
 
+    private ZonedDateTime getLevelEscalationTime(int level, int entityId, Map<Integer, ZonedDateTime> computedLevels,
+            String timeZone) {
+        ZonedDateTime computed = computedLevels.get(level);
+        if (computed != null) {
+            return computed;
+        }
+        Escalation escalation = escalationDao.getEscalationByLevelAndEntityId(level, entityId);
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(escalation.getEscalationTime()), ZoneId.of(timeZone));
+    }
+
     /**
      * Calculates the new date and time by adding or subtracting the specified
      * amount of time while considering operational hours and excluding weekends if
@@ -1324,56 +1450,22 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
      *                         time.
      * @param excludeWeekends  A flag indicating whether to exclude weekends from
      *                         the calculation.
-     * @param operationalHours The type of operational hours ("Calendar Hours" or
-     *                         custom working hours).
-     * @param timeZone         The time zone in which the calculation should be
-     *                         performed.
-     * @param inTime           The starting time of the working hours as a
-     *                         JSONObject with "hours" and "minutes" fields.
-     * @param outTime          The ending time of the working hours as a JSONObject
-     *                         with "hours" and "minutes" fields.
+     * @param workingHours     The operational hours ("Calendar Hours" or custom
+     *                         working hours) of the SLA template.
      * @return The new date and time after adding or subtracting the specified
      *         amount of time.
      */
     private ZonedDateTime addTimeExcludingWeekendsAndWorkingHours(ZonedDateTime dateTime, long amountToAdd,
-            String addOrSub, boolean excludeWeekends, String operationalHours, String timeZone, JSONObject inTime,
-            JSONObject outTime) {
-        log.info(
-                "dateTime {}, amountToAdd {}, addOrSub {}, excludeWeekends {}, operationalHours {}, timeZone {}, inTime {}, outTime {}",
-                dateTime, amountToAdd, addOrSub, excludeWeekends, operationalHours, timeZone, inTime, outTime);
+            String addOrSub, boolean excludeWeekends, SlaWorkingHours workingHours) {
+        log.info("dateTime {}, amountToAdd {}, addOrSub {}, excludeWeekends {}, workingHours {}", dateTime,
+                amountToAdd, addOrSub, excludeWeekends, workingHours);
         try {
-            ZonedDateTime resultDateTime = dateTime;
-
-            if (operationalHours.equalsIgnoreCase("Calendar Hours")) {
-                return resultDateTime.plus(amountToAdd, ChronoUnit.MINUTES);
-            }
-
-            int startHour = Integer.parseInt(inTime.optString("hours"));
-            int startMinute = Integer.parseInt(inTime.optString("minutes"));
-            int endHour = Integer.parseInt(outTime.optString("hours"));
-            int endMinute = Integer.parseInt(outTime.optString("minutes"));
-
-            if (excludeWeekends) {
-                resultDateTime = adjustForWeekends(resultDateTime);
-            }
-
-            ZonedDateTime startDateTime = resultDateTime.withHour(startHour).withMinute(startMinute);
-            ZonedDateTime endDateTime = getEndDateTime(resultDateTime, startHour, startMinute, endHour, endMinute,
+            BusinessCalendar calendar = businessCalendarRegistry.getCalendar(dateTime.getZone(), workingHours,
                     excludeWeekends);
-
-            resultDateTime = adjustForComparison(resultDateTime, startDateTime, endDateTime, addOrSub);
-
-            if (amountToAdd > 0) {
-                long remainingWorkingMinutes = getRemainingWorkingMinutes(resultDateTime, endDateTime);
-
-                if (amountToAdd < remainingWorkingMinutes) {
-                    resultDateTime = resultDateTime.plus(amountToAdd, ChronoUnit.MINUTES);
-                } else {
-                    resultDateTime = handleRemainingMinutes(resultDateTime, amountToAdd, startDateTime, endDateTime,
-                            addOrSub, excludeWeekends);
-                }
+            if (addOrSub.equalsIgnoreCase("add")) {
+                return calendar.plusWorkingMinutes(dateTime, amountToAdd);
             }
-            return resultDateTime;
+            return calendar.minusWorkingMinutes(dateTime, amountToAdd);
         } catch (Exception e) {
             log.error(
                     "Error Inside @class: SlaHistoryServiceImpl @Method :addTimeExcludingWeekendsAndWorkingHours() {}",
@@ -1382,206 +1474,28 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
         }
     }
 
-    /**
-     * Adjusts the given ZonedDateTime to the next working day if it falls on a
-     * Saturday or Sunday.
-     *
-     * @param dateTime The ZonedDateTime to be adjusted.
-     * @return The adjusted ZonedDateTime.
-     */
-    private ZonedDateTime adjustForWeekends(ZonedDateTime dateTime) {
-        if (dateTime.getDayOfWeek() == DayOfWeek.SATURDAY) {
-            return dateTime.plusDays(2);
-        } else if (dateTime.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            return dateTime.plusDays(1);
-        }
-        return dateTime;
-    }
-
-    /**
-     * Calculates the ZonedDateTime for the end of the working hours based on the
-     * input parameters.
-     *
-     * @param currentDateTime The current ZonedDateTime.
-     * @param startHour       The hour of the starting time.
-     * @param startMinute     The minute of the starting time.
-     * @param endHour         The hour of the ending time.
-     * @param endMinute       The minute of the ending time.
-     * @param excludeWeekends A boolean flag indicating whether weekends should be
-     *                        excluded.
-     * @return The ZonedDateTime for the end of the working hours.
-     */
-    private ZonedDateTime getEndDateTime(ZonedDateTime currentDateTime, int startHour, int startMinute, int endHour,
-            int endMinute, boolean excludeWeekends) {
-        ZonedDateTime endDateTime;
-        if ((startHour > endHour) || ((startHour == endHour) && (startMinute > endMinute))) {
-            if (excludeWeekends) {
-                if (currentDateTime.getDayOfWeek() == DayOfWeek.FRIDAY) {
-                    endDateTime = currentDateTime.withHour(23).withMinute(59);
-                } else {
-                    endDateTime = currentDateTime.plusDays(1).withHour(endHour).withMinute(endMinute);
-                }
-            } else {
-                endDateTime = currentDateTime.plusDays(1).withHour(endHour).withMinute(endMinute);
-            }
-        } else {
-            endDateTime = currentDateTime.withHour(endHour).withMinute(endMinute);
-        }
-        return endDateTime;
-    }
-
-    /**
-     * Adjusts the ZonedDateTime based on the comparison with the startDateTime and
-     * endDateTime.
-     *
-     * @param resultDateTime The ZonedDateTime to be adjusted.
-     * @param startDateTime  The ZonedDateTime representing the start of the working
-     *                       hours.
-     * @param endDateTime    The ZonedDateTime representing the end of the working
-     *                       hours.
-     * @param addOrSub       The operation to be performed (either "add" or "sub").
-     * @return The adjusted ZonedDateTime.
-     */
-    private ZonedDateTime adjustForComparison(ZonedDateTime resultDateTime, ZonedDateTime startDateTime,
-            ZonedDateTime endDateTime, String addOrSub) {
-        int comparisonResultForStart = resultDateTime.compareTo(startDateTime);
-        int comparisonResultForEnd = resultDateTime.compareTo(endDateTime);
-        if (addOrSub.equalsIgnoreCase("add")) {
-            if (comparisonResultForStart < 0) {
-                return resultDateTime.withHour(startDateTime.getHour()).withMinute(startDateTime.getMinute());
-            } else if (comparisonResultForEnd > 0) {
-                return resultDateTime.plusDays(1).withHour(startDateTime.getHour())
-                        .withMinute(startDateTime.getMinute());
-            }
-        } else {
-            if (comparisonResultForStart < 0) {
-                return resultDateTime.withHour(endDateTime.getHour()).withMinute(endDateTime.getMinute());
-            } else if (comparisonResultForEnd > 0) {
-                return resultDateTime.minusDays(1).withHour(endDateTime.getHour()).withMinute(endDateTime.getMinute());
-            }
-        }
-        return resultDateTime;
-    }
-
-    /**
-     * Calculates the remaining working minutes between two ZonedDateTime instances.
-     *
-     * @param resultDateTime The starting ZonedDateTime.
-     * @param endDateTime    The ending ZonedDateTime.
-     * @return The remaining working minutes between the two ZonedDateTime
-     *         instances.
-     */
-    private long getRemainingWorkingMinutes(ZonedDateTime resultDateTime, ZonedDateTime endDateTime) {
-        Duration duration = Duration.between(resultDateTime, endDateTime);
-        return duration.toMinutes();
-    }
-
-    /**
-     * Handles the remaining minutes after adding regular working hours and working
-     * days.
-     *
-     * @param resultDateTime  The current ZonedDateTime.
-     * @param amountToAdd     The remaining minutes to be added.
-     * @param startDateTime   The starting ZonedDateTime with working hours.
-     * @param endDateTime     The ending ZonedDateTime with working hours.
-     * @param addOrSub        The operation to add or subtract time.
-     * @param excludeWeekends Flag indicating whether weekends are excluded.
-     * @return The adjusted ZonedDateTime with the remaining minutes added.
-     */
-    private ZonedDateTime handleRemainingMinutes(ZonedDateTime resultDateTime, long amountToAdd,
-            ZonedDateTime startDateTime, ZonedDateTime endDateTime, String addOrSub, boolean excludeWeekends) {
-        long workingMinutes = getWorkingMinutesBetweenDates(startDateTime, endDateTime);
-        amountToAdd -= workingMinutes;
-
-        while (amountToAdd > 0) {
-            resultDateTime = resultDateTime.plusDays(1);
-            if (excludeWeekends) {
-                resultDateTime = skipWeekends(resultDateTime, addOrSub);
-            }
-            amountToAdd -= workingMinutes;
-        }
-
-        if (amountToAdd < 0) {
-            resultDateTime = adjustForExcessTime(resultDateTime, amountToAdd, workingMinutes, addOrSub);
-        }
-
-        return resultDateTime;
-    }
-
-    /**
-     * Skips weekends (Saturday and Sunday) by adding or subtracting days from the
-     * given ZonedDateTime.
-     *
-     * @param dateTime The current ZonedDateTime.
-     * @param addOrSub The operation to add or subtract days.
-     * @return The adjusted ZonedDateTime that falls on a working day.
-     */
-    private ZonedDateTime skipWeekends(ZonedDateTime dateTime, String addOrSub) {
-        while (dateTime.getDayOfWeek() == DayOfWeek.SATURDAY || dateTime.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            if (addOrSub.equalsIgnoreCase("add")) {
-                dateTime = dateTime.plusDays(1);
-            } else {
-                dateTime = dateTime.minusDays(1);
-            }
-        }
-        return dateTime;
-    }
-
-    /**
-     * Adjusts the dateTime for excess time when the amountToAdd is greater than
-     * workingMinutes in a single working day.
-     *
-     * @param dateTime       The current ZonedDateTime.
-     * @param amountToAdd    The excess amount of time to be added or subtracted.
-     * @param workingMinutes The number of working minutes in a single working day.
-     * @param addOrSub       The operation to add or subtract excess time.
-     * @return The adjusted ZonedDateTime considering the excess time.
-     */
-    private ZonedDateTime adjustForExcessTime(ZonedDateTime dateTime, long amountToAdd, long workingMinutes,
-            String addOrSub) {
-        amountToAdd += workingMinutes;
-        if (addOrSub.equalsIgnoreCase("add")) {
-            return dateTime.plus(amountToAdd, ChronoUnit.MINUTES);
-        } else {
-            return dateTime.minus(amountToAdd, ChronoUnit.MINUTES);
-        }
-    }
-
-    /**
-     * Calculates the working minutes between two ZonedDateTime objects.
-     *
-     * @param startDateTime The start ZonedDateTime.
-     * @param endDateTime   The end ZonedDateTime.
-     * @return The total number of working minutes between the two dates.
-     */
-    private long getWorkingMinutesBetweenDates(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
-        Duration duration = Duration.between(startDateTime, endDateTime);
-        return duration.toMinutes();
-    }
-
     /**
      * Scheduled task to check and execute SLA history.
      *
+     * Only the in progress histories whose breach time is reached are loaded,
+     * in chunks of "sla.breach.batch-size" rows. Each chunk is flagged as breached
+     * and committed in its own transaction so that the updates are sent as JDBC
+     * batches, and flagged histories drop out of the next chunk query.
+     *
      * @return Returns null.
      */
     @Override
     public String scheduledExecuteHistory() {
         log.info(SlaUtils.INSIDE_METHOD, "checkAndExecuteHistory");
         try {
-            List<SlaHistory> slaTemplateHistories = slaTemplateHistoryDao.getAllSlaHistory();
-            for (SlaHistory slaHistory1 : slaTemplateHistories) {
-
-                long breachDate = slaHistory1.getBreachTime();
-                long currentDate = new Date().getTime();
-                if (currentDate > breachDate && slaHistory1.getState().equals(SlaHistory.STAGE.IN_PROGRESS)) {
-                    slaHistory1.setLastUpdatedTime(new Date().getTime());
-                    slaHistory1.setBreachStatus(true);
-                    slaHistory1.setModifiedTime(new Date().getTime());
-                    slaHistory1.setBreachedAt(slaHistory1.getLevel());
-                    log.info("Breached histories are executed !!!!! {}", slaHistory1.getEntityIdentifier());
-                    slaTemplateHistoryDao.create(slaHistory1);
-                }
-            }
+            long dueTime = System.currentTimeMillis();
+            int breachedCount = 0;
+            int chunkSize;
+            do {
+                chunkSize = transactionTemplate.execute(status -> markDueHistoriesAsBreached(dueTime));
+                breachedCount += chunkSize;
+            } while (chunkSize >= breachBatchSize);
+            log.info("Breached histories are executed, {} histories breached", breachedCount);
         } catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryServiceImpl @Method :scheduledExecuteHistory() {}",
                     e.getMessage(), e);
@@ -1591,7 +1505,30 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     }
 
     /**
-     * Get the count of SLA breaches and SLA escalations for the present day.
+     * Flags the next chunk of due histories as breached. The histories are managed
+     * by the current transaction, the changes are flushed on commit.
+     *
+     * @param dueTime The time in milliseconds up to which histories are due.
+     * @return The number of histories flagged as breached.
+     */
+    private int markDueHistoriesAsBreached(long dueTime) {
+        List<SlaHistory> dueHistories = slaTemplateHistoryDao.getDueSlaHistory(dueTime, breachBatchSize);
+        long currentTime = System.currentTimeMillis();
+        for (SlaHistory slaHistory : dueHistories) {
+            slaHistory.setLastUpdatedTime(currentTime);
+            slaHistory.setBreachStatus(true);
+            slaHistory.setModifiedTime(currentTime);
+            slaHistory.setBreachedAt(slaHistory.getLevel());
+            recordTransition(slaHistory, slaHistory.getState(), SLA_BREACHED);
+            log.info("Breached histories are executed !!!!! {}", slaHistory.getEntityIdentifier());
+        }
+        slaActivityRollup.recordBreaches(dueHistories);
+        return dueHistories.size();
+    }
+
+    /**
+     * Get the count of SLA breaches and SLA escalations for the present day, from
+     * the daily activity counters.
      *
      * @return Returns a JSON object containing the counts of breaches, escalations,
      *         and total activities for the present day.
@@ -1599,11 +1536,10 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     @Override
     public String getPresentDayActivities() {
         try {
-            Date currentDate = new Date();
-            SimpleDateFormat dateFormat = new SimpleDateFormat(SlaUtils.YYYY_MM_DD);
-            String formattedCurrentDate = dateFormat.format(currentDate);
-            long slaBreached = getBreachCount(formattedCurrentDate, dateFormat, true);
-            long slaEscalated = getEscalationCount(formattedCurrentDate, dateFormat);
+            Map<SlaDailyActivity.METRIC, Long> today = slaActivityRollup.getDailyTotals(1)
+                    .getOrDefault(0, Collections.emptyMap());
+            long slaBreached = today.getOrDefault(SlaDailyActivity.METRIC.BREACHED, 0L);
+            long slaEscalated = today.getOrDefault(SlaDailyActivity.METRIC.ESCALATED, 0L);
             long totalActivities = slaBreached + slaEscalated;
             JSONObject jsonObject = new JSONObject();
 
@@ -1620,118 +1556,63 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     }
 
     /**
-     * Get the count of SLA escalations that occurred on a given date.
+     * Get the SLA breach proximity for different time ranges (today, tomorrow, this
+     * week, this month and the configured horizons).
      *
-     * @param date       The date for which the escalations are counted.
-     * @param dateFormat The date format used to parse the escalation dates.
-     * @return Returns the count of SLA escalations that occurred on the given date.
-     */
-    public long getEscalationCount(String date, SimpleDateFormat dateFormat) {
-
-        List<Escalation> escalations = escalationDao.getAllEscalations(true);
-        long slaEscalated = 0;
-        for (Escalation escalation : escalations) {
-            Long escalationDate = escalation.getEscalationTime();
-            String formattedEscalationDate = dateFormat.format(escalationDate);
-            boolean isSameDate = formattedEscalationDate.compareTo(date) == 0;
-            if (isSameDate) {
-                slaEscalated++;
-            }
-        }
-        return slaEscalated;
-    }
-
-    /**
-     * Get the count of SLA breaches that occurred on a given date.
+     * The days are the days of the given time zone. Each range is counted on the
+     * in progress histories not breached yet, as a range of breach times.
      *
-     * @param date       The date for which the breaches are counted.
-     * @param dateFormat The date format used to parse the breach dates.
-     * @return Returns the count of SLA breaches that occurred on the given date.
+     * @param timeZone The time zone of the caller, the system time zone if null.
+     * @return Returns a JSON object containing the counts of breaches for each time
+     *         range.
      */
-    public long getBreachCount(String date, SimpleDateFormat dateFormat, boolean breachStatus) {
-        log.info("date {}, dateFormat {}, breachStatus {}", date, dateFormat, breachStatus);
-        List<SlaHistory> histories = slaTemplateHistoryDao.getAllBreachedSlaHistory(breachStatus);
-        long slaBreached = 0;
-        for (SlaHistory history : histories) {
-            Long breachDateInLong = history.getBreachTime();
-            Date breachDate = new Date(breachDateInLong);
-            String formattedBreachDate = dateFormat.format(breachDate);
-            boolean isSameDate = formattedBreachDate.compareTo(date) == 0;
-            if (isSameDate) {
-                slaBreached++;
+    @Override
+    public String getSlaBreachProximity(String timeZone) {
+        try {
+            ZoneId zoneId = timeZone == null || timeZone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+            ZonedDateTime today = LocalDate.now(zoneId).atStartOfDay(zoneId);
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("Today", countDueBetween(today, today.plusDays(1)));
+            jsonObject.put("Tomorrow", countDueBetween(today.plusDays(1), today.plusDays(2)));
+            jsonObject.put("ThisWeek", countDueBetween(today, today.plusDays(8)));
+            jsonObject.put("ThisMonth", countDueBetween(today, today.plusDays(31)));
+            ZonedDateTime now = ZonedDateTime.now(zoneId);
+            for (int hours : proximityHorizonHours) {
+                jsonObject.put("Next" + hours + "Hours", countDueBetween(now, now.plusHours(hours)));
             }
+            return jsonObject.toString();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getSlaBreachProximity() {}", e.getMessage(),
+                    e);
+            throw new BusinessException(e.getMessage());
         }
-        return slaBreached;
     }
 
     /**
-     * Get the SLA breach proximity for different time ranges (today, tomorrow, this
-     * week, and this month).
-     *
-     * @return Returns a JSON object containing the counts of breaches for each time
-     *         range.
+     * Counts the histories due between two times, the end being excluded.
      */
-    @Override
-    public String getSlaBreachProximity() {
-
-        List<Object[]> list = slaTemplateHistoryDao.getSlaProximity();
-        JSONObject jsonObject = new JSONObject();
-        for (Object[] obj : list) {
-            String key = obj[0].toString();
-            String value = obj[1].toString();
-            jsonObject.put(key, value);
-        }
-        return jsonObject.toString();
+    private String countDueBetween(ZonedDateTime from, ZonedDateTime to) {
+        return String.valueOf(slaTemplateHistoryDao.countDueSlaHistoryBetween(from.toInstant().toEpochMilli(),
+                to.toInstant().toEpochMilli()));
     }
 
     /**
-     * Get the activities (breach count and escalation count) for the last 30 days.
+     * Get the activities (breach count and escalation count) for the last 30 days,
+     * from the daily activity counters.
      *
      * @return Returns a JSON array containing the breach count and escalation count
      *         for each day.
      */
     @Override
     public Map<String, Map<String, Integer>> getActivitiesForThirtyDays() {
-
-        List<Object[]> breaches = slaTemplateHistoryDao.getThirtyDaysBreaches();
-        List<Object[]> escalations = escalationDao.getThirtyDaysEscalations();
-        Date currentDate = new Date();
-        SimpleDateFormat dateFormat = new SimpleDateFormat(SlaUtils.YYYY_MM_DD);
-        Map<String, Map<String, Integer>> outterMap = new HashMap<>();
-        Map<String, Integer> innerMap = new HashMap<>();
-        for (int i = 1; i <= 30; i++) {
-            String formattedCurrentDate = dateFormat.format(currentDate);
-            innerMap.put("breached", 0);
-            innerMap.put("escalated", 0);
-            outterMap.put(formattedCurrentDate, innerMap);
-            final long ONE_MINUTE_IN_MILLIS = 60000;
-            currentDate = new Date(currentDate.getTime() - (24 * 60 * ONE_MINUTE_IN_MILLIS));
-        }
-
-        for (Object[] replacement : breaches) {
-            int quantity = ((Long) replacement[0]).intValue();
-            String state = "breached";
-            String dateStr = (String) replacement[1];
-            if (outterMap.containsKey(dateStr)) {
-                Map<String, Integer> qMap = new HashMap<>(outterMap.get(dateStr));
-                qMap.put(state, quantity);
-                outterMap.put(dateStr, qMap);
-            }
-        }
-
-        for (Object[] replacement : escalations) {
-            int quantity = ((Long) replacement[0]).intValue();
-            String state = "escalated";
-            String dateStr = (String) replacement[1];
-            if (outterMap.containsKey(dateStr)) {
-                Map<String, Integer> qMap = new HashMap<>(outterMap.get(dateStr));
-                qMap.put(state, quantity);
-                outterMap.put(dateStr, qMap);
-            }
+        try {
+            return getThirtyDaysActivities(Map.of("breached", SlaDailyActivity.METRIC.BREACHED, "escalated",
+                    SlaDailyActivity.METRIC.ESCALATED));
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getActivitiesForThirtyDays() {}",
+                    e.getMessage(), e);
+            throw new BusinessException(e.getMessage());
         }
-
-        return outterMap;
-
     }
 
     /**
@@ -1821,7 +1702,8 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     }
 
     /**
-     * Get SLA history counts based on different statuses.
+     * Get SLA history counts based on different statuses, from the daily activity
+     * counters.
      *
      * @return Returns a JSON array containing SLA history counts based on different
      *         statuses.
@@ -1829,35 +1711,11 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
     @Override
     public Map<String, Map<String, Integer>> slaTriggeredByStatus() {
         try {
-            List<Object[]> slaHistories = slaTemplateHistoryDao.getAllSlaAudit();
-            Date currentDate = new Date();
-            SimpleDateFormat dateFormat = new SimpleDateFormat(SlaUtils.YYYY_MM_DD);
-            Map<String, Map<String, Integer>> outterMap = new HashMap<>();
-            Map<String, Integer> innerMap = new HashMap<>();
-            for (int i = 1; i <= 30; i++) {
-                String formattedCurrentDate = dateFormat.format(currentDate);
-                innerMap.put("NEW", 0);
-                innerMap.put("IN_PROGRESS", 0);
-                innerMap.put("ON_HOLD", 0);
-                innerMap.put("COMPLETED", 0);
-                innerMap.put("CANCELLED", 0);
-                outterMap.put(formattedCurrentDate, innerMap);
-                final long ONE_MINUTE_IN_MILLIS = 60000;
-                currentDate = new Date(currentDate.getTime() - (24 * 60 * ONE_MINUTE_IN_MILLIS));
-            }
-            for (Object[] replacement : slaHistories) {
-                int quantity = ((Long) replacement[0]).intValue();
-                String state = (String) replacement[1];
-                String dateStr = (String) replacement[2];
-
-                if (outterMap.containsKey(dateStr)) {
-                    Map<String, Integer> qMap = new HashMap<>(outterMap.get(dateStr)); // Create a new instance for each
-                                                                                       // date
-                    qMap.put(state, quantity);
-                    outterMap.put(dateStr, qMap);
-                }
+            Map<String, SlaDailyActivity.METRIC> metrics = new HashMap<>();
+            for (SlaHistory.STAGE stage : SlaHistory.STAGE.values()) {
+                metrics.put(stage.name(), SlaDailyActivity.METRIC.valueOf(stage.name()));
             }
-            return outterMap;
+            return getThirtyDaysActivities(metrics);
         } catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryServiceImpl @Method :slaTriggeredByStatus() {}", e.getMessage(),
                     e);
@@ -1865,133 +1723,125 @@ public class SlaHistoryServiceImpl extends AbstractService<Integer, SlaHistory>
         }
     }
 
+    /**
+     * Builds the counts of the given metrics for each of the last 30 days, keyed
+     * by day then by name.
+     *
+     * @param metrics The metrics to count, by their name in the result.
+     * @return The counts, 0 for the days without activity.
+     */
+    private Map<String, Map<String, Integer>> getThirtyDaysActivities(Map<String, SlaDailyActivity.METRIC> metrics) {
+        Map<Integer, Map<SlaDailyActivity.METRIC, Long>> totals = slaActivityRollup.getDailyTotals(THIRTY_DAYS);
+        LocalDate today = LocalDate.now();
+        Map<String, Map<String, Integer>> outterMap = new HashMap<>();
+        for (int daysAgo = 0; daysAgo < THIRTY_DAYS; daysAgo++) {
+            Map<SlaDailyActivity.METRIC, Long> dayTotals = totals.getOrDefault(daysAgo, Collections.emptyMap());
+            Map<String, Integer> innerMap = new HashMap<>();
+            for (Map.Entry<String, SlaDailyActivity.METRIC> metric : metrics.entrySet()) {
+                innerMap.put(metric.getKey(), dayTotals.getOrDefault(metric.getValue(), 0L).intValue());
+            }
+            outterMap.put(today.minusDays(daysAgo).toString(), innerMap);
+        }
+        return outterMap;
+    }
+
     @Override
     public int auditCount(long slaId) {
         try {
-            String result = getSlaHistoryAudById(slaId);
-            JSONArray jsonArray = new JSONArray(result);
-            return jsonArray.length();
+            return slaTimeline.count((int) slaId);
         } catch (Exception e) {
-            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getSlaHistoryAudById() {}", e.getMessage(),
-                    e);
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :auditCount() {}", e.getMessage(), e);
             throw new BusinessException("An error occurred while retrieving SLA history data.", e);
         }
     }
 
     @Override
     public String getSlaHistoryAudById(long slaId) {
-        String result = getSlaHistoryAud(slaId);
-        log.info("getSlaHistoryAudById {}", result);
-        JSONArray jsonArray = new JSONArray(result);
-        List<JSONObject> list = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            if (!jsonArray.getJSONObject(i).isEmpty()) {
-                list.add(jsonArray.getJSONObject(i));
-            }
-        }
-        list.sort(Comparator.comparing(obj -> Long.parseLong(obj.optString(SlaUtils.ACTION_TIME))));
-        log.info("list====== {}", list);
-        JSONArray sortedArray = new JSONArray();
-        for (JSONObject obj : list) {
-            sortedArray.put(obj);
-        }
-        log.info("sortedArray====== {}", sortedArray);
-        return sortedArray.toString();
-    }
-
-    public String getSlaHistoryAud(long slaId) {
         try {
-            JSONArray jsonArray = slaTemplateHistoryDao.getHistoryAuditById(slaId);
-            log.info("jsonArray {}, jsonArray.length()========", jsonArray, jsonArray.length());
-            JSONArray newJsonArray = new JSONArray();
-            JSONObject previousObject = null;
-
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject currentObject = jsonArray.getJSONObject(i);
-                JSONObject newJsonObject = new JSONObject();
-
-                if (previousObject != null) {
-
-                    String currentStateRaw = currentObject.optString(SlaUtils.STATE);
-                    String previousStateRaw = previousObject.optString(SlaUtils.STATE);
-                    String currentState = editAction(currentStateRaw);
-                    String previousState = editAction(previousStateRaw);
-
-                    boolean currentBreachStatus = currentObject.optBoolean("breachStatus");
-                    boolean previousBreachStatus = previousObject.optBoolean("breachStatus");
-
-                    if (!currentState.equals(previousState)) {
-                        newJsonObject.put(SlaUtils.ACTION, currentState);
-                        newJsonObject.put(SlaUtils.DESCRIPTION, currentObject.optString(SlaUtils.SPEL_EXPRESSION));
-                        newJsonObject.put(SlaUtils.ACTION_TIME, currentObject.optString(SlaUtils.MODIFIED_TIME));
-                        newJsonObject.put(SlaUtils.LEVEL, SlaUtils.LEVEL_TAG + currentObject.optString(SlaUtils.LEVEL));
-                    }
-
-                    if (currentBreachStatus != previousBreachStatus) {
-                        newJsonObject.put(SlaUtils.ACTION, "Breached");
-                        newJsonObject.put("description", "SLA has been breached");
-                        newJsonObject.put(SlaUtils.ACTION_TIME, currentObject.optString(SlaUtils.MODIFIED_TIME));
-                        newJsonObject.put(SlaUtils.LEVEL, SlaUtils.LEVEL_TAG + currentObject.optString(SlaUtils.LEVEL));
-                    }
-
-                    newJsonArray.put(newJsonObject);
-                } else {
-                    previousObject = currentObject;
-                    newJsonObject.put(SlaUtils.ACTION_TIME, currentObject.optString(SlaUtils.MODIFIED_TIME));
-                    newJsonObject.put(SlaUtils.ACTION, editAction(currentObject.optString(SlaUtils.STATE)));
-                    newJsonObject.put(SlaUtils.LEVEL, SlaUtils.LEVEL_TAG + currentObject.optString(SlaUtils.LEVEL));
-                    newJsonObject.put(SlaUtils.DESCRIPTION, currentObject.optString(SlaUtils.SPEL_EXPRESSION));
-                    newJsonArray.put(newJsonObject);
-                }
+            JSONArray timeline = new JSONArray();
+            for (SlaTimelineEntry entry : slaTimeline.getEntries((int) slaId)) {
+                timeline.put(entry.toJson());
             }
-
-            newJsonArray = auditEscalation(newJsonArray, slaId);
-
-            return newJsonArray.toString();
-
+            return timeline.toString();
         } catch (Exception e) {
             log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getSlaHistoryAudById() {}", e.getMessage(),
                     e);
             throw new BusinessException("An error occurred while retrieving SLA history data.", e);
         }
+    }
 
+    /**
+     * Get a page of the timeline of an SLA history.
+     *
+     * @param slaId  The ID of the SLA history.
+     * @param cursor The cursor returned with the previous page, null for the
+     *               first page.
+     * @param size   The number of entries of the page.
+     * @return Returns a JSON object with the entries and the cursor of the next
+     *         page, null after the last page.
+     */
+    @Override
+    public String getSlaHistoryTimeline(long slaId, String cursor, int size) {
+        try {
+            return slaTimeline.getPage((int) slaId, cursor, size).toString();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaHistoryServiceImpl @Method :getSlaHistoryTimeline() {}", e.getMessage(),
+                    e);
+            throw new BusinessException(e.getMessage());
+        }
     }
 
-    private String editAction(String input) {
-        String[] words = input.toLowerCase().split("_");
-        StringBuilder result = new StringBuilder();
-        for (String word : words) {
-            if (result.length() > 0) {
-                result.append(" ");
-            }
-            result.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+    /**
+     * Appends a transition of an SLA history to the transition log, in the
+     * transaction changing the history, and counts the state it reached.
+     *
+     * @param history   The SLA history, in its new state.
+     * @param fromState The state before the change, null when it is started.
+     * @param reason    The condition which caused the change.
+     */
+    private void recordTransition(SlaHistory history, SlaHistory.STAGE fromState, String reason) {
+        SlaHistoryTransition transition = new SlaHistoryTransition();
+        transition.setSlaHistoryId(history.getId());
+        transition.setFromState(fromState);
+        transition.setToState(history.getState());
+        transition.setLevel(history.getLevel());
+        transition.setBreachStatus(history.isBreachStatus());
+        transition.setReason(reason == null || reason.length() <= MAX_REASON_LENGTH ? reason
+                : reason.substring(0, MAX_REASON_LENGTH));
+        transition.setTransitionTime(System.currentTimeMillis());
+        slaHistoryTransitionDao.create(transition);
+        if (fromState != history.getState()) {
+            slaActivityRollup.recordTransition(history, transition.getTransitionTime());
         }
+    }
+
+    /**
+     * Start of an SLA history prepared by {@link #prepareStarts}: the outcome of
+     * the start rule, its times and the escalation recipients resolved by the
+     * fan-out, by level.
+     */
+    private static final class SlaStart {
 
-        return result.toString();
+        private final boolean matched;
+        private final StringBuilder expressionBuilder;
+        private final SlaStartTimes times;
+        private final Map<Integer, List<String>> recipients = new ConcurrentHashMap<>();
+
+        private SlaStart(boolean matched, StringBuilder expressionBuilder, SlaStartTimes times) {
+            this.matched = matched;
+            this.expressionBuilder = expressionBuilder;
+            this.times = times;
+        }
     }
 
-    private JSONArray auditEscalation(JSONArray inputJsonArray, long slaId) {
-        try {
-            JSONArray jsonArray = escalationDao.getAuditByFk(slaId);
-            log.info("jsonArray======== {}", jsonArray);
-            if (jsonArray == null) {
-                return inputJsonArray;
-            }
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject currentObject = jsonArray.getJSONObject(i);
-                JSONObject jsonObject = new JSONObject();
-
-                jsonObject.put(SlaUtils.ACTION, "escalated at level " + currentObject.optString(SlaUtils.LEVEL));
-                jsonObject.put(SlaUtils.ACTION_TIME, currentObject.optString("createdTime"));
-                jsonObject.put(SlaUtils.LEVEL, SlaUtils.LEVEL_TAG + currentObject.optString(SlaUtils.LEVEL));
-                jsonObject.put(SlaUtils.DESCRIPTION, currentObject.optString("whomToEscalate"));
-                log.info("jsonObject============= {}", jsonObject);
-                inputJsonArray.put(jsonObject);
-            }
-            return inputJsonArray;
-        } catch (Exception e) {
-            log.error("Error Inside @class: YourClassName @Method: auditEscalation() {}", e.getMessage(), e);
-            throw new BusinessException("An error occurred during the escalation audit.", e);
+    private static final class SlaStartTimes {
+
+        private final ZonedDateTime breachTime;
+        private final ZonedDateTime escalateTime;
+
+        private SlaStartTimes(ZonedDateTime breachTime, ZonedDateTime escalateTime) {
+            this.breachTime = breachTime;
+            this.escalateTime = escalateTime;
         }
     }
 }
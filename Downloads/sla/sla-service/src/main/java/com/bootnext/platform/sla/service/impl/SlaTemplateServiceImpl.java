@@ -20,6 +20,7 @@ import com.bootnext.platform.sla.dao.ISlaLevelTemplateDao;
 import com.bootnext.platform.sla.dao.ISlaTemplateDao;
 import com.bootnext.platform.sla.model.template.SlaLevelTemplate;
 import com.bootnext.platform.sla.model.template.SlaTemplate;
+import com.bootnext.platform.sla.registry.SlaTemplateRegistry;
 import com.bootnext.platform.sla.service.ISlaTemplateService;
 import com.bootnext.platform.sla.utils.SlaUtils;
 import com.bootnext.platform.utils.Utils;
@@ -62,6 +63,9 @@ public class SlaTemplateServiceImpl extends AbstractService<Integer, SlaTemplate
     @Autowired
     private UserRest userRest;
 
+    @Autowired
+    private SlaTemplateRegistry slaTemplateRegistry;
+
 
     @Autowired
     public void setDao(ISlaTemplateDao dao) {
@@ -91,6 +95,7 @@ public class SlaTemplateServiceImpl extends AbstractService<Integer, SlaTemplate
 
                 JSONArray levelJson = new JSONArray(slaTemplate.getLevelTemplate());
                 processSlaLevelTemplates(id, levelJson, slaTemplate);
+                slaTemplateRegistry.invalidateAll();
                 return slaTemplate;
             } catch (Exception e) {
                 log.error("Error Inside @class: SlaTemplateServiceImpl @Method :create() {}", e.getMessage(), e);
@@ -292,7 +297,9 @@ public class SlaTemplateServiceImpl extends AbstractService<Integer, SlaTemplate
         log.info("Update record by slaTemplate");
         try {
             slaTemplate.setModifiedTime(new Date().getTime());
-            return slaTemplateDao.update(slaTemplate);
+            SlaTemplate updatedTemplate = slaTemplateDao.update(slaTemplate);
+            slaTemplateRegistry.invalidateAll();
+            return updatedTemplate;
         } catch (Exception e) {
             log.error("Error Inside @class: SlaConfigurationServiceImpl @Method :update() {}", e.getMessage(), e);
             throw new BusinessException(e.getMessage());
@@ -0,0 +1,292 @@
+package com.bootnext.platform.sla.timeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.dao.IEscalationDao;
+import com.bootnext.platform.sla.dao.ISlaHistoryDao;
+import com.bootnext.platform.sla.dao.ISlaHistoryTransitionDao;
+import com.bootnext.platform.sla.model.template.SlaHistoryTransition;
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Timeline of an SLA history, read by pages.
+ *
+ * The timeline merges three streams, each read in timeline order: the audit
+ * rows written before the transition log, the transitions and the sent
+ * escalations. A page reads at most one page plus one entry from each stream,
+ * starting after the cursor of the previous page, and merges them. The count
+ * only counts the rows of each stream. The audit rows are only read for the
+ * histories started before the transition log.
+ */
+@Component
+@Slf4j
+public class SlaTimeline {
+
+    @Autowired
+    private ISlaHistoryDao slaHistoryDao;
+
+    @Autowired
+    private ISlaHistoryTransitionDao slaHistoryTransitionDao;
+
+    @Autowired
+    private IEscalationDao escalationDao;
+
+    @Value("${sla.timeline.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Returns the whole timeline of an SLA history.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @return The entries, oldest first.
+     */
+    public List<SlaTimelineEntry> getEntries(int slaHistoryId) {
+        return read(slaHistoryId, null, 0);
+    }
+
+    /**
+     * Returns a page of the timeline of an SLA history.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @param cursor       The cursor returned with the previous page, null for
+     *                     the first page.
+     * @param size         The number of entries of the page, at most the
+     *                     configured maximum.
+     * @return The page, as a JSON object with the entries and the cursor of the
+     *         next page, null after the last page.
+     * @throws BusinessException If the cursor is invalid.
+     */
+    public JSONObject getPage(int slaHistoryId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<SlaTimelineEntry> entries = read(slaHistoryId, cursor, pageSize);
+        JSONArray page = new JSONArray();
+        for (int i = 0; i < Math.min(entries.size(), pageSize); i++) {
+            page.put(entries.get(i).toJson());
+        }
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("entries", page);
+        jsonObject.put("nextCursor",
+                entries.size() > pageSize ? entries.get(pageSize - 1).getCursor() : JSONObject.NULL);
+        return jsonObject;
+    }
+
+    /**
+     * Returns the number of entries of the timeline of an SLA history.
+     *
+     * @param slaHistoryId The ID of the SLA history.
+     * @return The number of entries.
+     */
+    public int count(int slaHistoryId) {
+        long count = readLegacyAudit(slaHistoryId).size()
+                + slaHistoryTransitionDao.countSlaHistoryTransitionsByHistoryId(slaHistoryId)
+                + escalationDao.countEscalationTimeline(slaHistoryId);
+        return (int) count;
+    }
+
+    /**
+     * Reads the entries following the cursor, up to limit plus one so that the
+     * caller knows if another page follows, or all of them if limit is 0.
+     */
+    private List<SlaTimelineEntry> read(int slaHistoryId, String cursor, int limit) {
+        long[] position = parseCursor(cursor);
+        int fetch = limit > 0 ? limit + 1 : 0;
+        List<List<SlaTimelineEntry>> streams = new ArrayList<>(3);
+        streams.add(auditAfter(slaHistoryId, position, fetch));
+        streams.add(transitionsAfter(slaHistoryId, position, fetch));
+        streams.add(escalationsAfter(slaHistoryId, position, fetch));
+        return merge(streams, fetch);
+    }
+
+    /**
+     * Merges streams already in timeline order, keeping at most limit entries,
+     * or all of them if limit is 0.
+     */
+    static List<SlaTimelineEntry> merge(List<List<SlaTimelineEntry>> streams, int limit) {
+        // heads of the streams, as {stream, index}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> SlaTimelineEntry.ORDER.compare(streams.get(a[0]).get(a[1]),
+                        streams.get(b[0]).get(b[1])));
+        for (int i = 0; i < streams.size(); i++) {
+            if (!streams.get(i).isEmpty()) {
+                heads.add(new int[] { i, 0 });
+            }
+        }
+        List<SlaTimelineEntry> merged = new ArrayList<>();
+        while (!heads.isEmpty() && (limit <= 0 || merged.size() < limit)) {
+            int[] head = heads.poll();
+            List<SlaTimelineEntry> stream = streams.get(head[0]);
+            merged.add(stream.get(head[1]));
+            if (head[1] + 1 < stream.size()) {
+                heads.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
+        return merged;
+    }
+
+    private List<SlaTimelineEntry> transitionsAfter(int slaHistoryId, long[] position, int fetch) {
+        List<SlaHistoryTransition> transitions = slaHistoryTransitionDao.getSlaHistoryTransitionsAfter(
+                slaHistoryId, position[0], afterId(position, SlaTimelineEntry.Source.TRANSITION), fetch);
+        List<SlaTimelineEntry> entries = new ArrayList<>(transitions.size());
+        for (SlaHistoryTransition transition : transitions) {
+            boolean breached = transition.getFromState() == transition.getToState() && transition.isBreachStatus();
+            entries.add(new SlaTimelineEntry(transition.getTransitionTime(), SlaTimelineEntry.Source.TRANSITION,
+                    transition.getId(), breached ? "Breached" : editAction(transition.getToState().name()),
+                    transition.getReason(), transition.getLevel() == null ? 0 : transition.getLevel()));
+        }
+        return entries;
+    }
+
+    private List<SlaTimelineEntry> escalationsAfter(int slaHistoryId, long[] position, int fetch) {
+        List<Object[]> rows = escalationDao.getEscalationTimelineAfter(slaHistoryId, position[0],
+                afterId(position, SlaTimelineEntry.Source.ESCALATION), fetch);
+        List<SlaTimelineEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int level = ((Number) row[3]).intValue();
+            entries.add(new SlaTimelineEntry(((Number) row[1]).longValue(), SlaTimelineEntry.Source.ESCALATION,
+                    ((Number) row[0]).longValue(), "escalated at level " + level, editMailList((String) row[2]),
+                    level));
+        }
+        return entries;
+    }
+
+    private List<SlaTimelineEntry> auditAfter(int slaHistoryId, long[] position, int fetch) {
+        long afterId = afterId(position, SlaTimelineEntry.Source.AUDIT);
+        List<SlaTimelineEntry> entries = new ArrayList<>();
+        for (SlaTimelineEntry entry : readLegacyAudit(slaHistoryId)) {
+            if (entry.getActionTime() > position[0]
+                    || (entry.getActionTime() == position[0] && entry.getSourceId() > afterId)) {
+                entries.add(entry);
+                if (fetch > 0 && entries.size() >= fetch) {
+                    break;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the audit changes of an SLA history started before the transition
+     * log, none for the histories whose start is in the log.
+     */
+    private List<SlaTimelineEntry> readLegacyAudit(int slaHistoryId) {
+        if (slaHistoryTransitionDao.hasSlaHistoryStartTransition(slaHistoryId)) {
+            return Collections.emptyList();
+        }
+        return readAudit(slaHistoryId);
+    }
+
+    /**
+     * Reads the changes of an SLA history made before the transition log, by
+     * comparing its consecutive audit rows. Those rows no longer change, the
+     * position of a change in the list is its ID.
+     */
+    private List<SlaTimelineEntry> readAudit(int slaHistoryId) {
+        JSONArray rows = slaHistoryDao.getHistoryAuditById(slaHistoryId);
+        if (rows == null || rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<JSONObject> changes = new ArrayList<>();
+        JSONObject previous = null;
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject current = rows.getJSONObject(i);
+            if (current.optString(SlaUtils.MODIFIED_TIME).isEmpty()) {
+                continue;
+            }
+            if (previous == null || !current.optString(SlaUtils.STATE).equals(previous.optString(SlaUtils.STATE))
+                    || current.optBoolean("breachStatus") != previous.optBoolean("breachStatus")) {
+                changes.add(current);
+            }
+            previous = current;
+        }
+        changes.sort((a, b) -> Long.compare(a.getLong(SlaUtils.MODIFIED_TIME), b.getLong(SlaUtils.MODIFIED_TIME)));
+        List<SlaTimelineEntry> entries = new ArrayList<>(changes.size());
+        boolean breached = false;
+        for (JSONObject change : changes) {
+            boolean breach = change.optBoolean("breachStatus") && !breached;
+            breached = change.optBoolean("breachStatus");
+            entries.add(new SlaTimelineEntry(change.getLong(SlaUtils.MODIFIED_TIME), SlaTimelineEntry.Source.AUDIT,
+                    entries.size(), breach ? "Breached" : editAction(change.optString(SlaUtils.STATE)),
+                    breach ? "SLA has been breached" : change.optString(SlaUtils.SPEL_EXPRESSION),
+                    change.optInt(SlaUtils.LEVEL)));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the ID after which the entries of a source start, among the
+     * entries of the cursor time: the entries of the sources ordered before the
+     * cursor entry are all on the previous pages, the ones ordered after are
+     * all to come.
+     */
+    private static long afterId(long[] position, SlaTimelineEntry.Source source) {
+        if (source.ordinal() < position[1]) {
+            return Long.MAX_VALUE;
+        }
+        if (source.ordinal() > position[1]) {
+            return Long.MIN_VALUE;
+        }
+        return position[2];
+    }
+
+    private static long[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new long[] { Long.MIN_VALUE, 0, Long.MIN_VALUE };
+        }
+        String[] parts = cursor.split("\\.");
+        try {
+            if (parts.length != 3) {
+                throw new NumberFormatException(cursor);
+            }
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]) };
+        } catch (NumberFormatException e) {
+            throw new BusinessException("invalid timeline cursor " + cursor);
+        }
+    }
+
+    private static String editAction(String input) {
+        String[] words = input.toLowerCase().split("_");
+        StringBuilder result = new StringBuilder();
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append(" ");
+            }
+            result.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return result.toString();
+    }
+
+    private static String editMailList(String whomToEscalate) {
+        if (whomToEscalate == null) {
+            return null;
+        }
+        StringBuilder emailList = new StringBuilder("Mail sent to: ");
+        try {
+            JSONArray emails = new JSONArray(whomToEscalate);
+            for (int i = 0; i < emails.length(); i++) {
+                if (i > 0) {
+                    emailList.append(", ");
+                }
+                emailList.append(emails.getString(i));
+            }
+            return emailList.toString();
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTimeline @Method :editMailList() {}", e.getMessage(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bootnext.platform.sla.timeline;
+
+import java.util.Comparator;
+
+import org.json.JSONObject;
+
+import com.bootnext.platform.sla.utils.SlaUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of the timeline of an SLA history.
+ *
+ * Entries are ordered by time, then by source and by ID within the source, so
+ * that the position of an entry, its cursor, is stable between requests.
+ */
+@Getter
+@AllArgsConstructor
+public final class SlaTimelineEntry {
+
+    /** Where the entry comes from, in their order for entries of the same time. */
+    public enum Source {
+        AUDIT, TRANSITION, ESCALATION
+    }
+
+    public static final Comparator<SlaTimelineEntry> ORDER = Comparator
+            .comparingLong(SlaTimelineEntry::getActionTime).thenComparing(SlaTimelineEntry::getSource)
+            .thenComparingLong(SlaTimelineEntry::getSourceId);
+
+    private final long actionTime;
+
+    private final Source source;
+
+    /** ID of the entry within its source. */
+    private final long sourceId;
+
+    private final String action;
+
+    private final String description;
+
+    private final int level;
+
+    /**
+     * Returns the cursor of the entry, from which the next page starts.
+     */
+    public String getCursor() {
+        return actionTime + "." + source.ordinal() + "." + sourceId;
+    }
+
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put(SlaUtils.ACTION, action);
+        jsonObject.put(SlaUtils.DESCRIPTION, description == null ? "" : description);
+        jsonObject.put(SlaUtils.ACTION_TIME, String.valueOf(actionTime));
+        jsonObject.put(SlaUtils.LEVEL, SlaUtils.LEVEL_TAG + level);
+        return jsonObject;
+    }
+}
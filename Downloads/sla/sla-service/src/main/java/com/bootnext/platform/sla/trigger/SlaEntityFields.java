@@ -0,0 +1,187 @@
+package com.bootnext.platform.sla.trigger;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+/**
+ * The fields of a posted entity read by the SLA templates of one application
+ * and entity name, arranged as a tree of field names.
+ *
+ * The entity is read in one streaming pass: only the configured fields are
+ * copied into the returned {@link JSONObject}, every other value is skipped
+ * without being decoded. A field whose path goes through a value which is not
+ * an object is copied as a whole, so that the entity reads exactly like the
+ * complete one for the configured paths.
+ *
+ * Instances are immutable and shared between concurrent trigger calls.
+ */
+public final class SlaEntityFields {
+
+    /** Reads the complete entity, used when the fields cannot be determined. */
+    public static final SlaEntityFields ALL = new SlaEntityFields(null);
+
+    static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(Integer.MAX_VALUE).build())
+            .build();
+
+    private final Node root;
+
+    private SlaEntityFields(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Creates the fields of the given paths.
+     *
+     * @param fieldPaths The field paths, using "." as path separator; empty
+     *                   names are ignored like in the rule evaluation.
+     * @return The fields to read.
+     */
+    public static SlaEntityFields of(Collection<String> fieldPaths) {
+        Node root = new Node();
+        for (String fieldPath : fieldPaths) {
+            Node node = root;
+            for (String name : fieldPath.split("\\.")) {
+                if (!name.isEmpty() && !node.whole) {
+                    node = node.children.computeIfAbsent(name, k -> new Node());
+                }
+            }
+            if (node != root) {
+                node.whole = true;
+                node.children.clear();
+            }
+        }
+        return new SlaEntityFields(root);
+    }
+
+    /**
+     * Tells whether the complete entity is read.
+     *
+     * @return True if every field is read, false otherwise.
+     */
+    public boolean isAll() {
+        return root == null;
+    }
+
+    /**
+     * Reads the fields from the JSON text of an entity.
+     *
+     * @param entityString The JSON text of the entity.
+     * @return The entity restricted to the fields.
+     * @throws JSONException If the text is not a JSON object.
+     */
+    public JSONObject read(String entityString) {
+        if (root == null) {
+            return new JSONObject(entityString);
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(entityString)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the fields from a part of a JSON text holding an entity.
+     *
+     * @param content The JSON text.
+     * @param offset  The offset of the entity in the text.
+     * @param length  The length of the entity in the text.
+     * @return The entity restricted to the fields.
+     * @throws JSONException If the text is not a JSON object.
+     */
+    public JSONObject read(char[] content, int offset, int length) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content, offset, length)) {
+            return root == null ? readObject(parser, parser.nextToken()) : read(parser);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    private JSONObject read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JSONException("A JSONObject text must begin with '{'");
+        }
+        JSONObject entity = new JSONObject();
+        readFields(parser, root, entity);
+        return entity;
+    }
+
+    private static void readFields(JsonParser parser, Node node, JSONObject target) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.whole || token != JsonToken.START_OBJECT) {
+                target.put(parser.getCurrentName(), readValue(parser, token));
+            } else {
+                JSONObject value = target.optJSONObject(parser.getCurrentName());
+                if (value == null) {
+                    value = new JSONObject();
+                    target.put(parser.getCurrentName(), value);
+                }
+                readFields(parser, child, value);
+            }
+        }
+    }
+
+    private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser, token);
+            case START_ARRAY:
+                JSONArray array = new JSONArray();
+                for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+                    array.put(readValue(parser, item));
+                }
+                return array;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT:
+                // same number types as a complete org.json parse
+                return JSONObject.stringToValue(parser.getText());
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return JSONObject.NULL;
+            default:
+                throw new JSONException("Unexpected token " + token);
+        }
+    }
+
+    private static JSONObject readObject(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            throw new JSONException("A JSONObject text must begin with '{'");
+        }
+        JSONObject object = new JSONObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            object.put(name, readValue(parser, parser.nextToken()));
+        }
+        return object;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean whole;
+    }
+}
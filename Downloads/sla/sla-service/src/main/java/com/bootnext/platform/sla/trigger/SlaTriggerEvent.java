@@ -0,0 +1,154 @@
+package com.bootnext.platform.sla.trigger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+import com.bootnext.platform.sla.utils.SlaUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * One event of a batch of entity events.
+ *
+ * The events are read in one streaming pass over the batch; the entity of an
+ * event is only located in the batch text and is read later, once the fields
+ * needed by the templates of its application and entity name are known.
+ */
+@Getter
+public final class SlaTriggerEvent {
+
+    private final int index;
+    private final boolean object;
+    private String applicationName;
+    private String entityName;
+    private String entityId;
+    private List<String> changedFields;
+    @Getter(AccessLevel.NONE)
+    private String entityVersion;
+    private final char[] content;
+    private int entityOffset = -1;
+    private int entityLength;
+
+    private SlaTriggerEvent(int index, boolean object, char[] content) {
+        this.index = index;
+        this.object = object;
+        this.content = content;
+    }
+
+    /**
+     * Reads the events of a batch.
+     *
+     * @param eventsString The JSON array of entity events.
+     * @param maxEvents    The maximum number of events of the batch.
+     * @return The events, in order.
+     * @throws JSONException     If the text is not a JSON array.
+     * @throws BusinessException If the batch exceeds the maximum number of events.
+     */
+    public static List<SlaTriggerEvent> readAll(String eventsString, int maxEvents) {
+        char[] content = eventsString.toCharArray();
+        try (JsonParser parser = SlaEntityFields.JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JSONException("A JSONArray text must start with '['");
+            }
+            List<SlaTriggerEvent> events = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (events.size() == maxEvents) {
+                    throw new BusinessException("Batch contains more than " + maxEvents + " events");
+                }
+                SlaTriggerEvent event = new SlaTriggerEvent(events.size(), token == JsonToken.START_OBJECT, content);
+                if (event.object) {
+                    event.readFields(parser);
+                } else {
+                    parser.skipChildren();
+                }
+                events.add(event);
+            }
+            return events;
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    private void readFields(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (SlaUtils.ENTITY.equals(name) && token == JsonToken.START_OBJECT) {
+                int start = (int) parser.getTokenLocation().getCharOffset();
+                parser.skipChildren();
+                entityOffset = start;
+                entityLength = (int) parser.getCurrentLocation().getCharOffset() - start;
+            } else if (SlaUtils.CHANGED_FIELDS.equals(name) && token == JsonToken.START_ARRAY) {
+                changedFields = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken().isScalarValue()) {
+                        changedFields.add(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                switch (name) {
+                    case SlaUtils.APPLICATION_NAME -> applicationName = parser.getText();
+                    case SlaUtils.ENTITY_NAME -> entityName = parser.getText();
+                    case SlaUtils.ENTITY_ID -> entityId = parser.getText();
+                    case SlaUtils.ENTITY_VERSION -> entityVersion = parser.getText();
+                    default -> {
+                        // not part of the event
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the entity carried by the event.
+     *
+     * @return The entity version, or null if the event has none.
+     * @throws BusinessException If the version is not a number.
+     */
+    public Long getEntityVersion() {
+        if (entityVersion == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(entityVersion);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(SlaUtils.ENTITY_VERSION + " of event at index " + index + " is not a number");
+        }
+    }
+
+    /**
+     * Reads the entity of the event.
+     *
+     * @param fields The fields read by the templates of the event.
+     * @return The entity restricted to the fields.
+     * @throws BusinessException If the event has no entity object.
+     */
+    public JSONObject readEntity(SlaEntityFields fields) {
+        if (entityOffset < 0) {
+            throw new BusinessException("entity of event at index " + index + " is not a JSON object");
+        }
+        return fields.read(content, entityOffset, entityLength);
+    }
+
+    /**
+     * Returns the key grouping the events of the same application and entity
+     * name.
+     *
+     * @return The group key of the event.
+     */
+    public String getGroupKey() {
+        return String.valueOf(applicationName) + '\u0000' + entityName;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bootnext.platform.sla.trigger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded pool running the independent read-only work of an entity event
+ * concurrently, e.g. the recipient lookups of the templates starting an SLA.
+ *
+ * The tasks only prepare work ahead of the transaction: their failures are
+ * logged and ignored, the trigger repeats the missing work sequentially and
+ * reports the errors itself. When the pool is saturated the calling thread
+ * runs the task, so the fan-out never exceeds the configured number of
+ * threads.
+ */
+@Component
+@Slf4j
+public class SlaTriggerFanOut {
+
+    @Value("${sla.trigger.fan-out.threads:8}")
+    private int threads;
+
+    @Value("${sla.trigger.fan-out.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${sla.trigger.fan-out.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sla-trigger-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the given tasks concurrently and waits for all of them, at most the
+     * configured timeout. The first task runs on the calling thread.
+     *
+     * @param tasks The independent tasks.
+     */
+    public void runAll(List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(tasks.size() - 1);
+        for (int i = 1; i < tasks.size(); i++) {
+            futures.add(executor.submit(tasks.get(i)));
+        }
+        run(tasks.get(0));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                log.warn("sla trigger task failed {}", String.valueOf(e.getCause()));
+            } catch (TimeoutException e) {
+                log.warn("sla trigger task did not complete in {} ms", timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("sla trigger task failed {}", String.valueOf(e));
+        }
+    }
+}
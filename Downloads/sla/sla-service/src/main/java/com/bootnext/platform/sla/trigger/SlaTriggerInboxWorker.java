@@ -0,0 +1,266 @@
+package com.bootnext.platform.sla.trigger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONArray;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootnext.platform.sla.dao.ISlaTriggerInboxDao;
+import com.bootnext.platform.sla.model.template.SlaTriggerInbox;
+import com.bootnext.platform.sla.service.ISlaHistoryService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the entity events stored in the SLA_TRIGGER_INBOX table.
+ *
+ * A single poller claims the due events in batches and hands them to a bounded
+ * pool of workers, one task per entity, so that the events of an entity are
+ * applied in acceptance order while different entities are applied in
+ * parallel. An event is removed from the inbox in the transaction applying it.
+ * A failed event is retried with an exponential backoff, holding back the
+ * following events of its entity, and is left in the failed state after the
+ * configured number of attempts. Events left in the processing state by a
+ * stopped instance are released once their claim is older than the processing
+ * lease.
+ */
+@Component
+@Slf4j
+public class SlaTriggerInboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private ISlaTriggerInboxDao slaTriggerInboxDao;
+
+    @Autowired
+    private ISlaHistoryService slaHistoryService;
+
+    @Autowired
+    private SlaTriggerLanes slaTriggerLanes;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sla.trigger.inbox.workers:4}")
+    private int workers;
+
+    @Value("${sla.trigger.inbox.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${sla.trigger.inbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${sla.trigger.inbox.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${sla.trigger.inbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sla.trigger.inbox.retry-backoff-ms:10000}")
+    private long retryBackoffMillis;
+
+    @Value("${sla.trigger.inbox.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${sla.trigger.inbox.processing-lease-ms:600000}")
+    private long processingLeaseMillis;
+
+    private ThreadPoolExecutor processors;
+    private ScheduledExecutorService poller;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger processorCount = new AtomicInteger();
+        processors = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sla-inbox-worker-" + processorCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sla-inbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("sla trigger inbox worker started with {} workers", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdown();
+        }
+        if (processors != null) {
+            processors.shutdown();
+            try {
+                if (!processors.awaitTermination(30, TimeUnit.SECONDS)) {
+                    processors.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                processors.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Claims a batch of due events and submits them, one task per entity, as
+     * long as the worker queue has room for them.
+     */
+    void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            Integer released = transactionTemplate.execute(
+                    status -> slaTriggerInboxDao.releaseStaleSlaTriggerInbox(now - processingLeaseMillis));
+            if (released != null && released > 0) {
+                log.warn("{} sla trigger events released after the processing lease expired", released);
+            }
+            if (processors.getQueue().remainingCapacity() <= 0) {
+                return;
+            }
+            String claimToken = UUID.randomUUID().toString();
+            List<SlaTriggerInbox> claimed = transactionTemplate.execute(status -> slaTriggerInboxDao
+                    .claimSlaTriggerInbox(slaTriggerInboxDao.getDueSlaTriggerInboxIds(now, batchSize), claimToken,
+                            now));
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+            Map<String, List<SlaTriggerInbox>> entities = new LinkedHashMap<>();
+            for (SlaTriggerInbox event : claimed) {
+                entities.computeIfAbsent(
+                        event.getApplicationName() + "\u0000" + event.getEntityName() + "\u0000" + event.getEntityId(),
+                        k -> new ArrayList<>()).add(event);
+            }
+            log.info("{} sla trigger events claimed for {} entities", claimed.size(), entities.size());
+            for (List<SlaTriggerInbox> events : entities.values()) {
+                try {
+                    processors.execute(() -> apply(events));
+                } catch (RejectedExecutionException e) {
+                    log.warn("worker queue full, {} sla trigger events postponed", events.size());
+                    release(ids(events));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxWorker @Method :poll() {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies the events of one entity in order. The first failure stops the
+     * entity: the failed event is retried later and the following ones are
+     * released, to be claimed again once the failed event is applied.
+     */
+    private void apply(List<SlaTriggerInbox> events) {
+        for (int i = 0; i < events.size(); i++) {
+            SlaTriggerInbox event = events.get(i);
+            try {
+                int lane = slaTriggerLanes.laneOf(event.getApplicationName(), event.getEntityName(),
+                        event.getEntityId());
+                slaTriggerLanes.run(lane, () -> transactionTemplate.execute(status -> {
+                    slaHistoryService.triggerSLA(event.getEntity(), event.getApplicationName(),
+                            event.getEntityName(), event.getEntityId(), changedFields(event),
+                            event.getEntityVersion());
+                    slaTriggerInboxDao.deleteByPk(event.getId());
+                    return null;
+                }));
+            } catch (Exception e) {
+                log.error("Error Inside @class: SlaTriggerInboxWorker @Method :apply() {}", e.getMessage(), e);
+                fail(event.getId(), e.getMessage());
+                release(ids(events.subList(i + 1, events.size())));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a failed event back in the inbox with a backoff, or leaves it in the
+     * failed state once it used all its attempts.
+     */
+    private void fail(Long eventId, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long now = System.currentTimeMillis();
+                for (SlaTriggerInbox event : slaTriggerInboxDao
+                        .getSlaTriggerInboxByIds(Collections.singletonList(eventId))) {
+                    event.setLastError(truncate(error));
+                    event.setModifiedTime(now);
+                    event.setAttempts(event.getAttempts() + 1);
+                    event.setClaimToken(null);
+                    if (event.getAttempts() >= maxAttempts) {
+                        event.setState(SlaTriggerInbox.STATE.FAILED);
+                        log.error("sla trigger event {} of entity {} failed after {} attempts", event.getId(),
+                                event.getEntityId(), event.getAttempts());
+                    } else {
+                        event.setState(SlaTriggerInbox.STATE.PENDING);
+                        event.setNextAttemptTime(now + backoff(event.getAttempts()));
+                    }
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxWorker @Method :fail() {}", e.getMessage(), e);
+        }
+    }
+
+    private void release(List<Long> eventIds) {
+        try {
+            transactionTemplate.execute(status -> slaTriggerInboxDao.releaseSlaTriggerInboxByIds(eventIds));
+        } catch (Exception e) {
+            log.error("Error Inside @class: SlaTriggerInboxWorker @Method :release() {}", e.getMessage(), e);
+        }
+    }
+
+    private long backoff(int attempts) {
+        if (attempts <= 0) {
+            return 0;
+        }
+        long delay = retryBackoffMillis << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMillis);
+    }
+
+    private static List<String> changedFields(SlaTriggerInbox event) {
+        if (event.getChangedFields() == null) {
+            return null;
+        }
+        JSONArray changedFields = new JSONArray(event.getChangedFields());
+        List<String> paths = new ArrayList<>(changedFields.length());
+        for (int i = 0; i < changedFields.length(); i++) {
+            paths.add(changedFields.getString(i));
+        }
+        return paths;
+    }
+
+    private static List<Long> ids(List<SlaTriggerInbox> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (SlaTriggerInbox event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
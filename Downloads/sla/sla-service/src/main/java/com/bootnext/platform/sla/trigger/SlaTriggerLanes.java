@@ -0,0 +1,118 @@
+package com.bootnext.platform.sla.trigger;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bootnext.core.generic.exceptions.application.BusinessException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Striped single-writer lanes serializing the triggers of the same entity.
+ *
+ * An entity event is mapped to a lane by the hash of its application, entity
+ * name and entity ID. The events of one lane are applied one after the other,
+ * in arrival order, so that two concurrent triggers of the same entity can no
+ * longer both miss the open SLA history and start it twice, or interleave
+ * their hold and resume updates. Events of entities mapped to other lanes are
+ * applied in parallel.
+ *
+ * The work runs on the calling thread, within its transaction, and the lane is
+ * released only once that work, including its commit, is over. A batch takes
+ * the lanes of all its entities in ascending order, so that batches and single
+ * triggers never wait for each other in a cycle.
+ */
+@Component
+public class SlaTriggerLanes {
+
+    @Value("${sla.trigger.lanes:64}")
+    private int laneCount;
+
+    @Value("${sla.trigger.lanes.wait-ms:30000}")
+    private long waitMillis;
+
+    private ReentrantLock[] lanes;
+
+    @PostConstruct
+    public void start() {
+        int size = Integer.highestOneBit(Math.max(1, laneCount - 1)) << 1;
+        lanes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Returns the lane of an entity.
+     *
+     * @param applicationName The name of the application.
+     * @param entityName      The name of the entity.
+     * @param entityId        The ID of the entity.
+     * @return The index of the lane.
+     */
+    public int laneOf(String applicationName, String entityName, String entityId) {
+        int hash = Objects.hash(applicationName, entityName, entityId);
+        return (hash ^ (hash >>> 16)) & (lanes.length - 1);
+    }
+
+    /**
+     * Runs the work of an entity in its lane.
+     *
+     * @param lane The lane of the entity, see {@link #laneOf}.
+     * @param work The work to run.
+     * @return The result of the work.
+     * @throws BusinessException If the lane is not free within the configured
+     *                           wait time.
+     * @throws Exception         If the work fails.
+     */
+    public <T> T run(int lane, Callable<T> work) throws Exception {
+        ReentrantLock lock = acquire(lane);
+        try {
+            return work.call();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the work of several entities once all their lanes are taken.
+     *
+     * @param laneIndexes The lanes of the entities, duplicates allowed.
+     * @param work        The work to run.
+     * @return The result of the work.
+     * @throws BusinessException If a lane is not free within the configured wait
+     *                           time.
+     * @throws Exception         If the work fails.
+     */
+    public <T> T run(Collection<Integer> laneIndexes, Callable<T> work) throws Exception {
+        TreeSet<Integer> sorted = new TreeSet<>(laneIndexes);
+        ReentrantLock[] taken = new ReentrantLock[sorted.size()];
+        int count = 0;
+        try {
+            for (int lane : sorted) {
+                taken[count] = acquire(lane);
+                count++;
+            }
+            return work.call();
+        } finally {
+            while (count > 0) {
+                taken[--count].unlock();
+            }
+        }
+    }
+
+    private ReentrantLock acquire(int lane) throws InterruptedException {
+        ReentrantLock lock = lanes[lane];
+        if (!lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+            throw new BusinessException("SLA trigger lane " + lane + " is busy");
+        }
+        return lock;
+    }
+}